@@ -0,0 +1,60 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParameters;
+
+import java.io.File;
+
+/**
+ * Common state for all benchmarks, generates an unsorted pom of the benchmarked size.
+ */
+@State(Scope.Thread)
+public abstract class AbstractPomBenchmark {
+    static final SortPomLogger SILENT_LOGGER = new SortPomLogger() {
+        @Override
+        public void warn(String content) {
+        }
+
+        @Override
+        public void info(String content) {
+        }
+
+        @Override
+        public void error(String content) {
+        }
+    };
+
+    /** Approximate number of xml elements in the benchmarked pom file */
+    @Param({"50", "500", "5000", "50000"})
+    public int elementCount;
+
+    String unsortedXml;
+
+    /** Must be called from the trial setup of each benchmark */
+    void generatePom() {
+        unsortedXml = PomGenerator.generate(elementCount, containsIgnoredSections());
+    }
+
+    /** Override this if the generated pom should contain sortpom ignore sections */
+    boolean containsIgnoredSections() {
+        return false;
+    }
+
+    /** Creates parameters that sort all entities, without backup files, in the given sort order */
+    static PluginParameters createPluginParameters(File pomFile, String predefinedSortOrder, String verifyFail) {
+        return PluginParameters.builder()
+                .setPomFile(pomFile)
+                .setFileOutput(false, ".bak", null, false)
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, true)
+                .setIndent(2, false)
+                .setSortOrder(null, predefinedSortOrder)
+                .setSortEntities("scope,groupId,artifactId", "groupId,artifactId", true, true)
+                .setVerifyFail(verifyFail)
+                .setTriggers(true)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Common state for benchmarks that depend on the sort order, runs the benchmark for every predefined sort order.
+ */
+@State(Scope.Thread)
+public abstract class AbstractSortOrderBenchmark extends AbstractPomBenchmark {
+
+    /** One of the predefined sort orders in sorter/src/main/resources */
+    @Param({"default_0_4_0", "default_1_0_0", "custom_1", "recommended_2008_06"})
+    public String sortOrder;
+
+}
@@ -0,0 +1,73 @@
+package sortpom.benchmark;
+
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.util.XmlOrderedResult;
+import sortpom.verify.ElementComparator;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ElementComparator.isElementOrdered, the comparison of the original and the sorted document during
+ * verification. Both an already sorted pom (the whole tree is traversed) and the unsorted pom are compared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ElementComparatorBenchmark extends AbstractSortOrderBenchmark {
+    private Element unsortedRoot;
+    private Element sortedRoot;
+    private Element sortedRootCopy;
+
+    @Setup(Level.Trial)
+    public void setup() throws JDOMException, IOException {
+        generatePom();
+        byte[] unsortedBytes = unsortedXml.getBytes(StandardCharsets.UTF_8);
+
+        PluginParameters pluginParameters = createPluginParameters(null, sortOrder, "SORT");
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+
+        XmlProcessor xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(unsortedBytes));
+        xmlProcessor.sortXml();
+
+        unsortedRoot = new SAXBuilder().build(new ByteArrayInputStream(unsortedBytes)).getRootElement();
+        sortedRoot = xmlProcessor.getNewDocument().getRootElement();
+        sortedRootCopy = (Element) sortedRoot.clone();
+    }
+
+    @Benchmark
+    public XmlOrderedResult isElementOrderedWhenSorted() {
+        return new ElementComparator(sortedRootCopy, sortedRoot).isElementOrdered();
+    }
+
+    @Benchmark
+    public XmlOrderedResult isElementOrderedWhenUnsorted() {
+        return new ElementComparator(unsortedRoot, sortedRoot).isElementOrdered();
+    }
+}
@@ -0,0 +1,145 @@
+package sortpom.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates synthetic pom files for the benchmarks. The pom files are unsorted, contain dependencies, managed
+ * dependencies, properties, plugins and modules, and have roughly the requested number of xml elements.
+ * The same arguments always generate the same pom file.
+ */
+final class PomGenerator {
+    private static final String[] GROUP_IDS = {"org.apache.maven.plugins", "org.jdom", "commons-io", "junit",
+            "org.mockito", "com.google.guava", "org.slf4j", "org.emergent.sortpom", "io.netty", "org.hamcrest"};
+    private static final String[] SCOPES = {null, "test", "provided", "runtime", "compile", "system", "import"};
+    private static final int ELEMENTS_PER_DEPENDENCY = 5;
+    private static final int ELEMENTS_PER_PLUGIN = 7;
+    private static final int ELEMENTS_IN_SKELETON = 13;
+    private static final int IGNORED_SECTION_INTERVAL = 10;
+
+    private final Random random = new Random(4711);
+    private final StringBuilder builder = new StringBuilder();
+    private final boolean ignoredSections;
+
+    private PomGenerator(boolean ignoredSections) {
+        this.ignoredSections = ignoredSections;
+    }
+
+    /**
+     * Generates an unsorted pom file
+     *
+     * @param elementCount    approximate number of xml elements in the pom
+     * @param ignoredSections if every tenth dependency version should be surrounded by sortpom ignore instructions
+     * @return the pom file content
+     */
+    static String generate(int elementCount, boolean ignoredSections) {
+        return new PomGenerator(ignoredSections).generatePom(Math.max(0, elementCount - ELEMENTS_IN_SKELETON));
+    }
+
+    private String generatePom(int budget) {
+        int dependencyCount = Math.max(1, budget * 40 / 100 / ELEMENTS_PER_DEPENDENCY);
+        int managedDependencyCount = Math.max(1, budget * 15 / 100 / ELEMENTS_PER_DEPENDENCY);
+        int propertyCount = Math.max(1, budget * 25 / 100);
+        int pluginCount = Math.max(1, budget * 15 / 100 / ELEMENTS_PER_PLUGIN);
+        int moduleCount = Math.max(1, budget * 5 / 100);
+
+        List<Runnable> sections = new ArrayList<>();
+        sections.add(() -> simpleElement("  ", "version", "1.0.0-SNAPSHOT"));
+        sections.add(() -> simpleElement("  ", "artifactId", "generated"));
+        sections.add(() -> simpleElement("  ", "modelVersion", "4.0.0"));
+        sections.add(() -> simpleElement("  ", "groupId", "sortpom.benchmark"));
+        sections.add(() -> simpleElement("  ", "packaging", "pom"));
+        sections.add(() -> properties(propertyCount));
+        sections.add(() -> dependencies("  ", dependencyCount));
+        sections.add(() -> dependencyManagement(managedDependencyCount));
+        sections.add(() -> build(pluginCount));
+        sections.add(() -> modules(moduleCount));
+        Collections.shuffle(sections, random);
+
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        builder.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+        builder.append(" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/maven-v4_0_0.xsd\">\n");
+        sections.forEach(Runnable::run);
+        builder.append("</project>\n");
+        return builder.toString();
+    }
+
+    private void properties(int count) {
+        builder.append("  <properties>\n");
+        for (int i = 0; i < count; i++) {
+            simpleElement("    ", "property." + randomName() + '.' + i, "value" + i);
+        }
+        builder.append("  </properties>\n");
+    }
+
+    private void dependencyManagement(int count) {
+        builder.append("  <dependencyManagement>\n");
+        dependencies("    ", count);
+        builder.append("  </dependencyManagement>\n");
+    }
+
+    private void dependencies(String indent, int count) {
+        builder.append(indent).append("<dependencies>\n");
+        for (int i = 0; i < count; i++) {
+            String childIndent = indent + "    ";
+            builder.append(indent).append("  <dependency>\n");
+            simpleElement(childIndent, "artifactId", randomName() + i);
+            simpleElement(childIndent, "groupId", GROUP_IDS[random.nextInt(GROUP_IDS.length)]);
+            String scope = SCOPES[random.nextInt(SCOPES.length)];
+            if (scope != null) {
+                simpleElement(childIndent, "scope", scope);
+            }
+            if (ignoredSections && i % IGNORED_SECTION_INTERVAL == 0) {
+                builder.append(childIndent).append("<?sortpom ignore?>\n");
+                simpleElement(childIndent, "version", "1." + i);
+                builder.append(childIndent).append("<?sortpom resume?>\n");
+            } else {
+                simpleElement(childIndent, "version", "1." + i);
+            }
+            builder.append(indent).append("  </dependency>\n");
+        }
+        builder.append(indent).append("</dependencies>\n");
+    }
+
+    private void build(int count) {
+        builder.append("  <build>\n");
+        builder.append("    <plugins>\n");
+        for (int i = 0; i < count; i++) {
+            builder.append("      <plugin>\n");
+            builder.append("        <configuration>\n");
+            simpleElement("          ", "skip", "false");
+            simpleElement("          ", "argLine", "-Xmx" + (i + 1) + "m");
+            builder.append("        </configuration>\n");
+            simpleElement("        ", "version", "2." + i);
+            simpleElement("        ", "artifactId", randomName() + "-maven-plugin");
+            simpleElement("        ", "groupId", GROUP_IDS[random.nextInt(GROUP_IDS.length)]);
+            builder.append("      </plugin>\n");
+        }
+        builder.append("    </plugins>\n");
+        builder.append("  </build>\n");
+    }
+
+    private void modules(int count) {
+        builder.append("  <modules>\n");
+        for (int i = 0; i < count; i++) {
+            simpleElement("    ", "module", randomName() + i);
+        }
+        builder.append("  </modules>\n");
+    }
+
+    private void simpleElement(String indent, String name, String text) {
+        builder.append(indent).append('<').append(name).append('>')
+                .append(text)
+                .append("</").append(name).append(">\n");
+    }
+
+    private String randomName() {
+        char[] chars = new char[6 + random.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
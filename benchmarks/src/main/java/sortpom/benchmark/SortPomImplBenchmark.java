@@ -0,0 +1,66 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.SortPomImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whole pipeline, from reading the pom file to writing the sorted pom file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortPomImplBenchmark extends AbstractSortOrderBenchmark {
+    private File pomFile;
+
+    @Setup(Level.Trial)
+    public void createPomFile() throws IOException {
+        generatePom();
+        pomFile = File.createTempFile("sortpom-benchmark", ".xml");
+    }
+
+    /** The sort operation overwrites the pom file, so restore the unsorted content before each invocation */
+    @Setup(Level.Invocation)
+    public void restoreUnsortedPom() throws IOException {
+        Files.write(pomFile.toPath(), unsortedXml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void removePomFile() throws IOException {
+        Files.deleteIfExists(pomFile.toPath());
+    }
+
+    @Benchmark
+    public void sortPom() {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(SILENT_LOGGER, createPluginParameters(pomFile, sortOrder, "SORT"));
+        sortPomImpl.sortPom();
+    }
+
+    /** Verify with verifyFail=WARN, so that the pom file is never written */
+    @Benchmark
+    public void verifyPom() {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(SILENT_LOGGER, createPluginParameters(pomFile, sortOrder, "WARN"));
+        sortPomImpl.verifyPom();
+    }
+}
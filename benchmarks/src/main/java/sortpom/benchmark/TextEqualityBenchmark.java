@@ -0,0 +1,69 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.util.TextEquality;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whitespace insensitive comparison of element texts that ElementComparator does for every
+ * element, with the regular expression that was used before and with TextEquality. The texts are equal apart
+ * from whitespace, which is the common case when a sorted pom file is verified.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TextEqualityBenchmark {
+    /** A version element, a short indented text and a multi line description */
+    @Param({"version", "indented", "description"})
+    public String text;
+
+    private String originalText;
+    private String sortedText;
+
+    @Setup
+    public void setup() {
+        switch (text) {
+            case "version":
+                originalText = "1.0.0-SNAPSHOT";
+                sortedText = "1.0.0-SNAPSHOT";
+                break;
+            case "indented":
+                originalText = "\n    org.apache.maven.plugins\n  ";
+                sortedText = "\n      org.apache.maven.plugins\n    ";
+                break;
+            default:
+                StringBuilder original = new StringBuilder();
+                StringBuilder sorted = new StringBuilder();
+                for (int i = 0; i < 20; i++) {
+                    original.append("\n    The sorting functionality, line ").append(i).append('.');
+                    sorted.append("\r\n      The sorting functionality, line ").append(i).append('.');
+                }
+                originalText = original.toString();
+                sortedText = sorted.toString();
+        }
+    }
+
+    @Benchmark
+    public boolean replaceAll() {
+        return originalText.replaceAll("\\s", "").equals(sortedText.replaceAll("\\s", ""));
+    }
+
+    @Benchmark
+    public boolean textEquality() {
+        return TextEquality.equalsIgnoringWhitespace(originalText, sortedText);
+    }
+}
@@ -0,0 +1,60 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.processinstruction.XmlProcessingInstructionParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the handling of sortpom processing instructions. Every tenth dependency version in the generated
+ * pom is surrounded by ignore and resume instructions. Does not depend on the sort order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlProcessingInstructionParserBenchmark extends AbstractPomBenchmark {
+    private XmlProcessingInstructionParser replacedParser;
+    private String xmlWithTokens;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generatePom();
+        replacedParser = new XmlProcessingInstructionParser();
+        replacedParser.setup(SILENT_LOGGER);
+        replacedParser.scanForIgnoredSections(unsortedXml);
+        xmlWithTokens = replacedParser.replaceIgnoredSections();
+    }
+
+    @Override
+    boolean containsIgnoredSections() {
+        return true;
+    }
+
+    /** Scans for instructions and replaces each ignored section with a token */
+    @Benchmark
+    public String scanAndReplaceIgnoredSections() {
+        XmlProcessingInstructionParser parser = new XmlProcessingInstructionParser();
+        parser.setup(SILENT_LOGGER);
+        parser.scanForIgnoredSections(unsortedXml);
+        return parser.replaceIgnoredSections();
+    }
+
+    /** Replaces each token with the ignored section */
+    @Benchmark
+    public String revertIgnoredSections() {
+        return replacedParser.revertIgnoredSections(xmlWithTokens);
+    }
+}
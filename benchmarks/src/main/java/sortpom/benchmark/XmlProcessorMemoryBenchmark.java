@@ -0,0 +1,99 @@
+package sortpom.benchmark;
+
+import org.jdom.JDOMException;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap that is kept alive when a pom is sorted for verification, i.e. the original document and
+ * everything that is needed to compare it with the sorted document. The live heap is measured after a full
+ * garbage collection at the point where both the original and the sorted xml are needed, and is reported as the
+ * liveHeapBytes counter. The copy mode keeps the original document and a sorted copy, the inPlace mode keeps the
+ * sorted document and a signature of the original. Run with -prof gc to also see the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlProcessorMemoryBenchmark extends AbstractPomBenchmark {
+    private static final MemoryMXBean MEMORY_BEAN = ManagementFactory.getMemoryMXBean();
+
+    @Param({"copy", "inPlace"})
+    public String mode;
+
+    private byte[] unsortedBytes;
+    private WrapperFactoryImpl wrapperFactory;
+    private XmlProcessor xmlProcessor;
+    private long baselineHeapBytes;
+
+    /** Reported by JMH next to the time of each benchmark, the value of the last invocation in each iteration */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class MemoryCounters {
+        public long liveHeapBytes;
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generatePom();
+        unsortedBytes = unsortedXml.getBytes(StandardCharsets.UTF_8);
+        unsortedXml = null;
+
+        PluginParameters pluginParameters = createPluginParameters(null, null, "SORT");
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+    }
+
+    @Setup(Level.Iteration)
+    public void measureBaseline() {
+        xmlProcessor = null;
+        baselineHeapBytes = usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public void sortForVerification(MemoryCounters counters) throws JDOMException, IOException {
+        xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(unsortedBytes));
+        if ("inPlace".equals(mode)) {
+            xmlProcessor.recordOriginalSignature();
+            xmlProcessor.sortXmlInPlace();
+        } else {
+            xmlProcessor.sortXml();
+        }
+        // The xml processor is kept in a field, so that it is alive during the measurement
+        counters.liveHeapBytes = usedHeapAfterGc() - baselineHeapBytes;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return MEMORY_BEAN.getHeapMemoryUsage().getUsed();
+    }
+}
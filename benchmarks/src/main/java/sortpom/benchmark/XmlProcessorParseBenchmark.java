@@ -0,0 +1,57 @@
+package sortpom.benchmark;
+
+import org.jdom.JDOMException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures XmlProcessor.setOriginalXml, the parsing of the pom file into a dom document. Parsing does not depend
+ * on the sort order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlProcessorParseBenchmark extends AbstractPomBenchmark {
+    private byte[] unsortedBytes;
+    private WrapperFactoryImpl wrapperFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generatePom();
+        unsortedBytes = unsortedXml.getBytes(StandardCharsets.UTF_8);
+
+        PluginParameters pluginParameters = createPluginParameters(null, null, "SORT");
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+    }
+
+    @Benchmark
+    public XmlProcessor setOriginalXml() throws JDOMException, IOException {
+        XmlProcessor xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(unsortedBytes));
+        return xmlProcessor;
+    }
+}
@@ -0,0 +1,73 @@
+package sortpom.benchmark;
+
+import org.jdom.JDOMException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sortpom.XmlOutputGenerator;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.util.XmlOrderedResult;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures verification of an already sorted pom, which is the common case in a build. The sort mode sorts the
+ * parsed document in place and compares it with the recorded original, the verifyXml mode only checks the
+ * order of the wrapped original document. Both modes include parsing, since the sort mode changes the document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlProcessorVerifyBenchmark extends AbstractSortOrderBenchmark {
+    private byte[] sortedBytes;
+    private XmlProcessor xmlProcessor;
+
+    @Setup(Level.Trial)
+    public void setup() throws JDOMException, IOException {
+        generatePom();
+
+        PluginParameters pluginParameters = createPluginParameters(null, sortOrder, "SORT");
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        XmlOutputGenerator xmlOutputGenerator = new XmlOutputGenerator();
+        xmlOutputGenerator.setup(pluginParameters);
+
+        xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(unsortedXml.getBytes(StandardCharsets.UTF_8)));
+        xmlProcessor.sortXml();
+        sortedBytes = xmlOutputGenerator.getSortedXml(xmlProcessor.getNewDocument()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public XmlOrderedResult sortAndCompare() throws JDOMException, IOException {
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(sortedBytes));
+        xmlProcessor.recordOriginalSignature();
+        xmlProcessor.sortXmlInPlace();
+        return xmlProcessor.isXmlOrdered();
+    }
+
+    @Benchmark
+    public XmlOrderedResult verifyXml() throws JDOMException, IOException {
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(sortedBytes));
+        return xmlProcessor.verifyXml();
+    }
+}
@@ -0,0 +1,357 @@
+package sortpom.cli;
+
+import sortpom.SortEngine;
+import sortpom.exception.FailureException;
+import sortpom.parameter.PluginParameters;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The command line arguments. Options that are not given get the same default values as in the Maven plugin,
+ * except that no backup files are created by default.
+ */
+class CliArguments {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar sortpom-cli.jar [options] [directory or pom file]...",
+            "Sorts all pom.xml files in the directories (default is the current directory)",
+            "",
+            "Options:",
+            "  --check                         verify only, exit with 1 if any pom file is not sorted",
+            "  --all-violations                with --check, report every element that is out of order",
+            "  --jobs N                        number of pom files to process in parallel (default: one per processor)",
+            "  --include GLOB                  files to process, relative to the directory (default: pom.xml and **/pom.xml)",
+            "  --exclude GLOB                  files to skip, relative to the directory (default: **/target/**)",
+            "  --verbose                       log each processed pom file",
+            "  --encoding NAME                 encoding of the pom files (default: UTF-8)",
+            "  --line-separator SEPARATOR      \\n, \\r or \\r\\n (default: the line separator of the system)",
+            "  --indent N                      number of spaces to indent with, -1 for tab (default: 2)",
+            "  --indent-blank-lines            indent preserved blank lines",
+            "  --keep-blank-lines              preserve blank lines",
+            "  --no-expand-empty-elements      write empty elements as <element/>",
+            "  --predefined-sort-order NAME    one of the predefined sort orders",
+            "  --sort-order-file FILE          custom sort order file",
+            "  --sort-dependencies ORDER       for instance scope,groupId,artifactId",
+            "  --sort-plugins ORDER            for instance groupId,artifactId",
+            "  --sort-properties               sort properties alphabetically",
+            "  --sort-modules                  sort modules alphabetically",
+            "  --backup                        save a .bak copy of each sorted pom file",
+            "  --keep-timestamp                keep the timestamp of sorted pom files",
+            "  --cache-dir DIR                 cache sort results in DIR, unchanged pom files are not sorted again",
+            "  --stdin                         sort the pom content on standard input and write it to standard output",
+            "  --help                          show this text",
+            "",
+            "Daemon options:",
+            "  --daemon                        start a daemon that keeps the sorter warm and waits for clients",
+            "  --client                        let a running daemon do the work, runs locally if no daemon is found",
+            "  --stop-daemon                   stop the running daemon",
+            "  --port-file FILE                where the daemon publishes its port (default: ~/.sortpom/daemon.port)",
+            "  --port N                        localhost port for the daemon (default: any free port)",
+            "  --idle-timeout SECONDS          stop the daemon after this long without requests (default: 600, 0 is never)");
+    static final List<String> DEFAULT_INCLUDES = Collections.unmodifiableList(Arrays.asList("pom.xml", "**/pom.xml"));
+    static final List<String> DEFAULT_EXCLUDES = Collections.unmodifiableList(Arrays.asList("target/**", "**/target/**"));
+    static final File DEFAULT_PORT_FILE = new File(System.getProperty("user.home"), ".sortpom/daemon.port");
+
+    private final List<File> roots = new ArrayList<>();
+    private final List<String> includes = new ArrayList<>();
+    private final List<String> excludes = new ArrayList<>();
+    private boolean check;
+    private boolean allViolations;
+    private int jobs;
+    private boolean verbose;
+    private boolean help;
+    private String encoding = "UTF-8";
+    private String lineSeparator = System.lineSeparator();
+    private int nrOfIndentSpace = 2;
+    private boolean indentBlankLines;
+    private boolean keepBlankLines;
+    private boolean expandEmptyElements = true;
+    private String predefinedSortOrder;
+    private String sortOrderFile;
+    private String sortDependencies;
+    private String sortPlugins;
+    private boolean sortProperties;
+    private boolean sortModules;
+    private boolean backup;
+    private boolean keepTimestamp;
+    private File cacheDirectory;
+    private boolean stdin;
+    private boolean daemon;
+    private boolean client;
+    private boolean stopDaemon;
+    private File portFile = DEFAULT_PORT_FILE;
+    private int port;
+    private int idleTimeoutSeconds = 600;
+    /** The arguments that a client passes on to the daemon */
+    private final List<String> forwardedArgs = new ArrayList<>();
+
+    private CliArguments() {
+    }
+
+    /**
+     * Parses the command line arguments
+     *
+     * @param args the arguments to the main method
+     * @return the parsed arguments
+     * @throws FailureException if the arguments are not valid
+     */
+    static CliArguments parse(String... args) {
+        return parse(null, args);
+    }
+
+    /**
+     * Parses the command line arguments of a client, relative paths are resolved against the working directory of
+     * the client instead of the working directory of this process.
+     *
+     * @param workingDirectory the directory that relative paths are resolved against, null for the current directory
+     * @param args             the arguments to the main method
+     * @return the parsed arguments
+     * @throws FailureException if the arguments are not valid
+     */
+    static CliArguments parse(File workingDirectory, String... args) {
+        CliArguments arguments = new CliArguments();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int forwardFrom = i;
+            switch (arg) {
+                case "--check":
+                    arguments.check = true;
+                    break;
+                case "--all-violations":
+                    arguments.allViolations = true;
+                    break;
+                case "--jobs":
+                    arguments.jobs = parseInt(arg, value(args, ++i, arg));
+                    if (arguments.jobs < 1) {
+                        throw new FailureException("--jobs must be at least 1, was " + arguments.jobs);
+                    }
+                    break;
+                case "--include":
+                    arguments.includes.add(value(args, ++i, arg));
+                    break;
+                case "--exclude":
+                    arguments.excludes.add(value(args, ++i, arg));
+                    break;
+                case "--verbose":
+                    arguments.verbose = true;
+                    break;
+                case "--help":
+                    arguments.help = true;
+                    break;
+                case "--encoding":
+                    arguments.encoding = value(args, ++i, arg);
+                    break;
+                case "--line-separator":
+                    arguments.lineSeparator = value(args, ++i, arg);
+                    break;
+                case "--indent":
+                    arguments.nrOfIndentSpace = parseInt(arg, value(args, ++i, arg));
+                    break;
+                case "--indent-blank-lines":
+                    arguments.indentBlankLines = true;
+                    break;
+                case "--keep-blank-lines":
+                    arguments.keepBlankLines = true;
+                    break;
+                case "--no-expand-empty-elements":
+                    arguments.expandEmptyElements = false;
+                    break;
+                case "--predefined-sort-order":
+                    arguments.predefinedSortOrder = value(args, ++i, arg);
+                    break;
+                case "--sort-order-file":
+                    arguments.sortOrderFile = resolveIfExists(workingDirectory, value(args, ++i, arg));
+                    break;
+                case "--sort-dependencies":
+                    arguments.sortDependencies = value(args, ++i, arg);
+                    break;
+                case "--sort-plugins":
+                    arguments.sortPlugins = value(args, ++i, arg);
+                    break;
+                case "--sort-properties":
+                    arguments.sortProperties = true;
+                    break;
+                case "--sort-modules":
+                    arguments.sortModules = true;
+                    break;
+                case "--backup":
+                    arguments.backup = true;
+                    break;
+                case "--keep-timestamp":
+                    arguments.keepTimestamp = true;
+                    break;
+                case "--cache-dir":
+                    arguments.cacheDirectory = resolve(workingDirectory, value(args, ++i, arg));
+                    break;
+                case "--stdin":
+                    arguments.stdin = true;
+                    continue;
+                case "--daemon":
+                    arguments.daemon = true;
+                    continue;
+                case "--client":
+                    arguments.client = true;
+                    continue;
+                case "--stop-daemon":
+                    arguments.stopDaemon = true;
+                    continue;
+                case "--port-file":
+                    arguments.portFile = new File(value(args, ++i, arg));
+                    continue;
+                case "--port":
+                    arguments.port = parseInt(arg, value(args, ++i, arg));
+                    continue;
+                case "--idle-timeout":
+                    arguments.idleTimeoutSeconds = parseInt(arg, value(args, ++i, arg));
+                    if (arguments.idleTimeoutSeconds < 0) {
+                        throw new FailureException("--idle-timeout cannot be negative, was " + arguments.idleTimeoutSeconds);
+                    }
+                    continue;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new FailureException("Unknown option " + arg);
+                    }
+                    arguments.roots.add(resolve(workingDirectory, arg));
+            }
+            arguments.forwardedArgs.addAll(Arrays.asList(args).subList(forwardFrom, i + 1));
+        }
+        if ((arguments.daemon ? 1 : 0) + (arguments.client ? 1 : 0) + (arguments.stopDaemon ? 1 : 0) > 1) {
+            throw new FailureException("Only one of --daemon, --client and --stop-daemon can be used");
+        }
+        if (arguments.roots.isEmpty()) {
+            arguments.roots.add(resolve(workingDirectory, "."));
+        }
+        if (arguments.includes.isEmpty()) {
+            arguments.includes.addAll(DEFAULT_INCLUDES);
+        }
+        if (arguments.excludes.isEmpty()) {
+            arguments.excludes.addAll(DEFAULT_EXCLUDES);
+        }
+        return arguments;
+    }
+
+    private static File resolve(File workingDirectory, String path) {
+        File file = new File(path);
+        return workingDirectory == null || file.isAbsolute() ? file : new File(workingDirectory, path);
+    }
+
+    /** The sort order file may also be a url or a classpath resource, so it is only resolved if it exists */
+    private static String resolveIfExists(File workingDirectory, String path) {
+        File file = resolve(workingDirectory, path);
+        return file.exists() ? file.getPath() : path;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new FailureException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new FailureException(String.format("%s must be a number, was %s", option, value), e);
+        }
+    }
+
+    /** Creates the engine that sorts all pom files, every pom file is given to its own session */
+    SortEngine createSortEngine() {
+        return new SortEngine(createPluginParameters(null));
+    }
+
+    /**
+     * The arguments that createPluginParameters uses, sort engines that are created from arguments with equal
+     * keys sort in the same way
+     */
+    List<Object> getSortEngineKey() {
+        return Arrays.asList(backup, keepTimestamp, encoding, lineSeparator, expandEmptyElements, keepBlankLines,
+                nrOfIndentSpace, indentBlankLines, sortOrderFile, predefinedSortOrder, sortDependencies, sortPlugins,
+                sortProperties, sortModules, check, allViolations, cacheDirectory);
+    }
+
+    /** Creates the parameters for one pom file */
+    PluginParameters createPluginParameters(File pomFile) {
+        return PluginParameters.builder()
+                .setPomFile(pomFile)
+                .setFileOutput(backup, ".bak", null, keepTimestamp)
+                .setEncoding(encoding)
+                .setFormatting(lineSeparator, expandEmptyElements, keepBlankLines)
+                .setIndent(nrOfIndentSpace, indentBlankLines)
+                .setSortOrder(sortOrderFile, predefinedSortOrder)
+                .setSortEntities(sortDependencies, sortPlugins, sortProperties, sortModules)
+                .setVerifyFail(check ? "warn" : "sort")
+                .setVerifyAllViolations(allViolations)
+                .setTriggers(true)
+                .setCacheDirectory(cacheDirectory)
+                .build();
+    }
+
+    List<File> getRoots() {
+        return roots;
+    }
+
+    List<String> getIncludes() {
+        return includes;
+    }
+
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    boolean isCheck() {
+        return check;
+    }
+
+    /** The number of parallel jobs, 0 means one per available processor */
+    int getJobs() {
+        return jobs;
+    }
+
+    boolean isVerbose() {
+        return verbose;
+    }
+
+    boolean isHelp() {
+        return help;
+    }
+
+    /** Sort the pom content on standard input instead of pom files */
+    boolean isStdin() {
+        return stdin;
+    }
+
+    boolean isDaemon() {
+        return daemon;
+    }
+
+    boolean isClient() {
+        return client;
+    }
+
+    boolean isStopDaemon() {
+        return stopDaemon;
+    }
+
+    File getPortFile() {
+        return portFile;
+    }
+
+    /** The localhost port of the daemon, 0 means any free port */
+    int getPort() {
+        return port;
+    }
+
+    int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    /** All arguments except the daemon options and --stdin, in the order they were given */
+    List<String> getForwardedArgs() {
+        return forwardedArgs;
+    }
+}
@@ -0,0 +1,44 @@
+package sortpom.cli;
+
+import sortpom.logger.SortPomLogger;
+
+import java.io.PrintStream;
+
+/**
+ * Writes warnings and errors to the error stream. Info messages are only written if verbose is set, since the
+ * command line often handles thousands of pom files.
+ */
+class ConsoleLogger implements SortPomLogger {
+    private final PrintStream out;
+    private final PrintStream err;
+    private final boolean verbose;
+
+    ConsoleLogger(PrintStream out, PrintStream err, boolean verbose) {
+        this.out = out;
+        this.err = err;
+        this.verbose = verbose;
+    }
+
+    @Override
+    public void warn(String content) {
+        err.println("[WARNING] " + content);
+    }
+
+    @Override
+    public void info(String content) {
+        if (verbose) {
+            out.println("[INFO] " + content);
+        }
+    }
+
+    @Override
+    public void error(String content) {
+        err.println("[ERROR] " + content);
+    }
+
+    /** Debug messages, such as sort statistics, are not written to the console */
+    @Override
+    public boolean isDebugEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package sortpom.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static sortpom.cli.DaemonProtocol.VERSION;
+import static sortpom.cli.DaemonProtocol.readBytes;
+import static sortpom.cli.DaemonProtocol.readString;
+import static sortpom.cli.DaemonProtocol.writeBytes;
+import static sortpom.cli.DaemonProtocol.writeString;
+import static sortpom.cli.DaemonProtocol.writeStrings;
+
+/**
+ * Sends requests to a running SortPomDaemon. The port and the token of the daemon are read from the port file.
+ */
+class DaemonClient {
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final File portFile;
+
+    DaemonClient(File portFile) {
+        this.portFile = portFile;
+    }
+
+    /**
+     * Sends one request without pom content to the daemon
+     *
+     * @param command          one of the DaemonProtocol commands except SORT
+     * @param workingDirectory the working directory of the client, only sent with RUN
+     * @param args             the command line arguments, only sent with RUN
+     * @return the response, or null if no daemon is running
+     * @throws IOException if the daemon did not answer the request
+     */
+    Response send(String command, File workingDirectory, List<String> args) throws IOException {
+        return send(command, workingDirectory, args, null);
+    }
+
+    /**
+     * Sends one request to the daemon
+     *
+     * @param command          one of the DaemonProtocol commands
+     * @param workingDirectory the working directory of the client, only sent with RUN and SORT
+     * @param args             the command line arguments, only sent with RUN and SORT
+     * @param pomXml           the encoded pom content, only sent with SORT
+     * @return the response, or null if no daemon is running
+     * @throws IOException if the daemon did not answer the request
+     */
+    Response send(String command, File workingDirectory, List<String> args, byte[] pomXml) throws IOException {
+        if (!portFile.isFile()) {
+            return null;
+        }
+        List<String> lines = Files.readAllLines(portFile.toPath(), StandardCharsets.UTF_8);
+        if (lines.size() < 2) {
+            return null;
+        }
+        int port;
+        try {
+            port = Integer.parseInt(lines.get(0).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        try (Socket socket = new Socket()) {
+            try {
+                socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+            } catch (ConnectException e) {
+                // A stale port file from a daemon that did not shut down cleanly
+                return null;
+            }
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(VERSION);
+            writeString(out, lines.get(1).trim());
+            writeString(out, command);
+            if (DaemonProtocol.RUN.equals(command) || DaemonProtocol.SORT.equals(command)) {
+                writeString(out, workingDirectory.getAbsolutePath());
+                writeStrings(out, args.toArray(new String[0]));
+            }
+            if (DaemonProtocol.SORT.equals(command)) {
+                writeBytes(out, pomXml);
+            }
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            int exitCode = in.readInt();
+            return new Response(exitCode, readBytes(in), readString(in));
+        }
+    }
+
+    /** What the daemon wrote to standard out and standard error, and the exit code */
+    static class Response {
+        private final int exitCode;
+        private final byte[] out;
+        private final String err;
+
+        Response(int exitCode, byte[] out, String err) {
+            this.exitCode = exitCode;
+            this.out = out;
+            this.err = err;
+        }
+
+        int getExitCode() {
+            return exitCode;
+        }
+
+        /** UTF-8 text for RUN, the encoded sorted pom content for SORT */
+        byte[] getOut() {
+            return out;
+        }
+
+        String getErr() {
+            return err;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package sortpom.cli;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The length prefixed protocol between the daemon and its clients. Each connection carries one request and one
+ * response. All strings are written as an int length followed by that many UTF-8 bytes, so that messages are not
+ * limited to the 64 kB of DataOutput.writeUTF (parse errors can contain a whole pom file).
+ * <p>
+ * Request: version, token, command, for RUN the working directory and the command line arguments, and for SORT
+ * the command line arguments and the pom content.
+ * Response: exit code, the bytes written to standard out and the text written to standard error. For RUN the
+ * standard out bytes are UTF-8 text, for SORT they are the encoded sorted pom content.
+ */
+final class DaemonProtocol {
+    static final int VERSION = 2;
+    /** Runs the command line in the daemon, relative paths are resolved against the working directory of the client */
+    static final String RUN = "RUN";
+    /** Sorts, or with --check verifies, the pom content in the request with the formatting and sort arguments */
+    static final String SORT = "SORT";
+    /** Checks that the daemon is alive, the daemon responds with exit code 0 */
+    static final String PING = "PING";
+    /** Stops the daemon after the response has been sent */
+    static final String STOP = "STOP";
+    /** The token is 16 random bytes written as hex */
+    static final int TOKEN_LENGTH = 32;
+    /** Guards against corrupt or hostile length prefixes */
+    private static final int MAX_STRING_LENGTH = 64 * 1024 * 1024;
+
+    /** Hidden constructor */
+    private DaemonProtocol() {
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return readString(in, MAX_STRING_LENGTH);
+    }
+
+    /** Reads a string that cannot be longer than maxLength bytes, such as the token */
+    static String readString(DataInputStream in, int maxLength) throws IOException {
+        return new String(readBytes(in, maxLength), StandardCharsets.UTF_8);
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        return readBytes(in, MAX_STRING_LENGTH);
+    }
+
+    private static byte[] readBytes(DataInputStream in, int maxLength) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > maxLength) {
+            throw new IOException("Invalid string length in daemon protocol: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static String[] readStrings(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > 4096) {
+            throw new IOException("Invalid number of arguments in daemon protocol: " + length);
+        }
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,86 @@
+package sortpom.cli;
+
+import sortpom.exception.FailureException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Finds pom files in directory trees. The include and exclude globs are matched against the path relative to
+ * the directory where the search starts. Hidden directories, such as .git, are never searched.
+ */
+class PomFileFinder {
+    private final List<PathMatcher> includes = new ArrayList<>();
+    private final List<PathMatcher> excludes = new ArrayList<>();
+
+    PomFileFinder(List<String> includeGlobs, List<String> excludeGlobs) {
+        FileSystem fileSystem = FileSystems.getDefault();
+        includeGlobs.forEach(glob -> includes.add(fileSystem.getPathMatcher("glob:" + glob)));
+        excludeGlobs.forEach(glob -> excludes.add(fileSystem.getPathMatcher("glob:" + glob)));
+    }
+
+    /**
+     * Searches all roots. A root that is a file is always included.
+     *
+     * @param roots directories to search or pom files
+     * @return the found pom files, sorted by path and without duplicates
+     */
+    List<File> find(List<File> roots) {
+        TreeSet<File> pomFiles = new TreeSet<>();
+        for (File root : roots) {
+            if (root.isFile()) {
+                pomFiles.add(root.getAbsoluteFile());
+            } else if (root.isDirectory()) {
+                search(root.getAbsoluteFile().toPath().normalize(), pomFiles);
+            } else {
+                throw new FailureException("Could not find file or directory: " + root.getAbsolutePath());
+            }
+        }
+        return new ArrayList<>(pomFiles);
+    }
+
+    private void search(Path root, TreeSet<File> pomFiles) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && dir.getFileName().toString().startsWith(".")) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    Path relativePath = root.relativize(file);
+                    if (matchesAny(includes, relativePath) && !matchesAny(excludes, relativePath)) {
+                        pomFiles.add(file.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new FailureException("Could not search directory: " + root, e);
+        }
+    }
+
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
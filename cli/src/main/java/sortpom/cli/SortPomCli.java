@@ -0,0 +1,212 @@
+package sortpom.cli;
+
+import org.apache.commons.io.IOUtils;
+import sortpom.SortEngine;
+import sortpom.SortPomBatch;
+import sortpom.SortPomBatchResult;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.util.XmlOrderedResult;
+import sortpom.verify.OrderViolations;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sorts, or verifies, all pom files in directory trees without Maven. The pom files are processed in parallel
+ * by SortPomBatch. With --daemon the command line starts a SortPomDaemon instead, and with --client it lets a
+ * running daemon process the pom files. With --stdin the pom content on standard input is sorted and written to
+ * standard output, which suits editor save hooks.
+ * <p>
+ * Exit codes: 0 if everything went well, 1 if --check found pom files that are not sorted and 2 if the arguments
+ * were wrong or a pom file could not be processed.
+ */
+public class SortPomCli {
+    static final int EXIT_OK = 0;
+    static final int EXIT_NOT_SORTED = 1;
+    static final int EXIT_FAILURE = 2;
+
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final Function<CliArguments, SortEngine> sortEngines;
+
+    SortPomCli(PrintStream out, PrintStream err) {
+        this(System.in, out, err, CliArguments::createSortEngine);
+    }
+
+    /**
+     * @param in          where --stdin reads the pom content
+     * @param out         standard out
+     * @param err         standard error
+     * @param sortEngines creates the sort engine for the arguments, the daemon reuses its engines
+     */
+    SortPomCli(InputStream in, PrintStream out, PrintStream err, Function<CliArguments, SortEngine> sortEngines) {
+        this.in = in;
+        this.out = out;
+        this.err = err;
+        this.sortEngines = sortEngines;
+    }
+
+    public static void main(String[] args) {
+        System.exit(new SortPomCli(System.out, System.err).run(args));
+    }
+
+    /**
+     * Runs the command line
+     *
+     * @param args the command line arguments
+     * @return the exit code
+     */
+    int run(String... args) {
+        return run(null, args);
+    }
+
+    /**
+     * Runs the command line, the daemon runs the command lines of its clients this way
+     *
+     * @param workingDirectory the directory that relative paths are resolved against, null for the current directory
+     * @param args             the command line arguments
+     * @return the exit code
+     */
+    int run(File workingDirectory, String... args) {
+        CliArguments arguments;
+        try {
+            arguments = CliArguments.parse(workingDirectory, args);
+        } catch (FailureException fex) {
+            err.println(fex.getMessage());
+            err.println(CliArguments.USAGE);
+            return EXIT_FAILURE;
+        }
+        if (arguments.isHelp()) {
+            out.println(CliArguments.USAGE);
+            return EXIT_OK;
+        }
+        if (workingDirectory != null && (arguments.isDaemon() || arguments.isClient() || arguments.isStopDaemon())) {
+            err.println("Daemon options cannot be sent to the sortpom daemon");
+            return EXIT_FAILURE;
+        }
+        try {
+            if (arguments.isDaemon()) {
+                return new SortPomDaemon(arguments.getPortFile(), arguments.getPort(),
+                        arguments.getIdleTimeoutSeconds(), out, err).run();
+            }
+            if (arguments.isStopDaemon()) {
+                return stopDaemon(arguments);
+            }
+            if (arguments.isStdin()) {
+                return sortStandardInput(arguments);
+            }
+            if (arguments.isClient()) {
+                Integer exitCode = runInDaemon(arguments, DaemonProtocol.RUN, null);
+                if (exitCode != null) {
+                    return exitCode;
+                }
+            }
+            return process(arguments);
+        } catch (FailureException fex) {
+            err.println(fex.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /** Returns null if no daemon is running, so that the command line is processed locally instead */
+    private Integer runInDaemon(CliArguments arguments, String command, byte[] pomXml) {
+        DaemonClient.Response response;
+        try {
+            response = new DaemonClient(arguments.getPortFile()).send(command,
+                    new File(System.getProperty("user.dir")), arguments.getForwardedArgs(), pomXml);
+        } catch (IOException e) {
+            throw new FailureException("The sortpom daemon did not answer: " + e.getMessage(), e);
+        }
+        if (response == null) {
+            if (arguments.isVerbose()) {
+                out.println("[INFO] No sortpom daemon is running, sorting without it");
+            }
+            return null;
+        }
+        if (DaemonProtocol.SORT.equals(command)) {
+            out.write(response.getOut(), 0, response.getOut().length);
+            out.flush();
+        } else {
+            out.print(new String(response.getOut(), StandardCharsets.UTF_8));
+        }
+        err.print(response.getErr());
+        return response.getExitCode();
+    }
+
+    private int sortStandardInput(CliArguments arguments) {
+        byte[] pomXml;
+        try {
+            pomXml = IOUtils.toByteArray(in);
+        } catch (IOException e) {
+            throw new FailureException("Could not read the pom content from standard input: " + e.getMessage(), e);
+        }
+        if (arguments.isClient()) {
+            Integer exitCode = runInDaemon(arguments, DaemonProtocol.SORT, pomXml);
+            if (exitCode != null) {
+                return exitCode;
+            }
+        }
+        SortEngine sortEngine = sortEngines.apply(arguments);
+        if (arguments.isCheck()) {
+            return verifyContent(sortEngine, pomXml);
+        }
+        sortEngine.sort(pomXml, out);
+        out.flush();
+        return EXIT_OK;
+    }
+
+    private int verifyContent(SortEngine sortEngine, byte[] pomXml) {
+        XmlOrderedResult result = sortEngine.verify(pomXml);
+        if (result.isOrdered()) {
+            return EXIT_OK;
+        }
+        err.println("[WARNING] The pom content is not sorted");
+        err.println("[WARNING] " + result.getErrorMessage());
+        OrderViolations violations = result.getViolations();
+        for (int i = 0; i < violations.size(); i++) {
+            err.println("[WARNING] " + violations.getMessage(i));
+        }
+        return EXIT_NOT_SORTED;
+    }
+
+    private int stopDaemon(CliArguments arguments) {
+        DaemonClient.Response response;
+        try {
+            response = new DaemonClient(arguments.getPortFile()).send(DaemonProtocol.STOP, null, null);
+        } catch (IOException e) {
+            throw new FailureException("The sortpom daemon did not answer: " + e.getMessage(), e);
+        }
+        if (response == null) {
+            out.println("No sortpom daemon is running");
+            return EXIT_OK;
+        }
+        out.print(new String(response.getOut(), StandardCharsets.UTF_8));
+        err.print(response.getErr());
+        return response.getExitCode();
+    }
+
+    private int process(CliArguments arguments) {
+        List<File> pomFiles = new PomFileFinder(arguments.getIncludes(), arguments.getExcludes())
+                .find(arguments.getRoots());
+
+        SortPomLogger logger = new ConsoleLogger(out, err, arguments.isVerbose());
+        SortPomBatchResult result = new SortPomBatch(logger, arguments.getJobs(), arguments.isCheck())
+                .execute(sortEngines.apply(arguments), pomFiles);
+        out.println(result.getSummary());
+
+        if (!result.getFailureMessages().isEmpty()) {
+            return EXIT_FAILURE;
+        }
+        if (!result.getNotSortedFiles().isEmpty()) {
+            return EXIT_NOT_SORTED;
+        }
+        return EXIT_OK;
+    }
+}
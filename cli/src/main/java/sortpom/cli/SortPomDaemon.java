@@ -0,0 +1,291 @@
+package sortpom.cli;
+
+import sortpom.SortEngine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static sortpom.cli.DaemonProtocol.PING;
+import static sortpom.cli.DaemonProtocol.RUN;
+import static sortpom.cli.DaemonProtocol.SORT;
+import static sortpom.cli.DaemonProtocol.STOP;
+import static sortpom.cli.DaemonProtocol.TOKEN_LENGTH;
+import static sortpom.cli.DaemonProtocol.VERSION;
+import static sortpom.cli.DaemonProtocol.readBytes;
+import static sortpom.cli.DaemonProtocol.readString;
+import static sortpom.cli.DaemonProtocol.readStrings;
+import static sortpom.cli.DaemonProtocol.writeBytes;
+import static sortpom.cli.DaemonProtocol.writeString;
+
+/**
+ * Keeps a JVM with warm sort engines, and the compiled sort orders, running so that editor save hooks and git hooks
+ * do not have to pay for the JVM start and the JIT warmup on every invocation. The daemon listens on a localhost
+ * port and publishes the port together with a random token in the port file. Only clients that can read the port
+ * file (it is created readable by the owner only) can send requests. See DaemonProtocol for the protocol.
+ * <p>
+ * The sort engines are kept between requests, one for each combination of formatting and sort arguments, so
+ * that clients with the same arguments share an engine. Each request is handled on its own thread. The daemon
+ * stops when it receives a STOP request or when it has been idle for longer than the idle timeout.
+ */
+class SortPomDaemon {
+    /** How often the idle timeout is checked */
+    static final int ACCEPT_TIMEOUT_MILLIS = 200;
+    /** A client that does not send its request within this time is disconnected */
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+    /** Clients usually share a few argument combinations, the least recently used engine is evicted after that */
+    private static final int MAX_SORT_ENGINES = 16;
+    private static final byte[] NO_CONTENT = new byte[0];
+
+    private final File portFile;
+    private final int port;
+    private final long idleTimeoutMillis;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final String token = createToken();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private volatile long lastActivity = System.currentTimeMillis();
+    private volatile boolean stopped;
+    private final Map<List<Object>, SortEngine> sortEngines = new LinkedHashMap<List<Object>, SortEngine>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, SortEngine> eldest) {
+            return size() > MAX_SORT_ENGINES;
+        }
+    };
+
+    /**
+     * @param portFile           where the port and the token are published
+     * @param port               the localhost port, 0 means any free port
+     * @param idleTimeoutSeconds the daemon stops after this long without requests, 0 means never
+     * @param out                the daemon log
+     * @param err                the daemon error log
+     */
+    SortPomDaemon(File portFile, int port, int idleTimeoutSeconds, PrintStream out, PrintStream err) {
+        this.portFile = portFile.getAbsoluteFile();
+        this.port = port;
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Serves requests until the daemon is stopped
+     *
+     * @return the exit code
+     */
+    int run() {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sortpom-daemon-request");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+            writePortFile(serverSocket.getLocalPort());
+            out.println(String.format("Sortpom daemon listening on port %d, port file is %s",
+                    serverSocket.getLocalPort(), portFile));
+            try {
+                acceptRequests(serverSocket, executor);
+            } finally {
+                deletePortFile();
+            }
+        } catch (IOException e) {
+            err.println("Could not run sortpom daemon: " + e.getMessage());
+            return SortPomCli.EXIT_FAILURE;
+        } finally {
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+        return SortPomCli.EXIT_OK;
+    }
+
+    private void acceptRequests(ServerSocket serverSocket, ExecutorService executor) throws IOException {
+        while (!stopped) {
+            try {
+                Socket socket = serverSocket.accept();
+                activeRequests.incrementAndGet();
+                executor.execute(() -> handle(socket));
+            } catch (SocketTimeoutException e) {
+                if (isIdle()) {
+                    out.println("Sortpom daemon stopped after being idle");
+                    stopped = true;
+                }
+            }
+        }
+    }
+
+    private boolean isIdle() {
+        return idleTimeoutMillis > 0
+                && activeRequests.get() == 0
+                && System.currentTimeMillis() - lastActivity > idleTimeoutMillis;
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream response = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            s.setSoTimeout(READ_TIMEOUT_MILLIS);
+            handleRequest(in, response);
+        } catch (IOException e) {
+            err.println("[ERROR] Sortpom daemon request failed: " + e.getMessage());
+        } finally {
+            activeRequests.decrementAndGet();
+        }
+    }
+
+    private void handleRequest(DataInputStream in, DataOutputStream response) throws IOException {
+        int version = in.readInt();
+        if (version != VERSION) {
+            respond(response, SortPomCli.EXIT_FAILURE, "",
+                    String.format("The sortpom daemon speaks protocol version %d, the client speaks %d", VERSION, version));
+            return;
+        }
+        String requestToken = readString(in, TOKEN_LENGTH);
+        if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), requestToken.getBytes(StandardCharsets.UTF_8))) {
+            respond(response, SortPomCli.EXIT_FAILURE, "", "Wrong sortpom daemon token");
+            return;
+        }
+        // Only requests from clients with the token keep the daemon alive
+        lastActivity = System.currentTimeMillis();
+        try {
+            handleCommand(in, response);
+        } finally {
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    private void handleCommand(DataInputStream in, DataOutputStream response) throws IOException {
+        String command = readString(in);
+        switch (command) {
+            case PING:
+                respond(response, SortPomCli.EXIT_OK, "", "");
+                break;
+            case STOP:
+                stopped = true;
+                respond(response, SortPomCli.EXIT_OK, "Sortpom daemon stopped" + System.lineSeparator(), "");
+                break;
+            case RUN:
+                File workingDirectory = new File(readString(in));
+                String[] args = readStrings(in);
+                runCommandLine(workingDirectory, args, NO_CONTENT, response);
+                break;
+            case SORT:
+                File sortDirectory = new File(readString(in));
+                List<String> sortArgs = new ArrayList<>(Arrays.asList(readStrings(in)));
+                sortArgs.add("--stdin");
+                runCommandLine(sortDirectory, sortArgs.toArray(new String[0]), readBytes(in), response);
+                break;
+            default:
+                respond(response, SortPomCli.EXIT_FAILURE, "", "Unknown sortpom daemon command " + command);
+        }
+    }
+
+    /** The pom content is the standard input of the command line, it is only sorted with --stdin */
+    private void runCommandLine(File workingDirectory, String[] args, byte[] pomXml, DataOutputStream response) throws IOException {
+        ByteArrayOutputStream commandOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream commandErr = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream outStream = new PrintStream(commandOut, true, "UTF-8");
+             PrintStream errStream = new PrintStream(commandErr, true, "UTF-8")) {
+            exitCode = new SortPomCli(new ByteArrayInputStream(pomXml), outStream, errStream, this::getSortEngine)
+                    .run(workingDirectory, args);
+        }
+        respond(response, exitCode, commandOut.toByteArray(), new String(commandErr.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /** The engine is created outside the lock, if two requests create the same engine then the first one is kept */
+    SortEngine getSortEngine(CliArguments arguments) {
+        List<Object> key = arguments.getSortEngineKey();
+        synchronized (sortEngines) {
+            SortEngine sortEngine = sortEngines.get(key);
+            if (sortEngine != null) {
+                return sortEngine;
+            }
+        }
+        SortEngine sortEngine = arguments.createSortEngine();
+        synchronized (sortEngines) {
+            return sortEngines.computeIfAbsent(key, k -> sortEngine);
+        }
+    }
+
+    private static void respond(DataOutputStream response, int exitCode, String outText, String errText) throws IOException {
+        respond(response, exitCode, outText.getBytes(StandardCharsets.UTF_8), errText);
+    }
+
+    private static void respond(DataOutputStream response, int exitCode, byte[] out, String errText) throws IOException {
+        response.writeInt(exitCode);
+        writeBytes(response, out);
+        writeString(response, errText);
+        response.flush();
+    }
+
+    /** The temporary file is created readable by the owner only on posix file systems, the move keeps that */
+    private void writePortFile(int localPort) throws IOException {
+        Path path = portFile.toPath();
+        Files.createDirectories(path.getParent());
+        Path tempFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tempFile, (localPort + "\n" + token + "\n").getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /** Another daemon may have taken over the port file, so it is only deleted if it still contains our token */
+    private void deletePortFile() {
+        try {
+            List<String> lines = Files.readAllLines(portFile.toPath(), StandardCharsets.UTF_8);
+            if (lines.size() > 1 && token.equals(lines.get(1))) {
+                Files.delete(portFile.toPath());
+            }
+        } catch (IOException e) {
+            err.println("Could not delete the sortpom daemon port file: " + e.getMessage());
+        }
+    }
+
+    private static String createToken() {
+        byte[] bytes = new byte[TOKEN_LENGTH / 2];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package sortpom.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import sortpom.exception.FailureException;
+import sortpom.parameter.PluginParameters;
+import sortpom.parameter.VerifyFailType;
+
+import java.io.File;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CliArgumentsTest {
+
+    @Test
+    public void noArgumentsShouldGiveDefaultValues() {
+        CliArguments arguments = CliArguments.parse();
+
+        assertThat(arguments.getRoots(), contains(new File(".")));
+        assertThat(arguments.getIncludes(), is(CliArguments.DEFAULT_INCLUDES));
+        assertThat(arguments.getExcludes(), is(CliArguments.DEFAULT_EXCLUDES));
+        assertThat(arguments.isCheck(), is(false));
+        assertThat(arguments.getJobs(), is(0));
+
+        PluginParameters pluginParameters = arguments.createPluginParameters(new File("pom.xml"));
+        assertThat(pluginParameters.createBackupFile, is(false));
+        assertThat(pluginParameters.encoding, is("UTF-8"));
+        assertThat(pluginParameters.indentCharacters, is("  "));
+        assertThat(pluginParameters.expandEmptyElements, is(true));
+        assertThat(pluginParameters.verifyFailType, is(VerifyFailType.SORT));
+    }
+
+    @Test
+    public void optionsShouldBeParsed() {
+        CliArguments arguments = CliArguments.parse("--check", "--jobs", "3", "--include", "**/*.pom",
+                "--exclude", "a/**", "--exclude", "b/**", "--line-separator", "\\n", "--indent", "4",
+                "--sort-dependencies", "groupId,artifactId", "--sort-properties", "--backup", "dir1", "dir2");
+
+        assertThat(arguments.getRoots(), contains(new File("dir1"), new File("dir2")));
+        assertThat(arguments.getIncludes(), contains("**/*.pom"));
+        assertThat(arguments.getExcludes(), contains("a/**", "b/**"));
+        assertThat(arguments.isCheck(), is(true));
+        assertThat(arguments.getJobs(), is(3));
+
+        PluginParameters pluginParameters = arguments.createPluginParameters(new File("pom.xml"));
+        assertThat(pluginParameters.createBackupFile, is(true));
+        assertThat(pluginParameters.lineSeparatorUtil.toString(), is("\n"));
+        assertThat(pluginParameters.indentCharacters, is("    "));
+        assertThat(pluginParameters.sortDependencies.getChildElementNames(), contains("groupId", "artifactId"));
+        assertThat(pluginParameters.sortProperties, is(true));
+        assertThat(pluginParameters.verifyFailType, is(VerifyFailType.WARN));
+    }
+
+    @Test
+    public void daemonOptionsShouldNotBeForwarded() {
+        CliArguments arguments = CliArguments.parse("--client", "--port-file", "daemon.port", "--check",
+                "--indent", "4", "dir1");
+
+        assertThat(arguments.isClient(), is(true));
+        assertThat(arguments.getPortFile(), is(new File("daemon.port")));
+        assertThat(arguments.getForwardedArgs(), contains("--check", "--indent", "4", "dir1"));
+    }
+
+    @Test
+    public void stdinShouldNotBeForwarded() {
+        CliArguments arguments = CliArguments.parse("--client", "--stdin", "--indent", "4");
+
+        assertThat(arguments.isStdin(), is(true));
+        assertThat(arguments.getForwardedArgs(), contains("--indent", "4"));
+    }
+
+    @Test
+    public void sortEngineKeyShouldOnlyDependOnSortArguments() {
+        Object key = CliArguments.parse("--indent", "4", "--sort-modules", "dir1").getSortEngineKey();
+
+        assertThat(CliArguments.parse("--verbose", "--jobs", "2", "--indent", "4", "--sort-modules", "dir2")
+                .getSortEngineKey(), is(key));
+        assertThat(CliArguments.parse("--indent", "4", "dir1").getSortEngineKey(), is(not(key)));
+        assertThat(CliArguments.parse("--check", "--indent", "4", "--sort-modules", "dir1").getSortEngineKey(), is(not(key)));
+    }
+
+    @Test
+    public void relativePathsShouldBeResolvedAgainstWorkingDirectory() {
+        File workingDirectory = new File("work").getAbsoluteFile();
+        File absolute = new File("abs").getAbsoluteFile();
+
+        CliArguments arguments = CliArguments.parse(workingDirectory, "dir1", absolute.getPath());
+
+        assertThat(arguments.getRoots(), contains(new File(workingDirectory, "dir1"), absolute));
+        assertThat(CliArguments.parse(workingDirectory).getRoots(), contains(new File(workingDirectory, ".")));
+    }
+
+    @Test
+    public void allViolationsShouldBePassedToParameters() {
+        assertThat(CliArguments.parse("--check", "--all-violations").createPluginParameters(null).verifyAllViolations, is(true));
+        assertThat(CliArguments.parse("--check").createPluginParameters(null).verifyAllViolations, is(false));
+    }
+
+    @Test
+    public void cacheDirectoryShouldBeResolvedAgainstWorkingDirectory() {
+        File workingDirectory = new File("work").getAbsoluteFile();
+
+        CliArguments arguments = CliArguments.parse(workingDirectory, "--cache-dir", ".sortpom-cache");
+
+        assertThat(arguments.createPluginParameters(null).cacheDirectory, is(new File(workingDirectory, ".sortpom-cache")));
+        assertThat(CliArguments.parse().createPluginParameters(null).cacheDirectory, nullValue());
+    }
+
+    @Test
+    public void conflictingDaemonOptionsShouldThrowException() {
+        assertFailure("Only one of --daemon, --client and --stop-daemon can be used", "--daemon", "--client");
+        assertFailure("--idle-timeout cannot be negative, was -1", "--idle-timeout", "-1");
+    }
+
+    @Test
+    public void unknownOptionShouldThrowException() {
+        assertFailure("Unknown option --gurka", "--gurka");
+    }
+
+    @Test
+    public void missingValueShouldThrowException() {
+        assertFailure("Missing value for --jobs", "--jobs");
+    }
+
+    @Test
+    public void wrongNumberShouldThrowException() {
+        assertFailure("--jobs must be a number, was many", "--jobs", "many");
+        assertFailure("--jobs must be at least 1, was 0", "--jobs", "0");
+    }
+
+    private void assertFailure(String expectedMessage, String... args) {
+        final Executable testMethod = () -> CliArguments.parse(args);
+
+        final FailureException thrown = assertThrows(FailureException.class, testMethod);
+
+        assertThat(thrown.getMessage(), is(expectedMessage));
+    }
+}
@@ -0,0 +1,70 @@
+package sortpom.cli;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import sortpom.exception.FailureException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PomFileFinderTest {
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = new File("target/finder").getAbsoluteFile();
+        FileUtils.deleteDirectory(directory);
+        for (String path : Arrays.asList("pom.xml", "a/pom.xml", "a/b/pom.xml", "a/other.xml", "a/target/pom.xml",
+                "target/pom.xml", ".git/pom.xml", "c/pom.xml")) {
+            FileUtils.writeStringToFile(new File(directory, path), "<project/>", "UTF-8");
+        }
+    }
+
+    @Test
+    public void defaultGlobsShouldFindAllPomFilesOutsideTarget() {
+        List<File> pomFiles = new PomFileFinder(CliArguments.DEFAULT_INCLUDES, CliArguments.DEFAULT_EXCLUDES)
+                .find(Collections.singletonList(directory));
+
+        assertThat(pomFiles, contains(file("a/b/pom.xml"), file("a/pom.xml"), file("c/pom.xml"), file("pom.xml")));
+    }
+
+    @Test
+    public void excludesShouldBeMatchedAgainstRelativePath() {
+        List<File> pomFiles = new PomFileFinder(CliArguments.DEFAULT_INCLUDES, Arrays.asList("a/**", "target/**"))
+                .find(Collections.singletonList(directory));
+
+        assertThat(pomFiles, contains(file("c/pom.xml"), file("pom.xml")));
+    }
+
+    @Test
+    public void filesAndDuplicatesShouldBeHandled() {
+        List<File> pomFiles = new PomFileFinder(Collections.singletonList("*/pom.xml"), Collections.emptyList())
+                .find(Arrays.asList(file("a"), file("a/other.xml"), file("a")));
+
+        assertThat(pomFiles, contains(file("a/b/pom.xml"), file("a/other.xml"), file("a/target/pom.xml")));
+    }
+
+    @Test
+    public void missingRootShouldThrowException() {
+        final Executable testMethod = () -> new PomFileFinder(CliArguments.DEFAULT_INCLUDES, CliArguments.DEFAULT_EXCLUDES)
+                .find(Collections.singletonList(file("missing")));
+
+        final FailureException thrown = assertThrows(FailureException.class, testMethod);
+
+        assertThat(thrown.getMessage(), is("Could not find file or directory: " + file("missing").getAbsolutePath()));
+    }
+
+    private File file(String path) {
+        return new File(directory, path);
+    }
+}
@@ -0,0 +1,118 @@
+package sortpom.cli;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+public class SortPomCliTest {
+    private static final String UNSORTED_POM = "<project><version>1</version><modelVersion>4.0.0</modelVersion></project>";
+    private static final String SORTED_POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>\n" +
+            "  <modelVersion>4.0.0</modelVersion>\n  <version>1</version>\n</project>\n";
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private final SortPomCli sortPomCli = new SortPomCli(new PrintStream(out, true), new PrintStream(err, true));
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = new File("target/cli").getAbsoluteFile();
+        FileUtils.deleteDirectory(directory);
+        for (String path : new String[]{"pom.xml", "a/pom.xml", "b/pom.xml"}) {
+            FileUtils.writeStringToFile(new File(directory, path), UNSORTED_POM, "UTF-8");
+        }
+    }
+
+    @Test
+    public void allPomFilesInDirectoryShouldBeSorted() throws IOException {
+        int exitCode = sortPomCli.run("--jobs", "2", "--line-separator", "\\n", directory.getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(FileUtils.readFileToString(new File(directory, "a/pom.xml"), "UTF-8"), is(SORTED_POM));
+        assertThat(out.toString(), containsString(": 3 sorted, 0 already sorted, 0 not sorted, 0 failed"));
+        assertThat(new File(directory, "a/pom.xml.bak").exists(), is(false));
+    }
+
+    @Test
+    public void checkShouldReturnOneForUnsortedPomFiles() throws IOException {
+        FileUtils.writeStringToFile(new File(directory, "b/pom.xml"), SORTED_POM, "UTF-8");
+
+        int exitCode = sortPomCli.run("--check", directory.getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_NOT_SORTED));
+        assertThat(FileUtils.readFileToString(new File(directory, "a/pom.xml"), "UTF-8"), is(UNSORTED_POM));
+        assertThat(out.toString(), containsString(": 0 sorted, 1 already sorted, 2 not sorted, 0 failed"));
+        assertThat(err.toString(), containsString("[WARNING] The file " + new File(directory, "a/pom.xml").getPath() + " is not sorted"));
+    }
+
+    @Test
+    public void checkShouldReturnZeroForSortedPomFiles() {
+        sortPomCli.run("--line-separator", "\\n", directory.getPath());
+
+        int exitCode = sortPomCli.run("--check", directory.getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+    }
+
+    @Test
+    public void corruptPomFileShouldReturnTwo() throws IOException {
+        FileUtils.writeStringToFile(new File(directory, "b/pom.xml"), "<project>", "UTF-8");
+
+        int exitCode = sortPomCli.run(directory.getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_FAILURE));
+        assertThat(err.toString(), containsString("[ERROR] Could not sort " + new File(directory, "b/pom.xml").getPath()));
+    }
+
+    @Test
+    public void stdinShouldBeSortedToStdout() {
+        int exitCode = createStdinCli(UNSORTED_POM).run("--stdin", "--line-separator", "\\n");
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(out.toString(), is(SORTED_POM));
+    }
+
+    @Test
+    public void checkShouldReportUnsortedStdin() {
+        int exitCode = createStdinCli(UNSORTED_POM).run("--stdin", "--check", "--all-violations");
+
+        assertThat(exitCode, is(SortPomCli.EXIT_NOT_SORTED));
+        assertThat(out.toString(), is(""));
+        assertThat(err.toString(), containsString("[WARNING] The pom content is not sorted"));
+        assertThat(err.toString(), containsString("[WARNING] The xml element <modelVersion> should be placed before <version>"));
+        assertThat(err.toString(), containsString("[WARNING] The xml element /project/modelVersion should be placed at position 1 instead of 2"));
+    }
+
+    @Test
+    public void wrongArgumentsShouldPrintUsage() {
+        int exitCode = sortPomCli.run("--jobs");
+
+        assertThat(exitCode, is(SortPomCli.EXIT_FAILURE));
+        assertThat(err.toString(), startsWith("Missing value for --jobs"));
+        assertThat(err.toString(), containsString("Usage: "));
+    }
+
+    @Test
+    public void helpShouldPrintUsage() {
+        int exitCode = sortPomCli.run("--help");
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(out.toString(), startsWith("Usage: "));
+    }
+
+    private SortPomCli createStdinCli(String pomXml) {
+        return new SortPomCli(new ByteArrayInputStream(pomXml.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true), new PrintStream(err, true), CliArguments::createSortEngine);
+    }
+}
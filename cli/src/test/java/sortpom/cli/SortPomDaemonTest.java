@@ -0,0 +1,233 @@
+package sortpom.cli;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sortpom.SortEngine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SortPomDaemonTest {
+    private static final String UNSORTED_POM = "<project><version>1</version><modelVersion>4.0.0</modelVersion></project>";
+    private static final String SORTED_POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>\n" +
+            "  <modelVersion>4.0.0</modelVersion>\n  <version>1</version>\n</project>\n";
+    private final ByteArrayOutputStream daemonOut = new ByteArrayOutputStream();
+    private File directory;
+    private File portFile;
+    private CompletableFuture<Integer> daemon;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = new File("target/daemon").getAbsoluteFile();
+        FileUtils.deleteDirectory(directory);
+        FileUtils.writeStringToFile(new File(directory, "project/pom.xml"), UNSORTED_POM, "UTF-8");
+        portFile = new File(directory, "daemon.port");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (daemon != null && !daemon.isDone()) {
+            new DaemonClient(portFile).send(DaemonProtocol.STOP, null, null);
+            daemon.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void clientShouldSortPomFilesInDaemon() throws Exception {
+        startDaemon(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exitCode = new SortPomCli(new PrintStream(out, true), new PrintStream(new ByteArrayOutputStream(), true))
+                .run("--client", "--port-file", portFile.getPath(), "--line-separator", "\\n",
+                        new File(directory, "project").getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(out.toString(), containsString(": 1 sorted, 0 already sorted, 0 not sorted, 0 failed"));
+        assertThat(FileUtils.readFileToString(new File(directory, "project/pom.xml"), "UTF-8"), is(SORTED_POM));
+    }
+
+    @Test
+    public void relativePathsShouldBeResolvedAgainstClientWorkingDirectory() throws Exception {
+        startDaemon(0);
+        List<String> args = Arrays.asList("--check", "project");
+
+        DaemonClient.Response response = new DaemonClient(portFile).send(DaemonProtocol.RUN, directory, args);
+
+        assertThat(response.getExitCode(), is(SortPomCli.EXIT_NOT_SORTED));
+        assertThat(response.getErr(), containsString(
+                "[WARNING] The file " + new File(directory, "project/pom.xml").getPath() + " is not sorted"));
+    }
+
+    @Test
+    public void sortRequestShouldReturnSortedContent() throws Exception {
+        startDaemon(0);
+        List<String> args = Arrays.asList("--line-separator", "\\n");
+
+        DaemonClient.Response response = new DaemonClient(portFile)
+                .send(DaemonProtocol.SORT, directory, args, UNSORTED_POM.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.getExitCode(), is(SortPomCli.EXIT_OK));
+        assertThat(new String(response.getOut(), StandardCharsets.UTF_8), is(SORTED_POM));
+        assertThat(response.getErr(), is(""));
+    }
+
+    @Test
+    public void sortRequestWithCheckShouldReturnViolation() throws Exception {
+        startDaemon(0);
+        List<String> args = Collections.singletonList("--check");
+
+        DaemonClient.Response response = new DaemonClient(portFile)
+                .send(DaemonProtocol.SORT, directory, args, UNSORTED_POM.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.getExitCode(), is(SortPomCli.EXIT_NOT_SORTED));
+        assertThat(response.getOut().length, is(0));
+        assertThat(response.getErr(), containsString("The xml element <modelVersion> should be placed before <version>"));
+    }
+
+    @Test
+    public void clientShouldSortStdinInDaemon() throws Exception {
+        startDaemon(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayInputStream in = new ByteArrayInputStream(UNSORTED_POM.getBytes(StandardCharsets.UTF_8));
+
+        int exitCode = new SortPomCli(in, new PrintStream(out, true), new PrintStream(new ByteArrayOutputStream(), true),
+                arguments -> {
+                    throw new AssertionError("The pom content should be sorted by the daemon");
+                })
+                .run("--client", "--stdin", "--port-file", portFile.getPath(), "--line-separator", "\\n");
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(SORTED_POM));
+    }
+
+    @Test
+    public void sortEnginesShouldBeKeptBetweenRequests() {
+        SortPomDaemon sortPomDaemon = new SortPomDaemon(portFile, 0, 0,
+                new PrintStream(daemonOut, true), new PrintStream(new ByteArrayOutputStream(), true));
+
+        SortEngine sortEngine = sortPomDaemon.getSortEngine(CliArguments.parse("--indent", "4", "dir1"));
+
+        assertThat(sortPomDaemon.getSortEngine(CliArguments.parse("--indent", "4", "dir2")), is(sameInstance(sortEngine)));
+        assertThat(sortPomDaemon.getSortEngine(CliArguments.parse("--indent", "2", "dir1")), is(not(sameInstance(sortEngine))));
+    }
+
+    @Test
+    public void wrongTokenShouldBeRejected() throws Exception {
+        startDaemon(0);
+        List<String> lines = Files.readAllLines(portFile.toPath(), StandardCharsets.UTF_8);
+        File wrongPortFile = new File(directory, "wrong.port");
+        Files.write(wrongPortFile.toPath(), Arrays.asList(lines.get(0), "0123456789"), StandardCharsets.UTF_8);
+
+        DaemonClient.Response response = new DaemonClient(wrongPortFile)
+                .send(DaemonProtocol.RUN, directory, Collections.singletonList("project"));
+
+        assertThat(response.getExitCode(), is(SortPomCli.EXIT_FAILURE));
+        assertThat(response.getErr(), is("Wrong sortpom daemon token"));
+        assertThat(FileUtils.readFileToString(new File(directory, "project/pom.xml"), "UTF-8"), is(UNSORTED_POM));
+    }
+
+    @Test
+    public void tooLongTokenShouldNotBeRead() throws Exception {
+        startDaemon(0);
+        List<String> lines = Files.readAllLines(portFile.toPath(), StandardCharsets.UTF_8);
+        File wrongPortFile = new File(directory, "wrong.port");
+        Files.write(wrongPortFile.toPath(), Arrays.asList(lines.get(0), lines.get(1) + "0"), StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> new DaemonClient(wrongPortFile).send(DaemonProtocol.PING, null, null));
+    }
+
+    @Test
+    public void daemonOptionsShouldBeRejectedByDaemon() throws Exception {
+        startDaemon(0);
+
+        DaemonClient.Response response = new DaemonClient(portFile)
+                .send(DaemonProtocol.RUN, directory, Collections.singletonList("--daemon"));
+
+        assertThat(response.getExitCode(), is(SortPomCli.EXIT_FAILURE));
+        assertThat(response.getErr(), containsString("Daemon options cannot be sent to the sortpom daemon"));
+    }
+
+    @Test
+    public void stopShouldStopDaemonAndDeletePortFile() throws Exception {
+        startDaemon(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exitCode = new SortPomCli(new PrintStream(out, true), new PrintStream(new ByteArrayOutputStream(), true))
+                .run("--stop-daemon", "--port-file", portFile.getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(out.toString(), containsString("Sortpom daemon stopped"));
+        assertThat(daemon.get(10, TimeUnit.SECONDS), is(SortPomCli.EXIT_OK));
+        assertThat(portFile.exists(), is(false));
+    }
+
+    @Test
+    public void idleDaemonShouldStop() throws Exception {
+        startDaemon(1);
+
+        assertThat(daemon.get(10, TimeUnit.SECONDS), is(SortPomCli.EXIT_OK));
+        assertThat(daemonOut.toString(), containsString("Sortpom daemon stopped after being idle"));
+        assertThat(portFile.exists(), is(false));
+    }
+
+    @Test
+    public void requestsWithWrongTokenShouldNotKeepDaemonAlive() throws Exception {
+        startDaemon(1);
+        List<String> lines = Files.readAllLines(portFile.toPath(), StandardCharsets.UTF_8);
+        File wrongPortFile = new File(directory, "wrong.port");
+        Files.write(wrongPortFile.toPath(), Arrays.asList(lines.get(0), "0123456789"), StandardCharsets.UTF_8);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!daemon.isDone() && System.currentTimeMillis() < deadline) {
+            new DaemonClient(wrongPortFile).send(DaemonProtocol.PING, null, null);
+            Thread.sleep(100);
+        }
+
+        assertThat(daemon.get(1, TimeUnit.SECONDS), is(SortPomCli.EXIT_OK));
+        assertThat(daemonOut.toString(), containsString("Sortpom daemon stopped after being idle"));
+    }
+
+    @Test
+    public void clientWithoutDaemonShouldSortLocally() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int exitCode = new SortPomCli(new PrintStream(out, true), new PrintStream(new ByteArrayOutputStream(), true))
+                .run("--client", "--verbose", "--port-file", portFile.getPath(), "--line-separator", "\\n",
+                        new File(directory, "project").getPath());
+
+        assertThat(exitCode, is(SortPomCli.EXIT_OK));
+        assertThat(out.toString(), containsString("[INFO] No sortpom daemon is running, sorting without it"));
+        assertThat(FileUtils.readFileToString(new File(directory, "project/pom.xml"), "UTF-8"), is(SORTED_POM));
+        assertThat(new DaemonClient(portFile).send(DaemonProtocol.PING, null, null), is(nullValue()));
+    }
+
+    private void startDaemon(int idleTimeoutSeconds) throws InterruptedException {
+        SortPomDaemon sortPomDaemon = new SortPomDaemon(portFile, 0, idleTimeoutSeconds,
+                new PrintStream(daemonOut, true), new PrintStream(new ByteArrayOutputStream(), true));
+        daemon = CompletableFuture.supplyAsync(sortPomDaemon::run);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!portFile.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -142,6 +142,20 @@ abstract class AbstractParentMojo extends AbstractMojo {
     @Parameter(property = "sort.prioritizeLocalGroupId", defaultValue = "false")
     protected boolean prioritizeLocalGroupId;
 
+    /**
+     * Directory where sort results are cached between builds, so that pom files that have not changed are not
+     * sorted again. The directory can be shared by several projects. No cache is used if it is not set.
+     */
+    @Parameter(property = "sort.cacheDirectory")
+    File cacheDirectory;
+
+    /**
+     * Saves the time and counters of each sort phase to a JSON file, for instance
+     * 'target/sortpom_reports/statistics.json'. The statistics are always logged on debug level.
+     */
+    @Parameter(property = "sort.statisticsFilename")
+    String statisticsFilename;
+
     final SortPomImpl sortPomImpl = new SortPomImpl();
 
     /**
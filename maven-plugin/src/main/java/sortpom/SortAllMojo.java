@@ -0,0 +1,122 @@
+package sortpom;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import sortpom.exception.ExceptionConverter;
+import sortpom.exception.FailureException;
+import sortpom.logger.MavenLogger;
+import sortpom.parameter.PluginParameters;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts, or verifies, the pom.xml files for all projects in the reactor in parallel. The goal only runs once for
+ * the whole reactor and prints one summary. The pomFile parameter is not used, the pom file of each project is
+ * used instead.
+ */
+@Mojo(name = "sort-all", aggregator = true, threadSafe = true, defaultPhase = LifecyclePhase.VALIDATE)
+@SuppressWarnings({"UnusedDeclaration"})
+public class SortAllMojo extends AbstractParentMojo {
+
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    MavenSession mavenSession;
+
+    /**
+     * Verify the pom files instead of sorting them. What happens if the verification fails is decided by verifyFail.
+     */
+    @Parameter(property = "sort.verifyOnly", defaultValue = "false")
+    private boolean verifyOnly;
+
+    /**
+     * What should happen if verification fails. Can be either 'sort', 'warn' or 'stop'
+     */
+    @Parameter(property = "sort.verifyFail", defaultValue = "sort")
+    private String verifyFail;
+
+    /**
+     * Saves the verification failure to an external xml file. A relative filename is resolved against the base
+     * directory of each project.
+     */
+    @Parameter(property = "sort.violationFilename")
+    private String violationFilename;
+
+    /**
+     * Reports every xml element that is out of order when verification fails, instead of only the first. Each
+     * element is logged and saved in the violation file with its xpath, its position and its expected position.
+     */
+    @Parameter(property = "sort.verifyAllViolations", defaultValue = "false")
+    private boolean verifyAllViolations;
+
+    /**
+     * Ignore line separators when comparing current POM with sorted one
+     */
+    @Parameter(property = "sort.ignoreLineSeparators", defaultValue = "true")
+    private boolean ignoreLineSeparators;
+
+    /**
+     * Number of pom files that are processed at the same time. The value 0 means one per available processor.
+     */
+    @Parameter(property = "sort.threads", defaultValue = "0")
+    private int threads;
+
+    private final List<PluginParameters> pomFileParameters = new ArrayList<>();
+
+    public void setup() throws MojoFailureException {
+        new ExceptionConverter(() -> {
+            pomFileParameters.clear();
+            for (MavenProject project : mavenSession.getProjects()) {
+                if (project.getFile() != null) {
+                    pomFileParameters.add(createPluginParameters(project));
+                }
+            }
+        }).executeAndConvertException();
+    }
+
+    private PluginParameters createPluginParameters(MavenProject project) {
+        return PluginParameters.builder()
+                .setPomFile(project.getFile())
+                .setFileOutput(createBackupFile, backupFileExtension, resolveFilename(project, violationFilename), keepTimestamp)
+                .setEncoding(encoding)
+                .setFormatting(lineSeparator, expandEmptyElements, keepBlankLines)
+                .setIndent(nrOfIndentSpace, indentBlankLines)
+                .setSortOrder(sortOrderFile, predefinedSortOrder)
+                .setSortEntities(sortDependencies, sortPlugins, sortProperties, sortModules)
+                .setVerifyFail(verifyFail)
+                .setVerifyAllViolations(verifyAllViolations)
+                .setTriggers(ignoreLineSeparators)
+                .setGroupId(project.getGroupId())
+                .setPrioritizeLocalGroupId(prioritizeLocalGroupId)
+                .setPrioritizedDependencyGroups(dependencyPriorityGroups)
+                .setPrioritizedPluginGroups(pluginPriorityGroups)
+                .setCacheDirectory(cacheDirectory)
+                .setStatisticsFilename(resolveFilename(project, statisticsFilename))
+                .build();
+    }
+
+    /** Relative report filenames are resolved against the base directory of each project */
+    private String resolveFilename(MavenProject project, String filename) {
+        if (filename == null || new File(filename).isAbsolute()) {
+            return filename;
+        }
+        return new File(project.getBasedir(), filename).getAbsolutePath();
+    }
+
+    protected void sortPom() throws MojoFailureException {
+        new ExceptionConverter(() -> {
+            MavenLogger log = new MavenLogger(getLog());
+            SortPomBatchResult result = new SortPomBatch(log, threads, verifyOnly).execute(pomFileParameters);
+            log.info(result.getSummary());
+            if (!result.getFailureMessages().isEmpty()) {
+                throw new FailureException(String.format("%d of %d pom files failed, the first failure was: %s",
+                        result.getFailureMessages().size(), result.getNrOfFiles(), result.getFailureMessages().get(0)));
+            }
+        }).executeAndConvertException();
+    }
+
+}
@@ -38,6 +38,8 @@ public class SortMojo extends AbstractParentMojo {
                     .setPrioritizeLocalGroupId(prioritizeLocalGroupId)
                     .setPrioritizedDependencyGroups(dependencyPriorityGroups)
                     .setPrioritizedPluginGroups(pluginPriorityGroups)
+                    .setCacheDirectory(cacheDirectory)
+                    .setStatisticsFilename(statisticsFilename)
                     .build();
 
             sortPomImpl.setup(new MavenLogger(getLog()), pluginParameters);
@@ -29,6 +29,13 @@ public class VerifyMojo extends AbstractParentMojo {
     @Parameter(property = "sort.violationFilename")
     private String violationFilename;
 
+    /**
+     * Reports every xml element that is out of order when verification fails, instead of only the first. Each
+     * element is logged and saved in the violation file with its xpath, its position and its expected position.
+     */
+    @Parameter(property = "sort.verifyAllViolations", defaultValue = "false")
+    private boolean verifyAllViolations;
+
     public void setup() throws MojoFailureException {
         new ExceptionConverter(() -> {
 
@@ -42,9 +49,12 @@ public class VerifyMojo extends AbstractParentMojo {
                     .setSortOrder(sortOrderFile, predefinedSortOrder)
                     .setSortEntities(sortDependencies, sortPlugins, sortProperties, sortModules)
                     .setVerifyFail(verifyFail)
+                    .setVerifyAllViolations(verifyAllViolations)
                     .setPrioritizeLocalGroupId(prioritizeLocalGroupId)
                     .setPrioritizedDependencyGroups(dependencyPriorityGroups)
                     .setPrioritizedPluginGroups(pluginPriorityGroups)
+                    .setCacheDirectory(cacheDirectory)
+                    .setStatisticsFilename(statisticsFilename)
                     .build();
 
             sortPomImpl.setup(new MavenLogger(getLog()), pluginParameters);
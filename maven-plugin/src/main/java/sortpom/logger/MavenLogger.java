@@ -27,4 +27,14 @@ public class MavenLogger implements SortPomLogger {
     public void error(String content) {
         pluginLogger.error(content);
     }
+
+    @Override
+    public void debug(String content) {
+        pluginLogger.debug(content);
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return pluginLogger.isDebugEnabled();
+    }
 }
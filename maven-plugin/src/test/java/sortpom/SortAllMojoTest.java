@@ -0,0 +1,123 @@
+package sortpom;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import refutils.ReflectionHelper;
+import sortpom.parameter.PluginParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SortAllMojoTest {
+    private static final String UNSORTED_POM = "<project><version>1</version><modelVersion>4.0.0</modelVersion></project>";
+    private final Log log = mock(Log.class);
+    private final MavenSession mavenSession = mock(MavenSession.class);
+    private final List<MavenProject> projects = new ArrayList<>();
+    private SortAllMojo sortAllMojo;
+    private File directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = new File("target/sort-all");
+        FileUtils.deleteDirectory(directory);
+        Files.createDirectories(directory.toPath());
+
+        when(mavenSession.getProjects()).thenReturn(projects);
+        sortAllMojo = new SortAllMojo();
+        sortAllMojo.setLog(log);
+        ReflectionHelper mojoHelper = new ReflectionHelper(sortAllMojo);
+        mojoHelper.setField(mavenSession);
+        mojoHelper.setField("lineSeparator", "\n");
+        mojoHelper.setField("encoding", "UTF-8");
+        mojoHelper.setField("nrOfIndentSpace", 2);
+        mojoHelper.setField("backupFileExtension", ".bak");
+        mojoHelper.setField("verifyFail", "sort");
+        mojoHelper.setField("threads", 2);
+    }
+
+    @Test
+    public void allReactorPomFilesShouldBeSorted() throws Exception {
+        addProject("a", UNSORTED_POM);
+        addProject("b", UNSORTED_POM);
+        addProject("c", UNSORTED_POM);
+
+        sortAllMojo.execute();
+
+        for (MavenProject project : projects) {
+            assertThat(FileUtils.readFileToString(project.getFile(), "UTF-8"), containsString(
+                    "<modelVersion>4.0.0</modelVersion>\n  <version>1</version>"));
+        }
+        verify(log).info(contains(": 3 sorted, 0 already sorted, 0 not sorted, 0 failed"));
+    }
+
+    @Test
+    public void eachProjectShouldGetItsOwnParameters() throws Exception {
+        addProject("a", UNSORTED_POM).setGroupId("group.a");
+        addProject("b", UNSORTED_POM).setGroupId("group.b");
+        new ReflectionHelper(sortAllMojo).setField("violationFilename", "target/violation.xml");
+
+        sortAllMojo.setup();
+
+        List<PluginParameters> pomFileParameters = getPomFileParameters();
+        assertThat(pomFileParameters, hasSize(2));
+        assertThat(pomFileParameters.get(1).pomFile, is(projects.get(1).getFile()));
+        assertThat(pomFileParameters.get(1).violationFilename,
+                is(new File(directory, "b/target/violation.xml").getAbsolutePath()));
+    }
+
+    @Test
+    public void failedPomFilesShouldFailTheBuild() throws Exception {
+        addProject("a", UNSORTED_POM);
+        addProject("b", "<project>");
+
+        final Executable testMethod = () -> sortAllMojo.execute();
+
+        final MojoFailureException thrown = assertThrows(MojoFailureException.class, testMethod);
+
+        assertThat(thrown.getMessage(), startsWith("1 of 2 pom files failed, the first failure was: Could not sort "));
+    }
+
+    @Test
+    public void skipParameterShouldSkipExecution() throws Exception {
+        addProject("a", UNSORTED_POM);
+        new ReflectionHelper(sortAllMojo).setField("skip", true);
+
+        sortAllMojo.execute();
+
+        assertThat(FileUtils.readFileToString(projects.get(0).getFile(), "UTF-8"), is(UNSORTED_POM));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PluginParameters> getPomFileParameters() {
+        return (List<PluginParameters>) new ReflectionHelper(sortAllMojo).getField("pomFileParameters");
+    }
+
+    private MavenProject addProject(String name, String pomContent) throws IOException {
+        File pomFile = new File(directory, name + "/pom.xml");
+        FileUtils.writeStringToFile(pomFile, pomContent, "UTF-8");
+        MavenProject project = new MavenProject();
+        project.setFile(pomFile);
+        projects.add(project);
+        return project;
+    }
+}
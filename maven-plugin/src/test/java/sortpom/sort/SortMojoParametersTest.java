@@ -5,7 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import refutils.ReflectionHelper;
 import sortpom.SortMojo;
+import sortpom.SortEngine;
 import sortpom.SortPomImpl;
+import sortpom.SortSession;
 import sortpom.XmlOutputGenerator;
 import sortpom.util.FileUtil;
 import sortpom.wrapper.ElementWrapperCreator;
@@ -13,6 +15,7 @@ import sortpom.wrapper.TextWrapperCreator;
 import sortpom.wrapper.WrapperFactoryImpl;
 
 import java.io.File;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -22,12 +25,7 @@ import static org.mockito.Mockito.mock;
 public class SortMojoParametersTest {
     private final File pomFile = mock(File.class);
 
-    private SortPomImpl sortPomImpl;
-    private FileUtil fileUtil;
     private SortMojo sortMojo;
-    private ElementWrapperCreator elementWrapperCreator;
-    private TextWrapperCreator textWrapperCreator;
-    private XmlOutputGenerator xmlOutputGenerator;
 
     @BeforeEach
     public void setup() throws SecurityException, IllegalArgumentException {
@@ -35,46 +33,43 @@ public class SortMojoParametersTest {
         new ReflectionHelper(sortMojo).setField("lineSeparator", "\n");
         new ReflectionHelper(sortMojo).setField("encoding", "UTF-8");
         new ReflectionHelper(sortMojo).setField(new MavenProject());
-
-        sortPomImpl = new ReflectionHelper(sortMojo).getField(SortPomImpl.class);
-        ReflectionHelper sortPomImplHelper = new ReflectionHelper(sortPomImpl);
-        fileUtil = sortPomImplHelper.getField(FileUtil.class);
-        xmlOutputGenerator = sortPomImplHelper.getField(XmlOutputGenerator.class);
-        WrapperFactoryImpl wrapperFactoryImpl = sortPomImplHelper.getField(WrapperFactoryImpl.class);
-        elementWrapperCreator = new ReflectionHelper(wrapperFactoryImpl).getField(ElementWrapperCreator.class);
-        textWrapperCreator = new ReflectionHelper(wrapperFactoryImpl).getField(TextWrapperCreator.class);
     }
 
     @Test
     public void pomFileParameter() throws Exception {
-        testParameterMoveFromMojoToRestOfApplication("pomFile", pomFile, sortPomImpl, fileUtil);
+        testParameterMoveFromMojoToRestOfApplication("pomFile", pomFile, this::sortSession, this::fileUtil);
     }
 
     @Test
     public void createBackupFileParameter() throws Exception {
-        testParameterMoveFromMojoToRestOfApplicationForBoolean("createBackupFile", sortPomImpl);
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("createBackupFile", this::sortEngine);
+    }
+
+    @Test
+    public void statisticsFilenameParameter() throws Exception {
+        testParameterMoveFromMojoToRestOfApplication("statisticsFilename", "stats.json", this::sortEngine, this::fileUtil);
     }
 
     @Test
     public void keepTimestampParameter() throws Exception {
-    	testParameterMoveFromMojoToRestOfApplicationForBoolean("keepTimestamp", fileUtil);
+    	testParameterMoveFromMojoToRestOfApplicationForBoolean("keepTimestamp", this::fileUtil);
     }
 
     @Test
     public void backupFileExtensionParameter() throws Exception {
-        testParameterMoveFromMojoToRestOfApplication("backupFileExtension", ".gurka", sortPomImpl, fileUtil);
+        testParameterMoveFromMojoToRestOfApplication("backupFileExtension", ".gurka", this::sortEngine, this::fileUtil);
     }
 
     @Test
     public void encodingParameter() throws Exception {
-        testParameterMoveFromMojoToRestOfApplication("encoding", "GURKA-2000", fileUtil, sortPomImpl, xmlOutputGenerator);
+        testParameterMoveFromMojoToRestOfApplication("encoding", "GURKA-2000", this::fileUtil, this::sortEngine, this::xmlOutputGenerator);
     }
 
     @Test
     public void lineSeparatorParameter() throws Exception {
         testParameterMoveFromMojoToRestOfApplication("lineSeparator", "\r");
 
-        final Object lineSeparatorUtil = new ReflectionHelper(xmlOutputGenerator)
+        final Object lineSeparatorUtil = new ReflectionHelper(xmlOutputGenerator())
                 .getField("lineSeparatorUtil");
 
         assertThat(lineSeparatorUtil.toString(), is(equalTo("\r")));
@@ -84,7 +79,7 @@ public class SortMojoParametersTest {
     public void parameterNrOfIndentSpaceShouldEndUpInXmlProcessor() throws Exception {
         testParameterMoveFromMojoToRestOfApplication("nrOfIndentSpace", 6);
 
-        final Object indentCharacters = new ReflectionHelper(xmlOutputGenerator)
+        final Object indentCharacters = new ReflectionHelper(xmlOutputGenerator())
                 .getField("indentCharacters");
 
         assertThat(indentCharacters, is(equalTo("      ")));
@@ -92,19 +87,19 @@ public class SortMojoParametersTest {
 
     @Test
     public void expandEmptyElementsParameter() throws Exception {
-        testParameterMoveFromMojoToRestOfApplicationForBoolean("expandEmptyElements", xmlOutputGenerator);
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("expandEmptyElements", this::xmlOutputGenerator);
     }
 
     @Test
     public void predefinedSortOrderParameter() throws Exception {
-        testParameterMoveFromMojoToRestOfApplication("predefinedSortOrder", "tomatoSort", fileUtil);
+        testParameterMoveFromMojoToRestOfApplication("predefinedSortOrder", "tomatoSort", this::fileUtil);
     }
 
     @Test
     public void parameterSortOrderFileShouldEndUpInFileUtil() throws Exception {
         testParameterMoveFromMojoToRestOfApplication("sortOrderFile", "sortOrderFile.gurka");
 
-        Object actual = new ReflectionHelper(fileUtil).getField("customSortOrderFile");
+        Object actual = new ReflectionHelper(fileUtil()).getField("customSortOrderFile");
 
         assertThat(actual, is(equalTo("sortOrderFile.gurka")));
     }
@@ -113,7 +108,7 @@ public class SortMojoParametersTest {
     public void parameterSortDependenciesShouldEndUpInElementWrapperCreator() throws Exception {
         testParameterMoveFromMojoToRestOfApplication("sortDependencies", "groupId,scope");
 
-        Object sortDependencies = new ReflectionHelper(elementWrapperCreator).getField("sortDependencies");
+        Object sortDependencies = new ReflectionHelper(elementWrapperCreator()).getField("sortDependencies");
         assertThat(sortDependencies.toString(), is("DependencySortOrder{childElementNames=[groupId, scope]}"));
     }
 
@@ -121,56 +116,82 @@ public class SortMojoParametersTest {
     public void parameterSortPluginsShouldEndUpInWrapperFactoryImpl() throws Exception {
         testParameterMoveFromMojoToRestOfApplication("sortPlugins", "alfa,beta");
 
-        Object sortDependencies = new ReflectionHelper(elementWrapperCreator).getField("sortPlugins");
+        Object sortDependencies = new ReflectionHelper(elementWrapperCreator()).getField("sortPlugins");
         assertThat(sortDependencies.toString(), is("DependencySortOrder{childElementNames=[alfa, beta]}"));
     }
 
     @Test
     public void parameterSortModulesShouldEndUpInWrapperFactoryImpl() throws Exception {
-        testParameterMoveFromMojoToRestOfApplicationForBoolean("sortModules", elementWrapperCreator);
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("sortModules", this::elementWrapperCreator);
     }
 
     @Test
     public void parameterSortPropertiesShouldEndUpInWrapperFactoryImpl() throws Exception {
-        testParameterMoveFromMojoToRestOfApplicationForBoolean("sortProperties", elementWrapperCreator);
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("sortProperties", this::elementWrapperCreator);
     }
 
     @Test
     public void parameterKeepBlankLineShouldEndUpInXmlProcessor() throws Exception {
-        testParameterMoveFromMojoToRestOfApplicationForBoolean("keepBlankLines", textWrapperCreator);
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("keepBlankLines", this::textWrapperCreator);
     }
 
     @Test
     public void parameterIndentBlankLineShouldEndUpInXmlProcessor() throws Exception {
-        testParameterMoveFromMojoToRestOfApplicationForBoolean("indentBlankLines", xmlOutputGenerator);
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("indentBlankLines", this::xmlOutputGenerator);
     }
 
     private void testParameterMoveFromMojoToRestOfApplication(String parameterName, Object parameterValue,
-                                                              Object... whereParameterCanBeFound) throws
+                                                              Supplier<?>... whereParameterCanBeFound) throws
             Exception {
         new ReflectionHelper(sortMojo).setField(parameterName, parameterValue);
 
         sortMojo.setup();
 
-        for (Object someInstanceThatContainparameter : whereParameterCanBeFound) {
-            Object actual = new ReflectionHelper(someInstanceThatContainparameter).getField(parameterName);
+        for (Supplier<?> someInstanceThatContainparameter : whereParameterCanBeFound) {
+            Object actual = new ReflectionHelper(someInstanceThatContainparameter.get()).getField(parameterName);
 
             assertThat(actual, is(equalTo(parameterValue)));
         }
     }
 
     private void testParameterMoveFromMojoToRestOfApplicationForBoolean(String parameterName,
-                                                                        Object... whereParameterCanBeFound) throws
+                                                                        Supplier<?>... whereParameterCanBeFound) throws
             Exception {
         new ReflectionHelper(sortMojo).setField(parameterName, true);
 
         sortMojo.setup();
 
-        for (Object someInstanceThatContainparameter : whereParameterCanBeFound) {
-            Object actual = new ReflectionHelper(someInstanceThatContainparameter).getField(parameterName);
+        for (Supplier<?> someInstanceThatContainparameter : whereParameterCanBeFound) {
+            Object actual = new ReflectionHelper(someInstanceThatContainparameter.get()).getField(parameterName);
 
             assertThat(actual, is(equalTo(true)));
         }
     }
 
+    private SortSession sortSession() {
+        SortPomImpl sortPomImpl = new ReflectionHelper(sortMojo).getField(SortPomImpl.class);
+        return new ReflectionHelper(sortPomImpl).getField(SortSession.class);
+    }
+
+    private SortEngine sortEngine() {
+        return new ReflectionHelper(sortSession()).getField(SortEngine.class);
+    }
+
+    private FileUtil fileUtil() {
+        return new ReflectionHelper(sortSession()).getField(FileUtil.class);
+    }
+
+    private XmlOutputGenerator xmlOutputGenerator() {
+        return new ReflectionHelper(sortEngine()).getField(XmlOutputGenerator.class);
+    }
+
+    private ElementWrapperCreator elementWrapperCreator() {
+        WrapperFactoryImpl wrapperFactoryImpl = new ReflectionHelper(sortEngine()).getField(WrapperFactoryImpl.class);
+        return new ReflectionHelper(wrapperFactoryImpl).getField(ElementWrapperCreator.class);
+    }
+
+    private TextWrapperCreator textWrapperCreator() {
+        WrapperFactoryImpl wrapperFactoryImpl = new ReflectionHelper(sortEngine()).getField(WrapperFactoryImpl.class);
+        return new ReflectionHelper(wrapperFactoryImpl).getField(TextWrapperCreator.class);
+    }
 }
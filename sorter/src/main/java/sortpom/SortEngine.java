@@ -0,0 +1,330 @@
+package sortpom;
+
+import org.apache.commons.io.IOUtils;
+import sortpom.cache.SortResultCache;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParameters;
+import sortpom.parameter.VerifyFailType;
+import sortpom.util.EncodingDigestWriter;
+import sortpom.util.FileUtil;
+import sortpom.util.XmlOrderedResult;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The configured sorter. The engine is built once from the plugin parameters and is not changed after that, so
+ * one engine can sort any number of pom files, also from several threads at the same time. Everything that
+ * belongs to one pom file is kept in a SortSession, which is cheap to create.
+ * <p>
+ * The pom file in the plugin parameters is not used by the engine, the pom file is given to each session. The
+ * engine can also sort pom content in memory, without any pom file at all:
+ * <pre>
+ * SortEngine sortEngine = new SortEngine(pluginParameters);
+ * sortEngine.sort(pomBytes, outputStream);
+ * XmlOrderedResult result = sortEngine.verify(pomBytes);
+ * </pre>
+ * The content is read and written with the encoding in the plugin parameters. Errors are reported with a
+ * FailureException.
+ * <p>
+ * If the plugin parameters contain a cache directory then the sessions look up pom files in a SortResultCache
+ * before they are parsed, so that unchanged pom files are not sorted again in the next build.
+ */
+public final class SortEngine {
+    /** Sessions for in-memory content only log scan errors, and scan errors are also thrown */
+    private static final SortPomLogger NO_LOGGING = new SortPomLogger() {
+        @Override
+        public void warn(String content) {
+        }
+
+        @Override
+        public void info(String content) {
+        }
+
+        @Override
+        public void error(String content) {
+        }
+    };
+
+    /** The sortpom version, null if it cannot be found (for instance when running from an IDE) */
+    private static final String VERSION = readVersion();
+
+    private final PluginParameters pluginParameters;
+    private final WrapperFactoryImpl wrapperFactory;
+    private final XmlOutputGenerator xmlOutputGenerator;
+
+    private final String encoding;
+    private final boolean createBackupFile;
+    private final String backupFileExtension;
+    private final VerifyFailType verifyFailType;
+    private final boolean verifyAllViolations;
+    private final boolean ignoreLineSeparators;
+    private final String violationFilename;
+    private final String statisticsFilename;
+    private final File cacheDirectory;
+    private volatile SortResultCache sortResultCache;
+    /** The deprecated arguments are the same for all pom files, so they are only warned about once */
+    private final AtomicBoolean deprecatedArgumentsChecked = new AtomicBoolean();
+
+    /** The encoder and its buffers are reused for every pom file that a thread sorts */
+    private final ThreadLocal<EncodingDigestWriter> encodingDigestWriter =
+            ThreadLocal.withInitial(() -> new EncodingDigestWriter(getCharset()));
+    /** Calculates the digest that is compared when line separators are ignored, at the same time as the content */
+    private final ThreadLocal<EncodingDigestWriter> comparisonDigestWriter =
+            ThreadLocal.withInitial(() -> new EncodingDigestWriter(getCharset()));
+
+    public SortEngine(PluginParameters pluginParameters) {
+        this.pluginParameters = pluginParameters;
+
+        // The file util of the engine is only used to find the sort order
+        FileUtil sortOrderFileUtil = new FileUtil();
+        sortOrderFileUtil.setup(pluginParameters);
+        wrapperFactory = new WrapperFactoryImpl(sortOrderFileUtil);
+        wrapperFactory.setup(pluginParameters);
+        xmlOutputGenerator = new XmlOutputGenerator();
+        xmlOutputGenerator.setup(pluginParameters);
+
+        encoding = pluginParameters.encoding;
+        createBackupFile = pluginParameters.createBackupFile;
+        backupFileExtension = pluginParameters.backupFileExtension;
+        verifyFailType = pluginParameters.verifyFailType;
+        verifyAllViolations = pluginParameters.verifyAllViolations;
+        ignoreLineSeparators = pluginParameters.ignoreLineSeparators;
+        violationFilename = pluginParameters.violationFilename;
+        statisticsFilename = pluginParameters.statisticsFilename;
+        cacheDirectory = pluginParameters.cacheDirectory;
+    }
+
+    /**
+     * Creates a session that sorts or verifies one pom file
+     *
+     * @param log     receives the log messages for the pom file
+     * @param pomFile the pom file
+     * @return a new session
+     */
+    public SortSession createSession(SortPomLogger log, File pomFile) {
+        if (deprecatedArgumentsChecked.compareAndSet(false, true)) {
+            warnAboutDeprecatedArguments(log);
+        }
+        return new SortSession(this, log, pomFile);
+    }
+
+    /**
+     * Sorts pom content in memory
+     *
+     * @param pomXml    the encoded pom content
+     * @param sortedXml receives the encoded sorted content, it is neither flushed nor closed
+     */
+    public void sort(byte[] pomXml, OutputStream sortedXml) {
+        try {
+            new SortSession(this, NO_LOGGING, null).sortXml(pomXml, sortedXml);
+        } catch (IOException e) {
+            throw new FailureException("Could not write sorted pom content", e);
+        }
+    }
+
+    /**
+     * Sorts pom content in memory
+     *
+     * @param pomXml    the encoded pom content, it is read to the end but not closed
+     * @param sortedXml receives the encoded sorted content, it is neither flushed nor closed
+     */
+    public void sort(InputStream pomXml, OutputStream sortedXml) {
+        sort(readAll(pomXml), sortedXml);
+    }
+
+    /**
+     * Sorts pom content in memory
+     *
+     * @param pomXml    the pom content, it is read to the end but not closed
+     * @param sortedXml receives the sorted content, it is neither flushed nor closed
+     */
+    public void sort(Reader pomXml, Writer sortedXml) {
+        byte[] encodedXml = readAll(pomXml).getBytes(getCharset());
+        try {
+            new SortSession(this, NO_LOGGING, null).sortXml(encodedXml, sortedXml);
+        } catch (IOException e) {
+            throw new FailureException("Could not write sorted pom content", e);
+        }
+    }
+
+    /**
+     * Verifies that pom content is sorted regardless of formatting
+     *
+     * @param pomXml the encoded pom content
+     * @return the result of the verification
+     */
+    public XmlOrderedResult verify(byte[] pomXml) {
+        return new SortSession(this, NO_LOGGING, null).isXmlElementsSorted(pomXml);
+    }
+
+    /**
+     * Verifies that pom content is sorted regardless of formatting
+     *
+     * @param pomXml the encoded pom content, it is read to the end but not closed
+     * @return the result of the verification
+     */
+    public XmlOrderedResult verify(InputStream pomXml) {
+        return verify(readAll(pomXml));
+    }
+
+    /**
+     * Verifies that pom content is sorted regardless of formatting
+     *
+     * @param pomXml the pom content, it is read to the end but not closed
+     * @return the result of the verification
+     */
+    public XmlOrderedResult verify(Reader pomXml) {
+        return verify(readAll(pomXml).getBytes(getCharset()));
+    }
+
+    private static byte[] readAll(InputStream pomXml) {
+        try {
+            return IOUtils.toByteArray(pomXml);
+        } catch (IOException e) {
+            throw new FailureException("Could not read pom content", e);
+        }
+    }
+
+    private static String readAll(Reader pomXml) {
+        try {
+            return IOUtils.toString(pomXml);
+        } catch (IOException e) {
+            throw new FailureException("Could not read pom content", e);
+        }
+    }
+
+    private void warnAboutDeprecatedArguments(SortPomLogger log) {
+        if (pluginParameters.sortDependencies.isDeprecatedValueTrue()) {
+            log.warn("[DEPRECATED] The 'true' value in sortDependencies is not used anymore, please use value 'groupId,artifactId' instead. In the next major version 'true' or 'false' will cause an error!");
+        }
+        if (pluginParameters.sortDependencies.isDeprecatedValueFalse()) {
+            log.warn("[DEPRECATED] The 'false' value in sortDependencies is not used anymore, please use empty value '' or omit sortDependencies instead. In the next major version 'true' or 'false' will cause an error!");
+        }
+        if (pluginParameters.sortPlugins.isDeprecatedValueTrue()) {
+            log.warn("[DEPRECATED] The 'true' value in sortPlugins is not used anymore, please use value 'groupId,artifactId' instead. In the next major version 'true' or 'false' will cause an error!");
+        }
+        if (pluginParameters.sortPlugins.isDeprecatedValueFalse()) {
+            log.warn("[DEPRECATED] The 'false' value in sortPlugins is not used anymore, please use empty value '' or omit sortPlugins instead. In the next major version 'true' or 'false' will cause an error!");
+        }
+    }
+
+    /**
+     * The cache is created when the first pom file is sorted, since the fingerprint needs the sort order content
+     *
+     * @return the cache of sort results, or null if no cache directory is configured
+     */
+    SortResultCache getSortResultCache() {
+        // Without a version, results of an older sortpom version could be served after an upgrade
+        if (cacheDirectory == null || VERSION == null) {
+            return null;
+        }
+        SortResultCache cache = sortResultCache;
+        if (cache == null) {
+            cache = new SortResultCache(cacheDirectory, createCacheFingerprint());
+            sortResultCache = cache;
+        }
+        return cache;
+    }
+
+    /** Everything except the pom file content that can change the sort result or the outcome of a verification */
+    String createCacheFingerprint() {
+        return String.join("\n",
+                "version=" + VERSION,
+                "encoding=" + encoding,
+                "lineSeparator=" + pluginParameters.lineSeparatorUtil,
+                "indentCharacters=" + pluginParameters.indentCharacters,
+                "expandEmptyElements=" + pluginParameters.expandEmptyElements,
+                "keepBlankLines=" + pluginParameters.keepBlankLines,
+                "indentBlankLines=" + pluginParameters.indentBlankLines,
+                "sortDependencies=" + pluginParameters.sortDependencies.getChildElementNames()
+                        + pluginParameters.sortDependencies.getPrioritizedGroups(),
+                "sortPlugins=" + pluginParameters.sortPlugins.getChildElementNames()
+                        + pluginParameters.sortPlugins.getPrioritizedGroups(),
+                "sortProperties=" + pluginParameters.sortProperties,
+                "sortModules=" + pluginParameters.sortModules,
+                "ignoreLineSeparators=" + ignoreLineSeparators,
+                "sortOrder=" + wrapperFactory.getSortOrderDigest());
+    }
+
+    private static String readVersion() {
+        try (InputStream inputStream = SortEngine.class.getResourceAsStream("version.properties")) {
+            if (inputStream == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(inputStream);
+            String version = properties.getProperty("version");
+            // An unfiltered resource does not contain a version
+            return version == null || version.startsWith("${") ? null : version;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** The encoding is checked when the first pom file is read, not when the engine is built */
+    Charset getCharset() {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            throw new FailureException("Could not handle encoding: " + encoding, ex);
+        }
+    }
+
+    PluginParameters getPluginParameters() {
+        return pluginParameters;
+    }
+
+    WrapperFactoryImpl getWrapperFactory() {
+        return wrapperFactory;
+    }
+
+    XmlOutputGenerator getXmlOutputGenerator() {
+        return xmlOutputGenerator;
+    }
+
+    EncodingDigestWriter getEncodingDigestWriter() {
+        return encodingDigestWriter.get();
+    }
+
+    EncodingDigestWriter getComparisonDigestWriter() {
+        return comparisonDigestWriter.get();
+    }
+
+    boolean isCreateBackupFile() {
+        return createBackupFile;
+    }
+
+    String getBackupFileExtension() {
+        return backupFileExtension;
+    }
+
+    VerifyFailType getVerifyFailType() {
+        return verifyFailType;
+    }
+
+    boolean isVerifyAllViolations() {
+        return verifyAllViolations;
+    }
+
+    boolean isIgnoreLineSeparators() {
+        return ignoreLineSeparators;
+    }
+
+    String getViolationFilename() {
+        return violationFilename;
+    }
+
+    String getStatisticsFilename() {
+        return statisticsFilename;
+    }
+}
@@ -0,0 +1,163 @@
+package sortpom;
+
+import sortpom.exception.FailureException;
+import sortpom.logger.BufferedLogger;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParameters;
+import sortpom.parameter.VerifyFailType;
+import sortpom.util.XmlOrderedResult;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Sorts or verifies several pom files in parallel on a work-stealing pool. Every pom file gets its own SortSession,
+ * pom files with the same parameters share one SortEngine and the compiled sort order is shared through the
+ * sort order cache. The first pom file is processed before the others, so that the sort order is compiled once
+ * before the parallel processing starts.
+ * <p>
+ * The log messages for each pom file are kept until the file is processed and then logged in the same order as
+ * the pom files were given.
+ */
+public class SortPomBatch {
+    private final SortPomLogger log;
+    private final int parallelism;
+    private final boolean verify;
+
+    /**
+     * @param log         receives the log messages of all pom files
+     * @param parallelism the number of pom files to process at the same time, 0 means one per available processor
+     * @param verify      verify the pom files instead of sorting them
+     */
+    public SortPomBatch(SortPomLogger log, int parallelism, boolean verify) {
+        if (parallelism < 0) {
+            throw new FailureException("The number of threads cannot be negative, was " + parallelism);
+        }
+        this.log = log;
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.verify = verify;
+    }
+
+    /**
+     * Sorts or verifies all pom files. One SortEngine is created for each group of pom files whose parameters
+     * only differ in the pom file, which usually means one engine for a whole reactor.
+     *
+     * @param pomFileParameters the parameters for each pom file
+     * @return the outcome for all pom files
+     */
+    public SortPomBatchResult execute(List<PluginParameters> pomFileParameters) {
+        return execute(pomFileParameters, SortEngine::new);
+    }
+
+    SortPomBatchResult execute(List<PluginParameters> pomFileParameters, Function<PluginParameters, SortEngine> engineFactory) {
+        Map<List<Object>, SortEngine> sortEngines = new HashMap<>();
+        List<Function<SortPomLogger, SortSession>> sessionCreators = new ArrayList<>();
+        pomFileParameters.forEach(parameters -> {
+            SortEngine sortEngine = sortEngines.computeIfAbsent(parameters.getSortEngineKey(),
+                    key -> engineFactory.apply(parameters));
+            sessionCreators.add(sessionLog -> sortEngine.createSession(sessionLog, parameters.pomFile));
+        });
+        return executeSessions(sessionCreators);
+    }
+
+    /**
+     * Sorts or verifies all pom files with the same engine.
+     *
+     * @param sortEngine the engine that all pom files are sorted with
+     * @param pomFiles   the pom files
+     * @return the outcome for all pom files
+     */
+    public SortPomBatchResult execute(SortEngine sortEngine, List<File> pomFiles) {
+        List<Function<SortPomLogger, SortSession>> sessionCreators = new ArrayList<>();
+        pomFiles.forEach(pomFile -> sessionCreators.add(sessionLog -> sortEngine.createSession(sessionLog, pomFile)));
+        return executeSessions(sessionCreators);
+    }
+
+    private SortPomBatchResult executeSessions(List<Function<SortPomLogger, SortSession>> sessionCreators) {
+        long start = System.currentTimeMillis();
+        SortPomBatchResult result = new SortPomBatchResult();
+        if (!sessionCreators.isEmpty()) {
+            process(sessionCreators.get(0)).addTo(result, log);
+            processInParallel(sessionCreators.subList(1, sessionCreators.size()), result);
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private void processInParallel(List<Function<SortPomLogger, SortSession>> sessionCreators, SortPomBatchResult result) {
+        if (sessionCreators.isEmpty()) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<PomFileOutcome>> tasks = new ArrayList<>();
+            sessionCreators.forEach(sessionCreator -> tasks.add(pool.submit(() -> process(sessionCreator))));
+            tasks.forEach(task -> task.join().addTo(result, log));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private PomFileOutcome process(Function<SortPomLogger, SortSession> sessionCreator) {
+        BufferedLogger bufferedLogger = new BufferedLogger(log.isDebugEnabled());
+        SortSession sortSession = sessionCreator.apply(bufferedLogger);
+        File pomFile = sortSession.getPomFile();
+        try {
+            if (verify) {
+                XmlOrderedResult xmlOrderedResult = sortSession.verifyPom();
+                if (xmlOrderedResult.isOrdered()) {
+                    return new PomFileOutcome(pomFile, Status.ALREADY_SORTED, bufferedLogger, null);
+                }
+                Status status = sortSession.getVerifyFailType() == VerifyFailType.SORT ? Status.SORTED : Status.NOT_SORTED;
+                return new PomFileOutcome(pomFile, status, bufferedLogger, null);
+            }
+            Status status = sortSession.sortPom() ? Status.SORTED : Status.ALREADY_SORTED;
+            return new PomFileOutcome(pomFile, status, bufferedLogger, null);
+        } catch (FailureException fex) {
+            return new PomFileOutcome(pomFile, Status.FAILED, bufferedLogger, fex.getMessage());
+        }
+    }
+
+    private enum Status {
+        SORTED, ALREADY_SORTED, NOT_SORTED, FAILED
+    }
+
+    private static class PomFileOutcome {
+        private final File pomFile;
+        private final Status status;
+        private final BufferedLogger bufferedLogger;
+        private final String failureMessage;
+
+        PomFileOutcome(File pomFile, Status status, BufferedLogger bufferedLogger, String failureMessage) {
+            this.pomFile = pomFile;
+            this.status = status;
+            this.bufferedLogger = bufferedLogger;
+            this.failureMessage = failureMessage;
+        }
+
+        void addTo(SortPomBatchResult result, SortPomLogger log) {
+            bufferedLogger.replayTo(log);
+            switch (status) {
+                case SORTED:
+                    result.addSorted(pomFile);
+                    break;
+                case ALREADY_SORTED:
+                    result.addAlreadySorted(pomFile);
+                    break;
+                case NOT_SORTED:
+                    result.addNotSorted(pomFile);
+                    break;
+                case FAILED:
+                    log.error(failureMessage);
+                    result.addFailure(failureMessage);
+                    break;
+            }
+        }
+    }
+}
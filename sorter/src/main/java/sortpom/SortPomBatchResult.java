@@ -0,0 +1,68 @@
+package sortpom;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of sorting or verifying several pom files with SortPomBatch
+ */
+public final class SortPomBatchResult {
+    private final List<File> sortedFiles = new ArrayList<>();
+    private final List<File> alreadySortedFiles = new ArrayList<>();
+    private final List<File> notSortedFiles = new ArrayList<>();
+    private final List<String> failureMessages = new ArrayList<>();
+    private long elapsedMillis;
+
+    void addSorted(File pomFile) {
+        sortedFiles.add(pomFile);
+    }
+
+    void addAlreadySorted(File pomFile) {
+        alreadySortedFiles.add(pomFile);
+    }
+
+    void addNotSorted(File pomFile) {
+        notSortedFiles.add(pomFile);
+    }
+
+    void addFailure(String failureMessage) {
+        failureMessages.add(failureMessage);
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** Pom files that were changed by the sort */
+    public List<File> getSortedFiles() {
+        return Collections.unmodifiableList(sortedFiles);
+    }
+
+    /** Pom files that were sorted from the start */
+    public List<File> getAlreadySortedFiles() {
+        return Collections.unmodifiableList(alreadySortedFiles);
+    }
+
+    /** Pom files that failed the verification but were not changed, i.e. when verifyFail is set to warn */
+    public List<File> getNotSortedFiles() {
+        return Collections.unmodifiableList(notSortedFiles);
+    }
+
+    /** The error messages for pom files that could not be sorted or that stopped the verification */
+    public List<String> getFailureMessages() {
+        return Collections.unmodifiableList(failureMessages);
+    }
+
+    public int getNrOfFiles() {
+        return sortedFiles.size() + alreadySortedFiles.size() + notSortedFiles.size() + failureMessages.size();
+    }
+
+    /** One line that summarizes the outcome for all pom files */
+    public String getSummary() {
+        return String.format("Processed %d pom files in %.1f s: %d sorted, %d already sorted, %d not sorted, %d failed",
+                getNrOfFiles(), elapsedMillis / 1000.0, sortedFiles.size(), alreadySortedFiles.size(),
+                notSortedFiles.size(), failureMessages.size());
+    }
+}
@@ -0,0 +1,563 @@
+package sortpom;
+
+import org.apache.commons.io.IOUtils;
+import org.jdom.Document;
+import org.jdom.JDOMException;
+import sortpom.cache.SortResultCache;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParameters;
+import sortpom.parameter.VerifyFailType;
+import sortpom.processinstruction.XmlProcessingInstructionParser;
+import sortpom.statistics.SortStatistics;
+import sortpom.statistics.SortStatistics.Phase;
+import sortpom.util.CharsetUtil;
+import sortpom.util.CheckedConsumer;
+import sortpom.util.EncodingDigestWriter;
+import sortpom.util.FileUtil;
+import sortpom.util.LineSeparatorWriter;
+import sortpom.util.XmlOrderedResult;
+import sortpom.verify.OrderViolations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sorts or verifies one pom file with a SortEngine. The session holds everything that belongs to the pom file,
+ * such as the parsed document and the ignored sections, and must only be used by one thread. The time of each
+ * phase is recorded in SortStatistics, which are logged on debug level when the pom file is sorted or verified.
+ */
+public class SortSession {
+    private static final String TEXT_FILE_NOT_SORTED = "The file %s is not sorted";
+
+    private final SortEngine engine;
+    private final SortPomLogger log;
+    private final File pomFile;
+    private final FileUtil fileUtil;
+    private final XmlProcessor xmlProcessor;
+    private final XmlProcessingInstructionParser xmlProcessingInstructionParser;
+    private final XmlOutputGenerator xmlOutputGenerator;
+    private final SortStatistics statistics;
+    private Charset charset;
+    /** The pom file content that verify found unsorted, the xml processor then holds the sorted document */
+    private byte[] unsortedXml;
+
+    SortSession(SortEngine engine, SortPomLogger log, File pomFile) {
+        this.engine = engine;
+        this.log = log;
+        this.pomFile = pomFile;
+        fileUtil = new FileUtil();
+        fileUtil.setup(engine.getPluginParameters(), pomFile);
+        statistics = SortStatistics.create(log.isDebugEnabled() || engine.getStatisticsFilename() != null);
+        xmlProcessor = new XmlProcessor(engine.getWrapperFactory(), statistics);
+        xmlProcessingInstructionParser = new XmlProcessingInstructionParser();
+        xmlProcessingInstructionParser.setup(log);
+        xmlOutputGenerator = engine.getXmlOutputGenerator();
+    }
+
+    public File getPomFile() {
+        return pomFile;
+    }
+
+    /** Where the time was spent, for everything that the session has done so far */
+    public SortStatistics getStatistics() {
+        return statistics;
+    }
+
+    /** What verifyPom does with pom files that are not sorted */
+    VerifyFailType getVerifyFailType() {
+        return engine.getVerifyFailType();
+    }
+
+    /**
+     * Sorts the pom file.
+     *
+     * @return true if the pom file was changed, false if it was already sorted
+     */
+    public boolean sortPom() {
+        boolean sorted = sortPomFile();
+        reportStatistics(sorted);
+        return sorted;
+    }
+
+    private boolean sortPomFile() {
+        log.info("Sorting file " + pomFile.getAbsolutePath());
+
+        byte[] originalXml = readPomFile();
+        SortResultCache cache = engine.getSortResultCache();
+        byte[] originalDigest = cache == null ? null : SortResultCache.digest(originalXml);
+        if (cache != null) {
+            byte[] cachedXml = cache.getSortResult(originalDigest);
+            if (cachedXml != null) {
+                return saveCachedSortResult(cachedXml);
+            }
+        }
+
+        CheckedConsumer<Writer, IOException> sortedXml = sortXml(originalXml,
+                () -> "Could not sort " + pomFile.getAbsolutePath() + " content: ");
+        EncodedXml encodedSortedXml = encodeSortedXml(sortedXml);
+        if (pomFileIsSorted(originalXml, encodedSortedXml)) {
+            if (cache != null) {
+                cache.putAlreadySorted(originalDigest);
+            }
+            log.info("Pom file is already sorted, exiting");
+            return false;
+        }
+        createBackupFile();
+        saveSortedPomFile(encodedSortedXml.content);
+        if (cache != null) {
+            cache.putSortResult(originalDigest, channel -> writeFully(encodedSortedXml.content, channel));
+            cache.putAlreadySorted(encodedSortedXml.digest);
+        }
+        return true;
+    }
+
+    /**
+     * Saves the document that verify has already sorted, so that the pom file is not read, parsed and sorted
+     * again. Verify found the elements out of order, so the pom file cannot already be sorted.
+     */
+    private void sortVerifiedPomFile() {
+        log.info("Sorting file " + pomFile.getAbsolutePath());
+
+        byte[] originalXml = unsortedXml;
+        unsortedXml = null;
+        SortResultCache cache = engine.getSortResultCache();
+        saveSortedPomFile(cache == null ? null : SortResultCache.digest(originalXml), getSortedXml());
+    }
+
+    /** The sorted xml is streamed to the pom file, and the saved pom file is copied into the cache entry */
+    private void saveSortedPomFile(byte[] originalDigest, CheckedConsumer<Writer, IOException> sortedXml) {
+        createBackupFile();
+        byte[] sortedDigest = saveSortedPomFile(sortedXml);
+        SortResultCache cache = engine.getSortResultCache();
+        if (cache != null) {
+            cache.putSortResult(originalDigest, channel -> {
+                try (FileChannel pomFileChannel = FileChannel.open(pomFile.toPath(), StandardOpenOption.READ)) {
+                    long size = pomFileChannel.size();
+                    long position = 0;
+                    while (position < size) {
+                        long transferred = pomFileChannel.transferTo(position, size - position, channel);
+                        if (transferred <= 0) {
+                            throw new IOException("Could not copy " + pomFile.getAbsolutePath());
+                        }
+                        position += transferred;
+                    }
+                }
+            });
+            cache.putAlreadySorted(sortedDigest);
+        }
+    }
+
+    private byte[] readPomFile() {
+        SortStatistics.Timer timer = statistics.start(Phase.READ);
+        byte[] originalXml = fileUtil.getPomFileBytes();
+        timer.stop();
+        return originalXml;
+    }
+
+    /** An empty cache entry means that the pom file is already sorted */
+    private boolean saveCachedSortResult(byte[] cachedXml) {
+        if (cachedXml.length == 0) {
+            log.info("Pom file is already sorted, exiting");
+            return false;
+        }
+        createBackupFile();
+        saveSortedPomFile(cachedXml);
+        return true;
+    }
+
+    /**
+     * Sorts xml that is not read from a pom file and writes the encoded sorted xml to the stream.
+     *
+     * @param originalXml the xml that should be sorted
+     * @param out         receives the sorted xml, it is neither flushed nor closed
+     */
+    void sortXml(byte[] originalXml, OutputStream out) throws IOException {
+        CheckedConsumer<Writer, IOException> sortedXml = sortXml(originalXml, () -> "Could not sort pom content: ");
+        writeEncoded(sortedXml, Channels.newChannel(out));
+    }
+
+    /**
+     * Sorts xml that is not read from a pom file and writes the sorted xml to the writer.
+     *
+     * @param originalXml the encoded xml that should be sorted
+     * @param out         receives the sorted xml, it is neither flushed nor closed
+     */
+    void sortXml(byte[] originalXml, Writer out) throws IOException {
+        sortXml(originalXml, () -> "Could not sort pom content: ").accept(out);
+    }
+
+    /**
+     * Sorts the incoming xml.
+     *
+     * @param originalXml the xml that should be sorted.
+     * @param errorMsg    the start of the error message if the xml cannot be parsed
+     * @return writes the sorted xml to a writer, as many times as needed
+     */
+    private CheckedConsumer<Writer, IOException> sortXml(final byte[] originalXml, Supplier<String> errorMsg) {
+
+        parseXml(originalXml, errorMsg);
+        xmlProcessor.sortXmlInPlace();
+        return getSortedXml();
+    }
+
+    /**
+     * Serializes the sorted document of the xml processor, with the ignored sections of the parsed xml reverted.
+     *
+     * @return writes the sorted xml to a writer, as many times as needed
+     */
+    private CheckedConsumer<Writer, IOException> getSortedXml() {
+        Document newDocument = xmlProcessor.getNewDocument();
+
+        if (xmlProcessingInstructionParser.existsIgnoredSections()) {
+            // The ignored sections are reverted by text replacement, which needs the whole xml
+            SortStatistics.Timer serializeTimer = statistics.start(Phase.SERIALIZE);
+            String xml = xmlOutputGenerator.getSortedXml(newDocument);
+            serializeTimer.stop();
+            SortStatistics.Timer ignoredSectionsTimer = statistics.start(Phase.IGNORED_SECTIONS);
+            String sortedXml = xmlProcessingInstructionParser.revertIgnoredSections(xml);
+            ignoredSectionsTimer.stop();
+            return writer -> writer.write(sortedXml);
+        }
+        return writer -> xmlOutputGenerator.writeSortedXml(newDocument, writer);
+    }
+
+    /**
+     * Formats and encodes the sorted xml once, the encoded content is both compared to the pom file and saved.
+     * If line separators are ignored then the comparison digest is calculated at the same time, from the same
+     * formatted characters.
+     */
+    private EncodedXml encodeSortedXml(CheckedConsumer<Writer, IOException> sortedXml) {
+        SortStatistics.Timer timer = statistics.start(Phase.SERIALIZE);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        EncodingDigestWriter contentWriter = getEncodingDigestWriter();
+        try {
+            contentWriter.start(Channels.newChannel(content), false);
+            if (!engine.isIgnoreLineSeparators()) {
+                sortedXml.accept(contentWriter);
+                byte[] digest = contentWriter.finish();
+                return new EncodedXml(content.toByteArray(), digest, digest);
+            }
+            EncodingDigestWriter comparisonWriter = engine.getComparisonDigestWriter();
+            comparisonWriter.start(null, true);
+            sortedXml.accept(new TeeWriter(contentWriter, comparisonWriter));
+            byte[] digest = contentWriter.finish();
+            return new EncodedXml(content.toByteArray(), digest, comparisonWriter.finish());
+        } catch (IOException ioex) {
+            throw new FailureException("Could not format pom files content", ioex);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Compares the digests of the encoded xml instead of the xml itself. The original xml is decoded in chunks
+     * and encoded again if line separators are ignored or if the original xml was not parsed as it is.
+     */
+    private boolean pomFileIsSorted(byte[] xml, EncodedXml sortedXml) {
+        SortStatistics.Timer timer = statistics.start(Phase.COMPARE);
+        byte[] originalDigest = engine.isIgnoreLineSeparators() || !CharsetUtil.isAsciiCompatible(charset)
+                ? calculateDigest(writer -> IOUtils.copy(new InputStreamReader(new ByteArrayInputStream(xml), charset), writer))
+                : getEncodingDigestWriter().calculateDigest(xml);
+        timer.stop();
+        return MessageDigest.isEqual(originalDigest, sortedXml.comparisonDigest);
+    }
+
+    private byte[] calculateDigest(CheckedConsumer<Writer, IOException> xml) {
+        EncodingDigestWriter writer = getEncodingDigestWriter();
+        try {
+            writer.start(null, engine.isIgnoreLineSeparators());
+            xml.accept(writer);
+            return writer.finish();
+        } catch (IOException ioex) {
+            throw new FailureException("Could not format pom files content", ioex);
+        }
+    }
+
+    private EncodingDigestWriter getEncodingDigestWriter() {
+        return engine.getEncodingDigestWriter();
+    }
+
+    /**
+     * Creates the backup file for pom.
+     */
+    private void createBackupFile() {
+        if (engine.isCreateBackupFile()) {
+            String backupFileExtension = engine.getBackupFileExtension();
+            if (backupFileExtension.trim().length() == 0) {
+                throw new FailureException("Could not create backup file, extension name was empty");
+            }
+            SortStatistics.Timer timer = statistics.start(Phase.BACKUP);
+            fileUtil.backupFile();
+            timer.stop();
+            log.info(String.format("Saved backup of %s to %s%s", pomFile.getAbsolutePath(),
+                    pomFile.getAbsolutePath(), backupFileExtension));
+        }
+    }
+
+    /**
+     * Saves the sorted pom file.
+     *
+     * @param sortedXml writes the sorted xml
+     * @return the digest of the saved pom file content
+     */
+    private byte[] saveSortedPomFile(final CheckedConsumer<Writer, IOException> sortedXml) {
+        byte[][] sortedDigest = new byte[1][];
+        SortStatistics.Timer timer = statistics.start(Phase.WRITE);
+        fileUtil.savePomFile(channel -> sortedDigest[0] = writeEncoded(sortedXml, channel));
+        timer.stop();
+        log.info("Saved sorted pom file to " + pomFile.getAbsolutePath());
+        return sortedDigest[0];
+    }
+
+    /** Saves content that is already encoded */
+    private void saveSortedPomFile(byte[] encodedXml) {
+        SortStatistics.Timer timer = statistics.start(Phase.WRITE);
+        fileUtil.savePomFile(channel -> writeFully(encodedXml, channel));
+        timer.stop();
+        log.info("Saved sorted pom file to " + pomFile.getAbsolutePath());
+    }
+
+    private static void writeFully(byte[] encodedXml, WritableByteChannel channel) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(encodedXml);
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+    }
+
+    private byte[] writeEncoded(CheckedConsumer<Writer, IOException> sortedXml, WritableByteChannel channel) throws IOException {
+        EncodingDigestWriter writer = getEncodingDigestWriter();
+        writer.start(channel, false);
+        sortedXml.accept(writer);
+        return writer.finish();
+    }
+
+    /**
+     * Verify that the pom-file is sorted regardless of formatting
+     *
+     * @return the result of the verification, before the pom file is sorted if verifyFail is set to sort
+     */
+    public XmlOrderedResult verifyPom() {
+        XmlOrderedResult xmlOrderedResult = verifyPomFile();
+        reportStatistics(!xmlOrderedResult.isOrdered() && engine.getVerifyFailType() == VerifyFailType.SORT);
+        return xmlOrderedResult;
+    }
+
+    private XmlOrderedResult verifyPomFile() {
+        String pomFileName = pomFile.getAbsolutePath();
+        log.info("Verifying file " + pomFileName);
+
+        XmlOrderedResult xmlOrderedResult = isPomElementsSorted();
+        if (!xmlOrderedResult.isOrdered()) {
+            switch (engine.getVerifyFailType()) {
+                case WARN:
+                    log.warn(xmlOrderedResult.getErrorMessage());
+                    logViolations(xmlOrderedResult, log::warn);
+                    saveViolationFile(xmlOrderedResult);
+                    log.warn(String.format(TEXT_FILE_NOT_SORTED, pomFileName));
+                    break;
+                case SORT:
+                    log.info(xmlOrderedResult.getErrorMessage());
+                    logViolations(xmlOrderedResult, log::info);
+                    saveViolationFile(xmlOrderedResult);
+                    log.info(String.format(TEXT_FILE_NOT_SORTED, pomFileName));
+                    sortVerifiedPomFile();
+                    break;
+                case STOP:
+                    log.error(xmlOrderedResult.getErrorMessage());
+                    logViolations(xmlOrderedResult, log::error);
+                    saveViolationFile(xmlOrderedResult);
+                    log.error(String.format(TEXT_FILE_NOT_SORTED, pomFileName));
+                    throw new FailureException(String.format(TEXT_FILE_NOT_SORTED, pomFileName));
+            }
+        }
+        return xmlOrderedResult;
+    }
+
+    private void reportStatistics(boolean sorted) {
+        statistics.finish(pomFile.getAbsolutePath(), sorted);
+        if (log.isDebugEnabled()) {
+            log.debug(statistics.toString());
+        }
+        String statisticsFilename = engine.getStatisticsFilename();
+        if (statisticsFilename != null) {
+            log.info("Saving sort statistics to " + new File(statisticsFilename).getAbsolutePath());
+            fileUtil.saveStatisticsFile(statistics.toJson());
+        }
+    }
+
+    /** Every element that is out of order, if all violations were collected */
+    private void logViolations(XmlOrderedResult xmlOrderedResult, Consumer<String> logMethod) {
+        OrderViolations violations = xmlOrderedResult.getViolations();
+        for (int i = 0; i < violations.size(); i++) {
+            logMethod.accept(violations.getMessage(i));
+        }
+    }
+
+    private void saveViolationFile(XmlOrderedResult xmlOrderedResult) {
+        String violationFilename = engine.getViolationFilename();
+        if (violationFilename != null) {
+            log.info("Saving violation report to " + new File(violationFilename).getAbsolutePath());
+            ViolationXmlProcessor violationXmlProcessor = new ViolationXmlProcessor();
+            OrderViolations violations = xmlOrderedResult.getViolations();
+            if (!violations.isEmpty()) {
+                // All violations are written one by one, so that a large report is never kept in memory
+                PluginParameters pluginParameters = engine.getPluginParameters();
+                fileUtil.saveViolationFile(writer -> {
+                    try (LineSeparatorWriter lineSeparatorWriter = new LineSeparatorWriter(pluginParameters.lineSeparatorUtil.toString(), writer)) {
+                        violationXmlProcessor.writeViolationXml(pomFile, violations,
+                                pluginParameters.encoding, pluginParameters.indentCharacters, lineSeparatorWriter);
+                    }
+                });
+                return;
+            }
+            Document document = violationXmlProcessor.createViolationXmlContent(pomFile, xmlOrderedResult.getErrorMessage());
+            String violationXmlString = xmlOutputGenerator.getSortedXml(document);
+            fileUtil.saveViolationFile(violationXmlString);
+        }
+    }
+
+    /**
+     * Verifies the pom file regardless of formatting. Only sorted pom files are cached, so that pom files that are
+     * not sorted are always reported with the current error message.
+     *
+     * @return the result of the verification
+     */
+    public XmlOrderedResult isPomElementsSorted() {
+        byte[] originalXml = readPomFile();
+        SortResultCache cache = engine.getSortResultCache();
+        byte[] originalDigest = cache == null ? null : SortResultCache.digest(originalXml);
+        if (cache != null && cache.isVerified(originalDigest)) {
+            return XmlOrderedResult.ordered();
+        }
+        XmlOrderedResult xmlOrderedResult = isXmlElementsSorted(originalXml,
+                () -> "Could not verify " + pomFile.getAbsolutePath() + " content: ");
+        if (xmlOrderedResult.isOrdered()) {
+            if (cache != null) {
+                cache.putVerified(originalDigest);
+            }
+        } else {
+            unsortedXml = originalXml;
+        }
+        return xmlOrderedResult;
+    }
+
+    /**
+     * Verifies xml that is not read from a pom file, regardless of formatting.
+     *
+     * @param originalXml the encoded xml that should be verified
+     * @return the result of the verification
+     */
+    XmlOrderedResult isXmlElementsSorted(byte[] originalXml) {
+        return isXmlElementsSorted(originalXml, () -> "Could not verify pom content: ");
+    }
+
+    private XmlOrderedResult isXmlElementsSorted(byte[] originalXml, Supplier<String> errorMsg) {
+        parseXml(originalXml, errorMsg);
+        return xmlProcessor.verifyXml(engine.isVerifyAllViolations());
+    }
+
+    /**
+     * Parses the pom file content. The bytes are parsed as they are, the content is only decoded into a String
+     * if ignored sections must be replaced.
+     */
+    private void parseXml(byte[] originalXml, Supplier<String> errorMsg) {
+        charset = engine.getCharset();
+        SortStatistics.Timer scanTimer = statistics.start(Phase.PI_SCAN);
+        xmlProcessingInstructionParser.scanForIgnoredSections(originalXml, charset);
+        scanTimer.stop();
+        if (isAsciiCompatibleWithoutIgnoredSections()) {
+            insertXmlInXmlProcessor(originalXml, () -> errorMsg.get() + new String(originalXml, charset));
+        } else {
+            // Other encodings are decoded and encoded again, which for instance removes byte order marks
+            SortStatistics.Timer replaceTimer = statistics.start(Phase.IGNORED_SECTIONS);
+            String xml = xmlProcessingInstructionParser.replaceIgnoredSections();
+            byte[] encodedXml = xml.getBytes(charset);
+            replaceTimer.stop();
+            insertXmlInXmlProcessor(encodedXml, () -> errorMsg.get() + xml);
+        }
+    }
+
+    private boolean isAsciiCompatibleWithoutIgnoredSections() {
+        return CharsetUtil.isAsciiCompatible(charset) && !xmlProcessingInstructionParser.existsIgnoredSections();
+    }
+
+    private void insertXmlInXmlProcessor(byte[] xml, Supplier<String> errorMsg) {
+        SortStatistics.Timer timer = statistics.start(Phase.PARSE);
+        try (ByteArrayInputStream originalXmlInputStream = new ByteArrayInputStream(xml)) {
+            xmlProcessor.setOriginalXml(originalXmlInputStream);
+        } catch (JDOMException | IOException e) {
+            throw new FailureException(errorMsg.get(), e);
+        }
+        timer.stop();
+    }
+
+
+    /** The encoded sorted xml, with the digest of the content and the digest that is compared to the pom file */
+    private static final class EncodedXml {
+        private final byte[] content;
+        private final byte[] digest;
+        private final byte[] comparisonDigest;
+
+        private EncodedXml(byte[] content, byte[] digest, byte[] comparisonDigest) {
+            this.content = content;
+            this.digest = digest;
+            this.comparisonDigest = comparisonDigest;
+        }
+    }
+
+    /** Writes the same characters to two writers */
+    private static final class TeeWriter extends Writer {
+        private final Writer first;
+        private final Writer second;
+
+        private TeeWriter(Writer first, Writer second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            first.write(str, off, len);
+            second.write(str, off, len);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            first.write(cbuf, off, len);
+            second.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            first.write(c);
+            second.write(c);
+        }
+
+        /** The digest writers are finished by their owner */
+        @Override
+        public void flush() {
+            // Nope, no manual flushing
+        }
+
+        @Override
+        public void close() {
+            // The digest writers are reused
+        }
+    }
+
+}
@@ -2,8 +2,13 @@ package sortpom;
 
 import org.jdom.Document;
 import org.jdom.Element;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+import sortpom.verify.OrderViolations;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Used to store an external violation file
@@ -25,4 +30,31 @@ class ViolationXmlProcessor {
 
         return new Document(rootElement);
     }
+
+    /**
+     * Writes a violation report with every element that is out of order, one violation at a time. The report
+     * looks like the one from createViolationXmlContent, with one violation element per element that is out of
+     * order. The xpath and the positions of the element are attributes of the violation element.
+     *
+     * @param pomFileLocation the pom file that was verified
+     * @param violations      the elements that are out of order
+     * @param encoding        the encoding that the writer uses
+     * @param indent          the characters of one indentation level
+     * @param writer          receives the report, with newline as line separator
+     */
+    void writeViolationXml(File pomFileLocation, OrderViolations violations, String encoding, String indent,
+                           Writer writer) throws IOException {
+        XMLOutputter escaper = new XMLOutputter(Format.getRawFormat().setEncoding(encoding));
+        writer.write("<?xml version=\"1.0\" encoding=\"" + encoding + "\"?>\n");
+        writer.write("<sortpom>\n");
+        writer.write(indent + "<file filename=\"" + escaper.escapeAttributeEntities(pomFileLocation.getAbsolutePath()) + "\">\n");
+        for (int i = 0; i < violations.size(); i++) {
+            writer.write(String.format("%s%s<violation xpath=\"%s\" position=\"%d\" expectedPosition=\"%d\">%s</violation>\n",
+                    indent, indent, escaper.escapeAttributeEntities(violations.getXPath(i)),
+                    violations.getPosition(i), violations.getExpectedPosition(i),
+                    escaper.escapeElementEntities(violations.getMessage(i))));
+        }
+        writer.write(indent + "</file>\n");
+        writer.write("</sortpom>\n");
+    }
 }
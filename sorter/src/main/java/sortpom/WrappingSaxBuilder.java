@@ -0,0 +1,75 @@
+package sortpom;
+
+import org.jdom.Content;
+import org.jdom.DefaultJDOMFactory;
+import org.jdom.Element;
+import org.jdom.Parent;
+import org.jdom.Text;
+import org.jdom.input.SAXBuilder;
+import org.jdom.input.SAXHandler;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import sortpom.wrapper.operation.HierarchyWrapperBuilder;
+
+/**
+ * Parses xml and builds the wrapper hierarchy of the xml at the same time, so that the parsed xml does not have
+ * to be traversed once more to wrap it. Text that would be thrown away when the xml is sorted, such as the
+ * newline and indentation between elements, is never added to the parsed xml.
+ */
+class WrappingSaxBuilder extends SAXBuilder {
+    /** Stands for text that is not created, it is never added to the parsed xml */
+    private static final Text DISCARDED_TEXT = new Text("");
+
+    private final HierarchyWrapperBuilder wrapperBuilder;
+
+    /** @param wrapperBuilder receives the parsed xml, only one xml document can be parsed with it */
+    WrappingSaxBuilder(HierarchyWrapperBuilder wrapperBuilder) {
+        this.wrapperBuilder = wrapperBuilder;
+        setFactory(new WrappingFactory());
+    }
+
+    @Override
+    protected SAXHandler createContentHandler() {
+        return new WrappingHandler();
+    }
+
+    /** Reports each element to the wrapper builder when it starts and when it ends */
+    private class WrappingHandler extends SAXHandler {
+        private WrappingHandler() {
+            super(WrappingSaxBuilder.this.getFactory());
+        }
+
+        @Override
+        public void startElement(String namespaceURI, String localName, String qName, Attributes atts) throws SAXException {
+            super.startElement(namespaceURI, localName, qName, atts);
+            wrapperBuilder.startElement(getCurrentElement());
+        }
+
+        @Override
+        public void endElement(String namespaceURI, String localName, String qName) throws SAXException {
+            // The text at the end of the element belongs to the element
+            flushCharacters();
+            wrapperBuilder.endElement(getCurrentElement());
+            super.endElement(namespaceURI, localName, qName);
+        }
+    }
+
+    /** Reports all content except elements to the wrapper builder when it is added to an element */
+    private class WrappingFactory extends DefaultJDOMFactory {
+        @Override
+        public Text text(String text) {
+            return wrapperBuilder.isDiscardedText(text) ? DISCARDED_TEXT : super.text(text);
+        }
+
+        @Override
+        public void addContent(Parent parent, Content child) {
+            if (child == DISCARDED_TEXT) {
+                return;
+            }
+            if (parent instanceof Element && !(child instanceof Element) && !wrapperBuilder.addContent(child)) {
+                return;
+            }
+            super.addContent(parent, child);
+        }
+    }
+}
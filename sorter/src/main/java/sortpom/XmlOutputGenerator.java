@@ -8,6 +8,7 @@ import sortpom.exception.FailureException;
 import sortpom.jdomcontent.NewlineText;
 import sortpom.parameter.LineSeparatorUtil;
 import sortpom.parameter.PluginParameters;
+import sortpom.util.LineSeparatorWriter;
 import sortpom.util.StringLineSeparatorWriter;
 
 import java.io.IOException;
@@ -40,7 +41,7 @@ public class XmlOutputGenerator {
     public String getSortedXml(Document newDocument) {
         try (StringLineSeparatorWriter writer = new StringLineSeparatorWriter(lineSeparatorUtil.toString())) {
 
-            XMLOutputter xmlOutputter = new PatchedXMLOutputter(writer, indentBlankLines);
+            XMLOutputter xmlOutputter = new PatchedXMLOutputter(writer::clearLineBuffer, indentBlankLines);
             xmlOutputter.setFormat(createPrettyFormat());
             xmlOutputter.output(newDocument, writer);
 
@@ -50,6 +51,22 @@ public class XmlOutputGenerator {
         }
     }
 
+    /**
+     * Writes the sorted xml line by line to a writer, so that the whole xml never has to be kept in memory.
+     * The content is the same as from getSortedXml.
+     *
+     * @param newDocument the sorted document
+     * @param out         receives the sorted xml, it is neither flushed nor closed
+     */
+    public void writeSortedXml(Document newDocument, Writer out) throws IOException {
+        try (LineSeparatorWriter writer = new LineSeparatorWriter(lineSeparatorUtil.toString(), out)) {
+
+            XMLOutputter xmlOutputter = new PatchedXMLOutputter(writer::clearLineBuffer, indentBlankLines);
+            xmlOutputter.setFormat(createPrettyFormat());
+            xmlOutputter.output(newDocument, writer);
+        }
+    }
+
     private Format createPrettyFormat() {
         final Format prettyFormat = Format.getPrettyFormat();
         prettyFormat.setExpandEmptyElements(expandEmptyElements);
@@ -60,11 +77,11 @@ public class XmlOutputGenerator {
     }
 
     private static class PatchedXMLOutputter extends XMLOutputter {
-        private final StringLineSeparatorWriter stringLineSeparatorWriter;
+        private final Runnable clearLineBuffer;
         private final boolean indentBlankLines;
 
-        PatchedXMLOutputter(StringLineSeparatorWriter stringLineSeparatorWriter, boolean indentBlankLines) {
-            this.stringLineSeparatorWriter = stringLineSeparatorWriter;
+        PatchedXMLOutputter(Runnable clearLineBuffer, boolean indentBlankLines) {
+            this.clearLineBuffer = clearLineBuffer;
             this.indentBlankLines = indentBlankLines;
             XMLOutputter.preserveFormat.setLineSeparator("\n");
         }
@@ -86,7 +103,7 @@ public class XmlOutputGenerator {
             stringWriter.flush();
 
             // Remove all inset that has just been written since last newline
-            stringLineSeparatorWriter.clearLineBuffer();
+            clearLineBuffer.run();
         }
     }
 }
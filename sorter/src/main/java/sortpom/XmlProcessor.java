@@ -1,12 +1,17 @@
 package sortpom;
 
+import org.jdom.Content;
 import org.jdom.Document;
 import org.jdom.Element;
 import org.jdom.JDOMException;
 import org.jdom.input.SAXBuilder;
+import sortpom.statistics.SortStatistics;
 import sortpom.util.XmlOrderedResult;
 import sortpom.verify.ElementComparator;
+import sortpom.verify.ElementSignature;
 import sortpom.wrapper.operation.HierarchyRootWrapper;
+import sortpom.wrapper.operation.HierarchyWrapperBuilder;
+import sortpom.wrapper.operation.StructureOrder;
 import sortpom.wrapper.operation.WrapperFactory;
 
 import java.io.IOException;
@@ -19,41 +24,171 @@ import java.io.InputStream;
  */
 public class XmlProcessor {
     private final WrapperFactory factory;
+    private final SortStatistics statistics;
 
     private Document originalDocument;
+    /** The wrapped structure of the original document, built while it was parsed and used once */
+    private HierarchyRootWrapper originalRootWrapper;
     private Document newDocument;
+    private ElementSignature originalSignature;
 
     public XmlProcessor(WrapperFactory factory) {
+        this(factory, SortStatistics.disabled());
+    }
+
+    /**
+     * @param factory    creates the wrappers that sort the xml
+     * @param statistics receives the time of the wrap and sort phases and the counters of the sorted structure
+     */
+    public XmlProcessor(WrapperFactory factory, SortStatistics statistics) {
         this.factory = factory;
+        this.statistics = statistics;
     }
 
     /**
      * Sets the original xml that should be sorted. Builds a dom document of the
-     * xml.
+     * xml, and the wrapped structure of the document at the same time.
      *
      * @param originalXml the new original xml
      * @throws org.jdom.JDOMException the jDOM exception
      * @throws java.io.IOException    Signals that an I/O exception has occurred.
      */
     public void setOriginalXml(final InputStream originalXml) throws JDOMException, IOException {
-        SAXBuilder parser = new SAXBuilder();
+        HierarchyWrapperBuilder wrapperBuilder = new HierarchyWrapperBuilder(factory);
+        SAXBuilder parser = new WrappingSaxBuilder(wrapperBuilder);
         originalDocument = parser.build(originalXml);
+        originalRootWrapper = wrapperBuilder.getRootWrapper();
+        originalSignature = null;
     }
 
-    /** Creates a new dom document that contains the sorted xml. */
+    /** Creates a new dom document that contains the sorted xml. The original document is not modified. */
     public void sortXml() {
-        newDocument = (Document) originalDocument.clone();
         final Element rootElement = (Element) originalDocument.getRootElement().clone();
 
-        HierarchyRootWrapper rootWrapper = factory.createFromRootElement(rootElement);
+        Element sortedRootElement = sortRootElement(rootElement);
+
+        newDocument = cloneDocumentWithRootElement(sortedRootElement);
+    }
+
+    /**
+     * Records the parts of the original xml that isXmlOrdered compares, so that the original document can be
+     * sorted in place.
+     */
+    public void recordOriginalSignature() {
+        originalSignature = ElementSignature.record(originalDocument.getRootElement());
+    }
+
+    /**
+     * Sorts the original document in place, which avoids keeping a copy of the whole document in memory. After
+     * this the original document is the new document and isXmlOrdered can only be used if the original
+     * signature was recorded before sorting.
+     */
+    public void sortXmlInPlace() {
+        sortInPlace(wrap(originalDocument.getRootElement()));
+    }
+
+    /**
+     * Verifies that the original xml is sorted without creating a sorted document. The wrapped original structure
+     * is checked level by level, and the check stops at the first element that is out of order. Only then is the
+     * original document sorted in place and compared, so that the error message tells what should be changed.
+     *
+     * @return the same result as sortXml followed by isXmlOrdered
+     */
+    public XmlOrderedResult verifyXml() {
+        return verifyXml(false);
+    }
 
+    /**
+     * Verifies that the original xml is sorted without creating a sorted document, see verifyXml().
+     *
+     * @param collectAllViolations true if every element that is out of order should be found, which means that
+     *                             the whole structure is traversed
+     * @return the same result as verifyXml(), together with all violations if they were collected
+     */
+    public XmlOrderedResult verifyXml(boolean collectAllViolations) {
+        HierarchyRootWrapper rootWrapper = wrap(originalDocument.getRootElement());
+
+        SortStatistics.Timer verifyTimer = statistics.start(SortStatistics.Phase.COMPARE);
+        StructureOrder structureOrder = collectAllViolations
+                ? rootWrapper.collectOrderViolations()
+                : rootWrapper.verifyStructureOrder();
+        verifyTimer.stop();
+        statistics.addComparisons(structureOrder.getComparisonCount());
+        if (structureOrder.isOrdered()) {
+            countWrappers(rootWrapper);
+            return XmlOrderedResult.ordered();
+        }
+
+        SortStatistics.Timer recordTimer = statistics.start(SortStatistics.Phase.COMPARE);
+        recordOriginalSignature();
+        recordTimer.stop();
+        sortInPlace(rootWrapper);
+
+        SortStatistics.Timer compareTimer = statistics.start(SortStatistics.Phase.COMPARE);
+        XmlOrderedResult xmlOrderedResult = isXmlOrdered();
+        compareTimer.stop();
+        // Equal elements can be moved by the sort, the pom file is still sorted if the comparison finds no difference
+        return xmlOrderedResult.isOrdered() ? xmlOrderedResult : xmlOrderedResult.withViolations(structureOrder.getViolations());
+    }
+
+    private void sortInPlace(HierarchyRootWrapper rootWrapper) {
+        int rootIndex = originalDocument.indexOf(originalDocument.getRootElement());
+
+        Element sortedRootElement = sort(rootWrapper);
+
+        // The root element is detached from the document during sorting
+        originalDocument.addContent(rootIndex, sortedRootElement);
+        newDocument = originalDocument;
+        originalDocument = null;
+    }
+
+    private Element sortRootElement(Element rootElement) {
+        return sort(wrap(rootElement));
+    }
+
+    private HierarchyRootWrapper wrap(Element rootElement) {
+        HierarchyRootWrapper rootWrapper = originalRootWrapper;
+        originalRootWrapper = null;
+        if (rootWrapper != null && rootWrapper.getElementContent().getContent() == rootElement) {
+            // The original document was wrapped while it was parsed
+            return rootWrapper;
+        }
+        SortStatistics.Timer wrapTimer = statistics.start(SortStatistics.Phase.WRAP);
+        rootWrapper = factory.createFromRootElement(rootElement);
         rootWrapper.createWrappedStructure(factory);
-        rootWrapper.detachStructure();
-        rootWrapper.sortStructureAttributes();
-        rootWrapper.sortStructureElements();
-        rootWrapper.connectXmlStructure();
+        wrapTimer.stop();
+        return rootWrapper;
+    }
+
+    private Element sort(HierarchyRootWrapper rootWrapper) {
+        SortStatistics.Timer sortTimer = statistics.start(SortStatistics.Phase.SORT);
+        long comparisons = rootWrapper.sortStructure();
+        sortTimer.stop();
+
+        statistics.addComparisons(comparisons);
+        countWrappers(rootWrapper);
+        return rootWrapper.getElementContent().getContent();
+    }
+
+    /** The wrappers are only counted if the statistics are recorded, since counting traverses the structure */
+    private void countWrappers(HierarchyRootWrapper rootWrapper) {
+        if (statistics.isEnabled()) {
+            rootWrapper.visitWrappers(statistics::countWrapper);
+        }
+    }
 
-        newDocument.setRootElement(rootWrapper.getElementContent().getContent());
+    /** Copies everything except the root element from the original document, such as comments and doctype */
+    private Document cloneDocumentWithRootElement(Element rootElement) {
+        Document document = new Document();
+        document.setBaseURI(originalDocument.getBaseURI());
+        for (Object content : originalDocument.getContent()) {
+            if (content instanceof Element) {
+                document.addContent(rootElement);
+            } else {
+                document.addContent((Content) ((Content) content).clone());
+            }
+        }
+        return document;
     }
 
     public Document getNewDocument() {
@@ -61,7 +196,14 @@ public class XmlProcessor {
     }
 
     public XmlOrderedResult isXmlOrdered() {
-        ElementComparator elementComparator = new ElementComparator(originalDocument.getRootElement(), newDocument.getRootElement());
+        ElementComparator elementComparator;
+        if (originalSignature != null) {
+            elementComparator = new ElementComparator(originalSignature, newDocument.getRootElement());
+        } else if (originalDocument != null) {
+            elementComparator = new ElementComparator(originalDocument.getRootElement(), newDocument.getRootElement());
+        } else {
+            throw new IllegalStateException("The original xml was sorted in place without recording its signature");
+        }
         return elementComparator.isElementOrdered();
     }
 
@@ -0,0 +1,232 @@
+package sortpom.cache;
+
+import sortpom.util.CheckedConsumer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-disk cache of sort results, so that pom files that have not changed since the last build are not parsed and
+ * sorted again. An entry is found by the digest of the pom file content together with a fingerprint of everything
+ * else that affects the result (the parameters, the sort order and the sortpom version).
+ * <p>
+ * An empty entry means that the content is already sorted (or verified), otherwise the entry contains the sorted
+ * content. Entries are never changed once written. They are written to a temporary file and moved in place, so
+ * readers never see half written entries and no locks are needed, also between several Maven processes.
+ * <p>
+ * Entries that have not been used for a month are deleted, at most once a day. Cache failures never fail the
+ * sorting, the pom file is then just sorted as usual.
+ */
+public class SortResultCache {
+    /** Change this when a new sortpom version sorts or formats pom files differently */
+    static final String FORMAT_VERSION = "1";
+    static final long MAX_UNUSED_MILLIS = TimeUnit.DAYS.toMillis(30);
+    private static final long TOUCH_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long CLEANUP_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final String CLEANUP_MARKER = ".last-cleanup";
+    private static final String SORTED = "sorted";
+    private static final String VERIFIED = "verified";
+    private static final byte[] EMPTY = new byte[0];
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final byte[] fingerprint;
+    private volatile boolean cleanupChecked;
+
+    /**
+     * @param cacheDirectory where the entries are stored, the directory may be shared with other builds
+     * @param fingerprint    everything except the pom file content that affects the sort result
+     */
+    public SortResultCache(File cacheDirectory, String fingerprint) {
+        this.directory = cacheDirectory.toPath().resolve("v" + FORMAT_VERSION);
+        this.fingerprint = digest((FORMAT_VERSION + "\n" + fingerprint).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The SHA-256 digest of content, the same digest as EncodingDigestWriter computes */
+    public static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up the sort result for content
+     *
+     * @param contentDigest the digest of the pom file content
+     * @return null if the content is not in the cache, an empty array if the content is already sorted, otherwise
+     * the sorted content
+     */
+    public byte[] getSortResult(byte[] contentDigest) {
+        return read(entryPath(SORTED, contentDigest));
+    }
+
+    /** Remembers that the content is already sorted */
+    public void putAlreadySorted(byte[] contentDigest) {
+        write(entryPath(SORTED, contentDigest), channel -> {
+        });
+    }
+
+    /**
+     * Remembers the sorted content for content that is not sorted
+     *
+     * @param contentDigest the digest of the pom file content
+     * @param sortedContent writes the sorted content to the entry
+     */
+    public void putSortResult(byte[] contentDigest, CheckedConsumer<WritableByteChannel, IOException> sortedContent) {
+        write(entryPath(SORTED, contentDigest), sortedContent);
+    }
+
+    /** Returns true if the content has been verified as sorted before */
+    public boolean isVerified(byte[] contentDigest) {
+        return read(entryPath(VERIFIED, contentDigest)) != null;
+    }
+
+    /** Remembers that the content is verified as sorted */
+    public void putVerified(byte[] contentDigest) {
+        write(entryPath(VERIFIED, contentDigest), channel -> {
+        });
+    }
+
+    private Path entryPath(String kind, byte[] contentDigest) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        messageDigest.update(fingerprint);
+        messageDigest.update(kind.getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(contentDigest);
+        String name = toHex(messageDigest.digest());
+        return directory.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private byte[] read(Path entry) {
+        try {
+            byte[] content = Files.readAllBytes(entry);
+            touch(entry);
+            return content.length == 0 ? EMPTY : content;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // An unreadable entry is the same as a missing entry
+            return null;
+        }
+    }
+
+    /** The modification time tells when an entry was last used, it is updated at most once a day */
+    private void touch(Path entry) {
+        try {
+            long now = System.currentTimeMillis();
+            if (now - Files.getLastModifiedTime(entry).toMillis() > TOUCH_INTERVAL_MILLIS) {
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(now));
+            }
+        } catch (IOException e) {
+            // The entry will be evicted earlier than necessary
+        }
+    }
+
+    private void write(Path entry, CheckedConsumer<WritableByteChannel, IOException> content) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            tempFile = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                content.accept(channel);
+            }
+            moveInPlace(tempFile, entry);
+            tempFile = null;
+        } catch (IOException e) {
+            // The content will be sorted again next time
+        } finally {
+            deleteQuietly(tempFile);
+        }
+        cleanupIfDue();
+    }
+
+    private static void moveInPlace(Path tempFile, Path entry) throws IOException {
+        try {
+            Files.move(tempFile, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Only one of several concurrent builds will do the cleanup, since the marker is updated before cleaning */
+    private void cleanupIfDue() {
+        if (cleanupChecked) {
+            return;
+        }
+        cleanupChecked = true;
+        Path marker = directory.resolve(CLEANUP_MARKER);
+        long now = System.currentTimeMillis();
+        try {
+            if (Files.exists(marker)) {
+                if (now - Files.getLastModifiedTime(marker).toMillis() < CLEANUP_INTERVAL_MILLIS) {
+                    return;
+                }
+                Files.setLastModifiedTime(marker, FileTime.fromMillis(now));
+            } else {
+                Files.createFile(marker);
+            }
+            deleteUnusedEntries(now - MAX_UNUSED_MILLIS);
+        } catch (IOException e) {
+            // Cleanup is tried again in the next build
+        }
+    }
+
+    /**
+     * Deletes entries, and leftover temporary files, that have not been used since the time limit
+     *
+     * @param usedBefore entries with an older modification time are deleted
+     */
+    void deleteUnusedEntries(long usedBefore) throws IOException {
+        try (DirectoryStream<Path> subDirectories = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path subDirectory : subDirectories) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(subDirectory)) {
+                    for (Path entry : entries) {
+                        if (Files.getLastModifiedTime(entry).toMillis() < usedBefore) {
+                            deleteQuietly(entry);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Deleted by the next cleanup
+            }
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,50 @@
+package sortpom.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps all log messages until they are replayed to another logger. Used when several pom files are processed
+ * in parallel, so that the messages for one pom file are not mixed with the messages for another.
+ */
+public class BufferedLogger implements SortPomLogger {
+    private final List<Consumer<SortPomLogger>> messages = new ArrayList<>();
+    private final boolean debugEnabled;
+
+    /** @param debugEnabled if the logger that the messages are replayed to writes debug messages */
+    public BufferedLogger(boolean debugEnabled) {
+        this.debugEnabled = debugEnabled;
+    }
+
+    @Override
+    public void warn(String content) {
+        messages.add(logger -> logger.warn(content));
+    }
+
+    @Override
+    public void info(String content) {
+        messages.add(logger -> logger.info(content));
+    }
+
+    @Override
+    public void error(String content) {
+        messages.add(logger -> logger.error(content));
+    }
+
+    @Override
+    public void debug(String content) {
+        messages.add(logger -> logger.debug(content));
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    /** Sends all kept messages to the logger, in the order that they were logged */
+    public void replayTo(SortPomLogger logger) {
+        messages.forEach(message -> message.accept(logger));
+        messages.clear();
+    }
+}
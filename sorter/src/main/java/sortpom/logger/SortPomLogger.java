@@ -25,4 +25,21 @@ public interface SortPomLogger {
      * @param content error message
      */
     void error(String content);
+
+    /**
+     * Send a message to the log in the <b>debug</b> error level. Debug messages are dropped unless the logger
+     * overrides this method.
+     *
+     * @param content debug message
+     */
+    default void debug(String content) {
+    }
+
+    /**
+     * Returns true if debug messages are written somewhere, so that expensive debug messages are only created
+     * when they are needed. Must be overridden together with debug.
+     */
+    default boolean isDebugEnabled() {
+        return false;
+    }
 }
@@ -1,6 +1,8 @@
 package sortpom.parameter;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 
 /** Contains all parameters that are sent to the plugin */
 public class PluginParameters {
@@ -21,14 +23,18 @@ public class PluginParameters {
     public final boolean keepBlankLines;
     public final boolean indentBlankLines;
     public final VerifyFailType verifyFailType;
+    public final boolean verifyAllViolations;
     public final boolean ignoreLineSeparators;
     public final boolean keepTimestamp;
+    public final File cacheDirectory;
+    public final String statisticsFilename;
 
     private PluginParameters(File pomFile, boolean createBackupFile, String backupFileExtension, String violationFilename, String encoding,
                              LineSeparatorUtil lineSeparatorUtil, boolean expandEmptyElements, boolean keepBlankLines,
                              String indentCharacters, boolean indentBlankLines, String predefinedSortOrder, String customSortOrderFile,
                              DependencySortOrder sortDependencies, DependencySortOrder sortPlugins, boolean sortProperties, boolean sortModules,
-                             VerifyFailType verifyFailType, boolean ignoreLineSeparators, boolean keepTimestamp) {
+                             VerifyFailType verifyFailType, boolean verifyAllViolations, boolean ignoreLineSeparators, boolean keepTimestamp, File cacheDirectory,
+                             String statisticsFilename) {
         this.pomFile = pomFile;
         this.createBackupFile = createBackupFile;
         this.backupFileExtension = backupFileExtension;
@@ -46,8 +52,29 @@ public class PluginParameters {
         this.keepBlankLines = keepBlankLines;
         this.indentBlankLines = indentBlankLines;
         this.verifyFailType = verifyFailType;
+        this.verifyAllViolations = verifyAllViolations;
         this.ignoreLineSeparators = ignoreLineSeparators;
         this.keepTimestamp = keepTimestamp;
+        this.cacheDirectory = cacheDirectory;
+        this.statisticsFilename = statisticsFilename;
+    }
+
+    /**
+     * Every parameter except the pom file. Pom files whose parameters have equal keys can be sorted by the same
+     * SortEngine.
+     */
+    public List<Object> getSortEngineKey() {
+        return Arrays.asList(createBackupFile, backupFileExtension, violationFilename, encoding,
+                String.valueOf(lineSeparatorUtil), indentCharacters, expandEmptyElements, predefinedSortOrder,
+                customSortOrderFile, getSortEngineKey(sortDependencies), getSortEngineKey(sortPlugins),
+                sortProperties, sortModules, keepBlankLines, indentBlankLines, verifyFailType, verifyAllViolations,
+                ignoreLineSeparators, keepTimestamp, cacheDirectory, statisticsFilename);
+    }
+
+    /** The deprecated values give other log messages than their replacements */
+    private static List<Object> getSortEngineKey(DependencySortOrder dependencySortOrder) {
+        return Arrays.asList(dependencySortOrder.getChildElementNames(), dependencySortOrder.getPrioritizedGroups(),
+                dependencySortOrder.isDeprecatedValueTrue(), dependencySortOrder.isDeprecatedValueFalse());
     }
 
     /** Instantiate builder */
@@ -75,12 +102,15 @@ public class PluginParameters {
         private boolean sortModules;
         private boolean keepBlankLines;
         private VerifyFailType verifyFailType;
+        private boolean verifyAllViolations;
         private boolean ignoreLineSeparators;
         private boolean keepTimestamp;
         private String prioritizedDependencyGroups;
         private String prioritizedPluginGroups;
         private String groupId;
         private boolean prioritizeLocalGroupId;
+        private File cacheDirectory;
+        private String statisticsFilename;
 
         private Builder() {
         }
@@ -181,6 +211,12 @@ public class PluginParameters {
             return this;
         }
 
+        /** Sets if verify should report every element that is out of order, instead of only the first */
+        public Builder setVerifyAllViolations(boolean verifyAllViolations) {
+            this.verifyAllViolations = verifyAllViolations;
+            return this;
+        }
+
         /** Sets triggers to decide when the pom should be sorted **/
         public Builder setTriggers(boolean ignoreLineSeparators) {
             this.ignoreLineSeparators = ignoreLineSeparators;
@@ -197,6 +233,18 @@ public class PluginParameters {
             return this;
         }
 
+        /** Sets where sort results are cached between builds, null turns the cache off */
+        public Builder setCacheDirectory(File cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+            return this;
+        }
+
+        /** Sets where the sort statistics are saved as JSON, null if they should only be logged */
+        public Builder setStatisticsFilename(String statisticsFilename) {
+            this.statisticsFilename = statisticsFilename;
+            return this;
+        }
+
         /** Build the PluginParameters instance */
         public PluginParameters build() {
             String pdgs = prioritizedDependencyGroups;
@@ -209,7 +257,8 @@ public class PluginParameters {
                     new DependencySortOrder(sortDependencies, pdgs),
                     new DependencySortOrder(sortPlugins, prioritizedPluginGroups),
                     sortProperties, sortModules,
-                    verifyFailType, ignoreLineSeparators, keepTimestamp);
+                    verifyFailType, verifyAllViolations, ignoreLineSeparators, keepTimestamp, cacheDirectory,
+                    statisticsFilename);
         }
     }
 
@@ -1,9 +1,5 @@
 package sortpom.processinstruction;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-
 /**
  * Replaces ignored sections with a token. The ignored sections look like this:
  * <?sortpom ignore?>... whatever ... <?sortpom resume?>
@@ -11,44 +7,52 @@ import java.util.regex.Matcher;
  * The tokens look like this:
  * <?sortpom token='0'?>
  *
- * The number in the token identifies the ignored section so that it can find it in a stored list.
+ * The number in the token identifies the ignored section so that it can be copied back from the original xml.
  *
  * @author bjorn
  * @since 2013-12-28
  */
 class IgnoredSectionsStore {
-    private final List<String> ignoredSections = new ArrayList<>();
-
-    public String replaceIgnoredSections(String originalXml) {
-        Matcher matcher = InstructionType.IGNORE_SECTIONS_PATTERN.matcher(originalXml);
-
-        StringBuffer returnValue = new StringBuffer();
-        int i = 0;
-
-        while (matcher.find()) {
-            ignoredSections.add(matcher.group());
-            matcher.appendReplacement(returnValue, String.format("<?sortpom token='%d'?>", i));
-            i++;
+    private String originalXml;
+    private int[] sectionBounds = new int[0];
+
+    /**
+     * Replaces the ignored sections, the sections of previously replaced xml are forgotten. The sections are
+     * copied from the original xml when they are reverted, so the sections themselves are never stored.
+     *
+     * @param originalXml   the xml with ignored sections
+     * @param sectionBounds the start and the end of each ignored section, as found by SortpomPiScanner
+     */
+    public String replaceIgnoredSections(String originalXml, int[] sectionBounds) {
+        this.originalXml = originalXml;
+        this.sectionBounds = sectionBounds;
+
+        StringBuilder returnValue = new StringBuilder(originalXml.length());
+        int copiedUntil = 0;
+        for (int i = 0; i < sectionBounds.length; i += 2) {
+            returnValue.append(originalXml, copiedUntil, sectionBounds[i])
+                    .append("<?sortpom token='").append(i / 2).append("'?>");
+            copiedUntil = sectionBounds[i + 1];
         }
-        matcher.appendTail(returnValue);
+        returnValue.append(originalXml, copiedUntil, originalXml.length());
 
         return returnValue.toString();
     }
 
     public String revertIgnoredSections(String sortedXml) {
-        Matcher matcher = InstructionType.TOKEN_PATTERN.matcher(sortedXml);
-
-        StringBuffer returnValue = new StringBuffer();
-
-        while (matcher.find()) {
-            int index = Integer.parseInt(matcher.group(1));
-            String replacement = ignoredSections.get(index);
-            String oneBackslashBeforeBackslash = replacement.replace("\\", "\\\\");
-            String oneBackslashBeforeDollar = oneBackslashBeforeBackslash.replace("$", "\\$");
-
-            matcher.appendReplacement(returnValue, oneBackslashBeforeDollar);
+        InstructionScanner instructionScanner = new InstructionScanner(sortedXml);
+
+        StringBuilder returnValue = new StringBuilder(originalXml.length() + sortedXml.length() / 8);
+        int copiedUntil = 0;
+        while (instructionScanner.next()) {
+            int index = instructionScanner.getTokenIndex();
+            if (index >= 0 && index * 2 < sectionBounds.length) {
+                returnValue.append(sortedXml, copiedUntil, instructionScanner.getStart())
+                        .append(originalXml, sectionBounds[index * 2], sectionBounds[index * 2 + 1]);
+                copiedUntil = instructionScanner.getEnd();
+            }
         }
-        matcher.appendTail(returnValue);
+        returnValue.append(sortedXml, copiedUntil, sortedXml.length());
 
         return returnValue.toString();
     }
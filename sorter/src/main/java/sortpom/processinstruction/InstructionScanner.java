@@ -0,0 +1,147 @@
+package sortpom.processinstruction;
+
+/**
+ * Finds the sortpom processing instructions in xml text, one after another in a single pass without regular
+ * expressions. An instruction looks like <?sortpom ignore?>, and the same instructions are found as with the
+ * (non-xml compliant) pattern {@code (?i)<\?sortpom\s+([\w"'*= ]*)\s*\?>}: the instruction name is case
+ * insensitive, it must be separated from 'sortpom' by whitespace and it may be followed by whitespace.
+ *
+ * @see <a href="http://www.cs.sfu.ca/~cameron/REX.html#IV.2">REX</a>
+ */
+final class InstructionScanner {
+    /** Every sortpom instruction starts with this text, in any case */
+    private static final String INSTRUCTION_START = "<?sortpom";
+
+    private final String xml;
+    private int position;
+    private int start;
+    private int end;
+    private int dataStart;
+    private int dataEnd;
+
+    InstructionScanner(String xml) {
+        this.xml = xml;
+    }
+
+    /**
+     * Finds the next instruction
+     *
+     * @return true if an instruction was found, its position is then available from the getters
+     */
+    boolean next() {
+        int candidate = xml.indexOf("<?", position);
+        while (candidate >= 0) {
+            if (matchesInstruction(candidate)) {
+                position = end;
+                return true;
+            }
+            candidate = xml.indexOf("<?", candidate + 1);
+        }
+        position = xml.length();
+        return false;
+    }
+
+    /** Reads an instruction at the index, the regular expression never needs to backtrack so neither does this */
+    private boolean matchesInstruction(int index) {
+        if (!regionMatchesInstructionStart(index)) {
+            return false;
+        }
+        int i = index + INSTRUCTION_START.length();
+        int whitespaceStart = i;
+        i = skipWhitespace(i);
+        if (i == whitespaceStart) {
+            return false;
+        }
+        int instructionStart = i;
+        while (i < xml.length() && isInstructionChar(xml.charAt(i))) {
+            i++;
+        }
+        int instructionEnd = i;
+        i = skipWhitespace(i);
+        if (i + 1 >= xml.length() || xml.charAt(i) != '?' || xml.charAt(i + 1) != '>') {
+            return false;
+        }
+        start = index;
+        end = i + 2;
+        dataStart = instructionStart;
+        dataEnd = instructionEnd;
+        return true;
+    }
+
+    /** Only ascii letters are case insensitive, just as in a regular expression without the unicode flag */
+    private boolean regionMatchesInstructionStart(int index) {
+        if (index + INSTRUCTION_START.length() > xml.length()) {
+            return false;
+        }
+        for (int i = 2; i < INSTRUCTION_START.length(); i++) {
+            char c = xml.charAt(index + i);
+            char expected = INSTRUCTION_START.charAt(i);
+            if (c != expected && c != Character.toUpperCase(expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipWhitespace(int index) {
+        int i = index;
+        while (i < xml.length() && isWhitespace(xml.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Same as \s in a regular expression */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Same as [\w"'*= ] in a regular expression */
+    private static boolean isInstructionChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '"' || c == '\'' || c == '*' || c == '=' || c == ' ';
+    }
+
+    /** The index of the first character of the instruction, the '<' */
+    int getStart() {
+        return start;
+    }
+
+    /** The index after the last character of the instruction, the '>' */
+    int getEnd() {
+        return end;
+    }
+
+    /** The instruction name and arguments, such as 'ignore' or "token='0'" */
+    String getInstruction() {
+        return xml.substring(dataStart, dataEnd);
+    }
+
+    /**
+     * Returns the number in a token instruction such as <?sortpom token='0'?>
+     *
+     * @return the number, or -1 if the instruction is not a token
+     */
+    int getTokenIndex() {
+        String tokenStart = "token='";
+        if (dataEnd - dataStart < tokenStart.length() + 2 || !xml.regionMatches(true, dataStart, tokenStart, 0, tokenStart.length())) {
+            return -1;
+        }
+        int digitsEnd = dataEnd;
+        while (xml.charAt(digitsEnd - 1) == ' ') {
+            digitsEnd--;
+        }
+        if (xml.charAt(--digitsEnd) != '\'') {
+            return -1;
+        }
+        int index = 0;
+        for (int i = dataStart + tokenStart.length(); i < digitsEnd; i++) {
+            char c = xml.charAt(i);
+            if (c < '0' || c > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return digitsEnd > dataStart + tokenStart.length() ? index : -1;
+    }
+}
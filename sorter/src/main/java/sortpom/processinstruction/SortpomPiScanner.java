@@ -2,21 +2,30 @@ package sortpom.processinstruction;
 
 import sortpom.logger.SortPomLogger;
 
-import java.util.regex.Matcher;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static sortpom.processinstruction.InstructionType.*;
 
 /**
- * Check the pom file for processing instructions and verifies that they are correct and balanced
+ * Check the pom file for processing instructions and verifies that they are correct and balanced. The positions
+ * of the ignored sections are recorded at the same time, so that they can be replaced without scanning again.
  *
  * @author bjorn
  * @since 2013-12-28
  */
 class SortpomPiScanner {
+    /** Every sortpom instruction starts with this text, in any case */
+    private static final String INSTRUCTION_START = "<?sortpom";
+    private static final byte[] INSTRUCTION_START_LOWER = INSTRUCTION_START.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INSTRUCTION_START_UPPER = INSTRUCTION_START.toUpperCase().getBytes(StandardCharsets.US_ASCII);
     private final SortPomLogger logger;
     private InstructionType expectedNextInstruction = IGNORE;
     private String errorString;
     private boolean containsIgnoredSections = false;
+    /** Start and end of each ignored section, from the start of ignore to the end of resume */
+    private int[] ignoredSectionBounds = new int[8];
+    private int ignoredSectionBoundsSize;
 
     public SortpomPiScanner(SortPomLogger logger) {
         this.logger = logger;
@@ -24,9 +33,9 @@ class SortpomPiScanner {
 
     /** Scan and verifies the pom file for processing instructions */
     public void scan(String originalXml) {
-        Matcher matcher = INSTRUCTION_PATTERN.matcher(originalXml);
-        while (matcher.find()) {
-            scanOneInstruction(matcher.group(1));
+        InstructionScanner instructionScanner = new InstructionScanner(originalXml);
+        while (instructionScanner.next()) {
+            scanOneInstruction(instructionScanner);
             containsIgnoredSections = true;
         }
         if (expectedNextInstruction != IGNORE) {
@@ -35,7 +44,32 @@ class SortpomPiScanner {
         }
     }
 
-    private void scanOneInstruction(String instruction) {
+    /**
+     * Quick check of an undecoded pom file with an ascii compatible encoding, a false return value means that
+     * the file cannot contain any processing instructions for sortpom.
+     */
+    static boolean mayContainInstructions(byte[] originalXml) {
+        int lastStart = originalXml.length - INSTRUCTION_START_LOWER.length;
+        for (int i = 0; i <= lastStart; i++) {
+            if (originalXml[i] == '<' && matchesInstructionStart(originalXml, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesInstructionStart(byte[] originalXml, int start) {
+        for (int i = 1; i < INSTRUCTION_START_LOWER.length; i++) {
+            byte b = originalXml[start + i];
+            if (b != INSTRUCTION_START_LOWER[i] && b != INSTRUCTION_START_UPPER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void scanOneInstruction(InstructionScanner instructionScanner) {
+        String instruction = instructionScanner.getInstruction();
         if (!InstructionType.containsType(instruction)) {
             addError(String.format("Xml contained unknown sortpom instruction '%s'. Please use <?sortpom %s?> or <?sortpom %s?>",
                     instruction, IGNORE, RESUME));
@@ -44,11 +78,21 @@ class SortpomPiScanner {
                 addError(String.format("Xml contained unexpected sortpom instruction '%s'. Please use expected instruction <?sortpom %s?>",
                         instruction, expectedNextInstruction));
             } else {
+                addIgnoredSectionBound(expectedNextInstruction == IGNORE
+                        ? instructionScanner.getStart()
+                        : instructionScanner.getEnd());
                 expectedNextInstruction = expectedNextInstruction.next();
             }
         }
     }
 
+    private void addIgnoredSectionBound(int bound) {
+        if (ignoredSectionBoundsSize == ignoredSectionBounds.length) {
+            ignoredSectionBounds = Arrays.copyOf(ignoredSectionBounds, ignoredSectionBoundsSize * 2);
+        }
+        ignoredSectionBounds[ignoredSectionBoundsSize++] = bound;
+    }
+
     private void addError(String msg) {
         if (errorString == null) {
             errorString = msg;
@@ -68,4 +112,13 @@ class SortpomPiScanner {
     public boolean containsIgnoredSections() {
         return containsIgnoredSections;
     }
+
+    /**
+     * The character positions of the ignored sections, only valid if there was no scan error
+     *
+     * @return the start and the end of each ignored section, one after another
+     */
+    int[] getIgnoredSectionBounds() {
+        return Arrays.copyOf(ignoredSectionBounds, ignoredSectionBoundsSize);
+    }
 }
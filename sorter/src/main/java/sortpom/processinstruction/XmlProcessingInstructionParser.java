@@ -2,6 +2,9 @@ package sortpom.processinstruction;
 
 import sortpom.exception.FailureException;
 import sortpom.logger.SortPomLogger;
+import sortpom.util.CharsetUtil;
+
+import java.nio.charset.Charset;
 
 /**
  * Handling for xml processing instructions in the pom file. Supports ignore and resume
@@ -12,6 +15,7 @@ import sortpom.logger.SortPomLogger;
 public class XmlProcessingInstructionParser {
     private final IgnoredSectionsStore ignoredSectionsStore = new IgnoredSectionsStore();
     private String originalXml;
+    private int[] ignoredSectionBounds;
     private SortPomLogger logger;
     private boolean containsIgnoredSections = false;
 
@@ -28,6 +32,21 @@ public class XmlProcessingInstructionParser {
             throw new FailureException(sortpomPiScanner.getFirstError());
         }
         containsIgnoredSections = sortpomPiScanner.containsIgnoredSections();
+        ignoredSectionBounds = sortpomPiScanner.getIgnoredSectionBounds();
+    }
+
+    /**
+     * Checks if the undecoded pom file contains any processing instructions. Content with an ascii compatible
+     * encoding is only decoded if it may contain processing instructions, replaceIgnoredSections returns null
+     * if the content was not decoded.
+     */
+    public void scanForIgnoredSections(byte[] originalXml, Charset charset) {
+        if (!CharsetUtil.isAsciiCompatible(charset) || SortpomPiScanner.mayContainInstructions(originalXml)) {
+            scanForIgnoredSections(new String(originalXml, charset));
+        } else {
+            this.originalXml = null;
+            containsIgnoredSections = false;
+        }
     }
 
     /** Returns true if sortpom processing instructions exists */
@@ -38,7 +57,7 @@ public class XmlProcessingInstructionParser {
     /** Stores all ignored sections and replaces each with a processing instruction token */
     public String replaceIgnoredSections() {
         if (containsIgnoredSections) {
-            return ignoredSectionsStore.replaceIgnoredSections(originalXml);
+            return ignoredSectionsStore.replaceIgnoredSections(originalXml, ignoredSectionBounds);
         }
         return originalXml;
     }
@@ -0,0 +1,42 @@
+package sortpom.statistics;
+
+/**
+ * Reports the phases of one pom file as Java Flight Recorder events. This is the Java 8 version, which does
+ * nothing. The multi-release jar contains a Java 11 version in META-INF/versions/11 that emits the events, the
+ * methods of the two versions must be the same.
+ */
+final class FlightRecorderEvents {
+
+    /** Returns true if a recording with the sortpom events is running */
+    static boolean isRecording() {
+        return false;
+    }
+
+    /**
+     * Called when a phase starts
+     *
+     * @param phase the phase
+     * @return the event of the phase, or null if no event is recorded
+     */
+    Object beginPhase(SortStatistics.Phase phase) {
+        return null;
+    }
+
+    /**
+     * Called when a phase ends
+     *
+     * @param phaseEvent the event from beginPhase
+     */
+    void endPhase(Object phaseEvent) {
+    }
+
+    /**
+     * Commits the events of the pom file when the pom file is done
+     *
+     * @param pomPath      the path of the pom file
+     * @param elementCount the number of elements in the pom file
+     * @param sorted       true if the pom file was changed, false if it was unchanged
+     */
+    void commit(String pomPath, int elementCount, boolean sorted) {
+    }
+}
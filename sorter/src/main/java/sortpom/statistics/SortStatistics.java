@@ -0,0 +1,247 @@
+package sortpom.statistics;
+
+import sortpom.wrapper.content.Wrapper;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the time was spent when one pom file was sorted or verified. Each phase records the wall time and the
+ * bytes that the thread allocated during the phase, a phase that runs several times (such as when verify sorts
+ * the pom file) is added up. Allocation is reported as -1 if the JVM cannot measure it.
+ * <p>
+ * Sorted xml is written straight to its destination, so serialization is included in the compare phase when
+ * the digest of the sorted xml is computed, and in the write phase when the pom file is saved. Only ignored
+ * sections, which are reverted in the whole xml text, have a separate serialize phase. Likewise, a parsed pom file
+ * is wrapped while it is parsed, so wrapping is included in the parse phase.
+ * <p>
+ * On Java 11 and later each phase, and the whole pom file, is also reported as a Java Flight Recorder event
+ * (sortpom.SortPhase and sortpom.SortFile) when finish is called.
+ * <p>
+ * Statistics that nobody reads are not collected, see create.
+ */
+public final class SortStatistics {
+    /** The phases of sorting a pom file, in the order that they run */
+    public enum Phase {
+        READ, PI_SCAN, IGNORED_SECTIONS, PARSE, WRAP, SORT, SERIALIZE, COMPARE, BACKUP, WRITE
+    }
+
+    /** Records nothing, the timers of the disabled statistics do not measure anything */
+    private static final SortStatistics DISABLED = new SortStatistics(false);
+
+    private final boolean enabled;
+    private final Timer disabledTimer;
+    private final Map<Phase, long[]> phases = new EnumMap<>(Phase.class);
+    private final Map<Class<?>, int[]> wrapperCounts = new HashMap<>();
+    private int elementCount;
+    private long comparisonCount;
+    /** Created when the first phase starts, so that the file event starts with the first phase */
+    private FlightRecorderEvents flightRecorderEvents;
+
+    /** Creates statistics that record everything */
+    public SortStatistics() {
+        this(true);
+    }
+
+    private SortStatistics(boolean enabled) {
+        this.enabled = enabled;
+        this.disabledTimer = enabled ? null : new Timer(null, null, 0, 0);
+    }
+
+    /**
+     * Creates statistics for one pom file. The phases are only measured if the statistics are reported or if a
+     * Java Flight Recorder recording with the sortpom events is running, since measuring costs time.
+     *
+     * @param reported true if the statistics are logged or saved
+     * @return new statistics, or statistics that record nothing
+     */
+    public static SortStatistics create(boolean reported) {
+        return reported || FlightRecorderEvents.isRecording() ? new SortStatistics() : DISABLED;
+    }
+
+    /** Statistics that record nothing */
+    public static SortStatistics disabled() {
+        return DISABLED;
+    }
+
+    /** Returns false if nothing is recorded, so that the counters do not have to be computed */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts to measure a phase, stop the returned timer when the phase ends
+     *
+     * @param phase the phase that starts
+     * @return the timer of the phase
+     */
+    public Timer start(Phase phase) {
+        if (!enabled) {
+            return disabledTimer;
+        }
+        if (flightRecorderEvents == null) {
+            flightRecorderEvents = new FlightRecorderEvents();
+        }
+        // The allocation counter is read first, so that looking up the counter is not measured
+        long startAllocatedBytes = AllocationCounter.allocatedBytes();
+        Object phaseEvent = flightRecorderEvents.beginPhase(phase);
+        return new Timer(phase, phaseEvent, System.nanoTime(), startAllocatedBytes);
+    }
+
+    /**
+     * Reports the recorded phases to Java Flight Recorder, when the pom file is done
+     *
+     * @param pomPath the path of the pom file
+     * @param sorted  true if the pom file was changed, false if it was unchanged
+     */
+    public void finish(String pomPath, boolean sorted) {
+        if (flightRecorderEvents != null) {
+            flightRecorderEvents.commit(pomPath, elementCount, sorted);
+            flightRecorderEvents = null;
+        }
+    }
+
+    private void add(Phase phase, long nanos, long allocatedBytes) {
+        long[] phaseTotals = phases.computeIfAbsent(phase, p -> new long[2]);
+        phaseTotals[0] += nanos;
+        phaseTotals[1] = allocatedBytes < 0 || phaseTotals[1] < 0 ? -1 : phaseTotals[1] + allocatedBytes;
+    }
+
+    /** Counts one wrapper of the sorted structure, wrapped elements are also counted as elements */
+    public void countWrapper(Wrapper<?> wrapper) {
+        if (!enabled) {
+            return;
+        }
+        wrapperCounts.computeIfAbsent(wrapper.getClass(), c -> new int[1])[0]++;
+        if (wrapper.isContentElement()) {
+            elementCount++;
+        }
+    }
+
+    /** Counts the times that the sort asked a wrapper if it should be placed before another wrapper */
+    public void addComparisons(long comparisons) {
+        if (!enabled) {
+            return;
+        }
+        comparisonCount += comparisons;
+    }
+
+    public long getTimeNanos(Phase phase) {
+        long[] phaseTotals = phases.get(phase);
+        return phaseTotals == null ? 0 : phaseTotals[0];
+    }
+
+    public long getAllocatedBytes(Phase phase) {
+        long[] phaseTotals = phases.get(phase);
+        return phaseTotals == null ? 0 : phaseTotals[1];
+    }
+
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    /** The number of wrappers by wrapper type, such as SortedWrapper */
+    public Map<String, Integer> getWrapperCounts() {
+        Map<String, Integer> wrapperCountsByName = new TreeMap<>();
+        wrapperCounts.forEach((wrapperClass, count) -> wrapperCountsByName.put(wrapperClass.getSimpleName(), count[0]));
+        return wrapperCountsByName;
+    }
+
+    public long getComparisonCount() {
+        return comparisonCount;
+    }
+
+    /** The statistics as one JSON object, so that it can be compared between builds */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"phases\": {");
+        String separator = "\n";
+        for (Map.Entry<Phase, long[]> phase : phases.entrySet()) {
+            json.append(separator).append(String.format(Locale.ROOT, "    \"%s\": {\"timeNanos\": %d, \"allocatedBytes\": %d}",
+                    phase.getKey().name().toLowerCase(Locale.ROOT), phase.getValue()[0], phase.getValue()[1]));
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"elements\": ").append(elementCount).append(",\n  \"wrappers\": {");
+        separator = "\n";
+        for (Map.Entry<String, Integer> wrapperCount : getWrapperCounts().entrySet()) {
+            json.append(separator).append("    \"").append(wrapperCount.getKey()).append("\": ").append(wrapperCount.getValue());
+            separator = ",\n";
+        }
+        return json.append("\n  },\n  \"comparisons\": ").append(comparisonCount).append("\n}\n").toString();
+    }
+
+    /** A one line summary for the debug log */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("Sort statistics:");
+        phases.forEach((phase, phaseTotals) -> {
+            summary.append(String.format(Locale.ROOT, " %s %.3f ms", phase.name().toLowerCase(Locale.ROOT),
+                    phaseTotals[0] / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+            if (phaseTotals[1] >= 0) {
+                summary.append(String.format(Locale.ROOT, " (%d kB),", phaseTotals[1] / 1024));
+            } else {
+                summary.append(',');
+            }
+        });
+        return summary.append(" elements ").append(elementCount)
+                .append(", wrappers ").append(getWrapperCounts())
+                .append(", comparisons ").append(comparisonCount).toString();
+    }
+
+    /** Measures one run of a phase */
+    public final class Timer {
+        private final Phase phase;
+        private final Object phaseEvent;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+
+        private Timer(Phase phase, Object phaseEvent, long startNanos, long startAllocatedBytes) {
+            this.phase = phase;
+            this.phaseEvent = phaseEvent;
+            this.startNanos = startNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        /** Adds the time and allocation since start to the phase */
+        public void stop() {
+            if (phase == null) {
+                return;
+            }
+            long allocatedBytes = AllocationCounter.allocatedBytes();
+            add(phase, System.nanoTime() - startNanos,
+                    allocatedBytes < 0 || startAllocatedBytes < 0 ? -1 : allocatedBytes - startAllocatedBytes);
+            if (phaseEvent != null) {
+                flightRecorderEvents.endPhase(phaseEvent);
+            }
+        }
+    }
+
+    /** The thread management bean is only looked up once */
+    private static final class AllocationCounter {
+        private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+
+        private static com.sun.management.ThreadMXBean findThreadMXBean() {
+            try {
+                java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+                if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                    com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+                    if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                        return sunThreadMXBean;
+                    }
+                }
+            } catch (LinkageError | SecurityException e) {
+                // Allocation is not measured on this JVM
+            }
+            return null;
+        }
+
+        /** The bytes that the current thread has allocated so far, or -1 if it cannot be measured */
+        static long allocatedBytes() {
+            return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
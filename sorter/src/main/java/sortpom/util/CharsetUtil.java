@@ -0,0 +1,37 @@
+package sortpom.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Helps to decide if encoded content can be handled without decoding it
+ */
+public final class CharsetUtil {
+    private static final String ASCII_CHARACTERS = createAsciiCharacters();
+
+    private CharsetUtil() {
+    }
+
+    private static String createAsciiCharacters() {
+        StringBuilder builder = new StringBuilder("\t\n\r");
+        for (char c = ' '; c < 0x7f; c++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns true if the charset encodes the printable ascii characters, tab, newline and carriage return as
+     * one byte each with the same value as in ascii, without a byte order mark. Searching such encoded content
+     * for an ascii text gives the same result as searching the decoded content.
+     *
+     * @param charset the charset to check
+     * @return true if the charset is ascii compatible
+     */
+    public static boolean isAsciiCompatible(Charset charset) {
+        return charset.canEncode() && Arrays.equals(
+                ASCII_CHARACTERS.getBytes(StandardCharsets.US_ASCII),
+                ASCII_CHARACTERS.getBytes(charset));
+    }
+}
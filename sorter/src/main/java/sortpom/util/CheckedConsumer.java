@@ -0,0 +1,9 @@
+package sortpom.util;
+
+/**
+ * Consumer that can throw a checked exception
+ */
+@FunctionalInterface
+public interface CheckedConsumer<T, E extends Exception> {
+    void accept(T t) throws E;
+}
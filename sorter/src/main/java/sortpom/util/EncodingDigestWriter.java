@@ -0,0 +1,206 @@
+package sortpom.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Encodes the written characters in chunks and computes a digest of the encoded bytes. The bytes can also be
+ * written to a channel. The encoder and the buffers are reused for every file, so the memory used does not
+ * depend on the size of the written content.
+ * <p>
+ * Unmappable and malformed characters are replaced in the same way as String.getBytes does.
+ * <pre>
+ * writer.start(channel, false);
+ * writer.write(...);
+ * byte[] digest = writer.finish();
+ * </pre>
+ */
+public class EncodingDigestWriter extends Writer {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final char NEWLINE = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    private final Charset charset;
+    private final CharsetEncoder encoder;
+    private final CharBuffer charBuffer;
+    private final ByteBuffer byteBuffer;
+    private final MessageDigest digest;
+    private WritableByteChannel channel;
+    private boolean skipLineSeparators;
+
+    public EncodingDigestWriter(Charset charset) {
+        this(charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param charset    the encoding of the bytes
+     * @param bufferSize the number of characters that are encoded at a time, at least two so that a surrogate
+     *                   pair always fits
+     */
+    public EncodingDigestWriter(Charset charset, int bufferSize) {
+        this.charset = charset;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        int charCapacity = Math.max(2, bufferSize);
+        this.charBuffer = CharBuffer.allocate(charCapacity);
+        this.byteBuffer = ByteBuffer.allocateDirect((int) Math.ceil(charCapacity * encoder.maxBytesPerChar()));
+        this.digest = createMessageDigest();
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Computes the digest of content that is already encoded, the digest can be compared to the digest from finish.
+     *
+     * @param encodedContent the encoded content
+     * @return the digest of the content
+     */
+    public byte[] calculateDigest(byte[] encodedContent) {
+        digest.reset();
+        return digest.digest(encodedContent);
+    }
+
+    /**
+     * Prepares the writer for new content.
+     *
+     * @param channel            receives the encoded bytes, or null if only the digest should be computed
+     * @param skipLineSeparators if newline and carriage return characters should be left out
+     */
+    public void start(WritableByteChannel channel, boolean skipLineSeparators) {
+        this.channel = channel;
+        this.skipLineSeparators = skipLineSeparators;
+        encoder.reset();
+        charBuffer.clear();
+        byteBuffer.clear();
+        digest.reset();
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        int position = off;
+        while (position < end) {
+            if (skipLineSeparators) {
+                putChar(str.charAt(position++));
+            } else {
+                int count = Math.min(end - position, charBuffer.remaining());
+                charBuffer.put(str, position, position + count);
+                position += count;
+                encodeWhenFull();
+            }
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        int position = off;
+        while (position < end) {
+            if (skipLineSeparators) {
+                putChar(cbuf[position++]);
+            } else {
+                int count = Math.min(end - position, charBuffer.remaining());
+                charBuffer.put(cbuf, position, count);
+                position += count;
+                encodeWhenFull();
+            }
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        putChar((char) c);
+    }
+
+    private void putChar(char c) throws IOException {
+        if (skipLineSeparators && (c == NEWLINE || c == CARRIAGE_RETURN)) {
+            return;
+        }
+        charBuffer.put(c);
+        encodeWhenFull();
+    }
+
+    private void encodeWhenFull() throws IOException {
+        if (!charBuffer.hasRemaining()) {
+            encodeCharBuffer(false);
+        }
+    }
+
+    private void encodeCharBuffer(boolean endOfInput) throws IOException {
+        charBuffer.flip();
+        CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+        while (result.isOverflow()) {
+            drainByteBuffer();
+            result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+        }
+        // A trailing high surrogate stays in the buffer until its low surrogate is written
+        charBuffer.compact();
+    }
+
+    private void drainByteBuffer() throws IOException {
+        byteBuffer.flip();
+        int start = byteBuffer.position();
+        digest.update(byteBuffer);
+        if (channel != null) {
+            byteBuffer.position(start);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+        }
+        byteBuffer.clear();
+    }
+
+    /**
+     * Encodes and writes the remaining characters.
+     *
+     * @return the digest of all encoded bytes since start
+     */
+    public byte[] finish() throws IOException {
+        encodeCharBuffer(true);
+        while (encoder.flush(byteBuffer).isOverflow()) {
+            drainByteBuffer();
+        }
+        drainByteBuffer();
+        channel = null;
+        return digest.digest();
+    }
+
+    /**
+     * This method will not perform anything. The content is encoded when the buffer is full or when finish is called
+     */
+    @Override
+    public void flush() {
+        // Nope, no manual flushing
+    }
+
+    /**
+     * This method will not perform anything. The writer is reused for the next content and the channel is
+     * closed by its owner
+     */
+    @Override
+    public void close() {
+        // The writer is reused
+    }
+}
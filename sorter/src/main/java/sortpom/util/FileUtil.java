@@ -6,9 +6,12 @@ import sortpom.parameter.PluginParameters;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 
 /**
@@ -27,6 +30,7 @@ public class FileUtil {
     private String newName;
     private File backupFile;
     private String violationFilename;
+    private String statisticsFilename;
     private long timestamp;
     private boolean keepTimestamp;
 
@@ -34,12 +38,18 @@ public class FileUtil {
 
     /** Initializes the class with sortpom parameters. */
     public void setup(PluginParameters parameters) {
-        this.pomFile = parameters.pomFile;
+        setup(parameters, parameters.pomFile);
+    }
+
+    /** Initializes the class with sortpom parameters and another pom file than the one in the parameters. */
+    public void setup(PluginParameters parameters, File pomFile) {
+        this.pomFile = pomFile;
         this.backupFileExtension = parameters.backupFileExtension;
         this.encoding = parameters.encoding;
         this.customSortOrderFile = parameters.customSortOrderFile;
         this.predefinedSortOrder = parameters.predefinedSortOrder;
         this.violationFilename = parameters.violationFilename;
+        this.statisticsFilename = parameters.statisticsFilename;
         this.keepTimestamp = parameters.keepTimestamp;
     }
 
@@ -79,11 +89,21 @@ public class FileUtil {
      * @return Content of the file
      */
     public String getPomFileContent() {
-        String content;
-        try (InputStream inputStream = new FileInputStream(pomFile)) {
-            content = IOUtils.toString(inputStream, encoding);
-       } catch (UnsupportedCharsetException ex) {
-            throw new FailureException("Could not handle encoding: " + encoding, ex);
+        byte[] content = getPomFileBytes();
+        return new String(content, getCharset());
+    }
+
+    /**
+     * Loads the pom file that will be sorted as it is stored on disk, the file is read once into one byte array.
+     * The file is not memory mapped since a mapping can keep the file locked until it is garbage collected,
+     * which would prevent the sorted pom from being saved.
+     *
+     * @return Content of the file
+     */
+    public byte[] getPomFileBytes() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(pomFile.toPath());
         } catch (IOException ex) {
             throw new FailureException("Could not read pom file: " + pomFile.getAbsolutePath(), ex);
         }
@@ -91,6 +111,14 @@ public class FileUtil {
         return content;
     }
 
+    private Charset getCharset() {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            throw new FailureException("Could not handle encoding: " + encoding, ex);
+        }
+    }
+
     private void savePomfileTimestamp() {
         if (keepTimestamp) {
             timestamp = fileAttrUtils.getLastModifiedTimestamp(pomFile);
@@ -105,6 +133,28 @@ public class FileUtil {
         saveFile(violationFile, violationXml, "Could not save violation file: " + violationFile.getAbsolutePath());
     }
 
+    /**
+     * Saves the violation file by letting the content writer write the content straight to the file.
+     *
+     * @param contentWriter writes the content, which is encoded with the encoding of the pom file
+     */
+    public void saveViolationFile(CheckedConsumer<Writer, IOException> contentWriter) {
+        File violationFile = new File(violationFilename);
+        try {
+            Files.createDirectories(violationFile.getAbsoluteFile().getParentFile().toPath());
+            try (Writer writer = Files.newBufferedWriter(violationFile.toPath(), Charset.forName(encoding))) {
+                contentWriter.accept(writer);
+            }
+        } catch (IOException e) {
+            throw new FailureException("Could not save violation file: " + violationFile.getAbsolutePath(), e);
+        }
+    }
+
+    public void saveStatisticsFile(String statisticsJson) {
+        File statisticsFile = new File(statisticsFilename);
+        saveFile(statisticsFile, statisticsJson, "Could not save statistics file: " + statisticsFile.getAbsolutePath());
+    }
+
     /**
      * Saves sorted pom file.
      *
@@ -115,6 +165,24 @@ public class FileUtil {
         setPomfileTimestamp();
     }
 
+    /**
+     * Saves sorted pom file by letting the content writer write the encoded content straight to the file.
+     *
+     * @param contentWriter writes the encoded content to the channel of the pom file
+     */
+    public void savePomFile(CheckedConsumer<WritableByteChannel, IOException> contentWriter) {
+        try {
+            Files.createDirectories(pomFile.getParentFile().toPath());
+            try (FileChannel channel = FileChannel.open(pomFile.toPath(),
+                    StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                contentWriter.accept(channel);
+            }
+        } catch (IOException e) {
+            throw new FailureException("Could not save sorted pom file: " + pomFile.getAbsolutePath(), e);
+        }
+        setPomfileTimestamp();
+    }
+
     private void saveFile(File fileToSave, String content, String errorMessage) {
         try {
             Files.createDirectories(fileToSave.getParentFile().toPath());
@@ -160,6 +228,29 @@ public class FileUtil {
         }
     }
 
+    /**
+     * Returns a key that identifies the content of the chosen sort order, used to cache the compiled sort order.
+     * A custom sort order file is identified by its path, size and modification time so that changes to the file
+     * are noticed.
+     *
+     * @return the key for the chosen sort order
+     */
+    public String getSortOrderCacheKey() {
+        if (customSortOrderFile != null) {
+            if (new UrlWrapper(customSortOrderFile).isUrl()) {
+                return "url:" + customSortOrderFile;
+            }
+            File file = new File(customSortOrderFile);
+            if (file.isFile()) {
+                return String.format("file:%s:%d:%d", file.getAbsolutePath(), file.length(), file.lastModified());
+            }
+            return "classpath:" + customSortOrderFile;
+        } else if (predefinedSortOrder != null) {
+            return "predefined:" + predefinedSortOrder;
+        }
+        return "predefined:" + DEFAULT_SORT_ORDER_FILENAME;
+    }
+
     /**
      * Load custom sort order file from absolute or class path.
      *
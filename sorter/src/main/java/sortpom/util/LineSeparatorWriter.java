@@ -0,0 +1,151 @@
+package sortpom.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Makes sure that all line endings are written in the same way, and passes each finished line on to another
+ * writer. Only the current line is buffered, so that it can be removed until a newline is encountered. Removes
+ * the final trailing newline by delaying it. StringLineSeparatorWriter collects the lines in a string.
+ * <p>
+ * Text is written in bulk: the writer searches for newlines and copies everything between them in one go.
+ */
+public class LineSeparatorWriter extends Writer {
+    private static final char NEWLINE = '\n';
+    private static final int INITIAL_LINE_CAPACITY = 256;
+    private final String lineSeparator;
+    private final Writer out;
+    private boolean wasNewLine = false;
+    private char[] lineBuffer = new char[INITIAL_LINE_CAPACITY];
+    private int lineLength = 0;
+
+    /**
+     * @param lineSeparator the line separator to write instead of newline characters
+     * @param out           receives the finished lines, it is neither flushed nor closed by this writer
+     */
+    public LineSeparatorWriter(final String lineSeparator, final Writer out) {
+        this.lineSeparator = lineSeparator;
+        this.out = out;
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        int position = off;
+        while (position < end) {
+            writeDelayedNewline();
+            int newlinePosition = str.indexOf(NEWLINE, position);
+            if (newlinePosition < 0 || newlinePosition >= end) {
+                appendToLine(str, position, end);
+                return;
+            }
+            appendToLine(str, position, newlinePosition);
+            endLine();
+            position = newlinePosition + 1;
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf) throws IOException {
+        write(cbuf, 0, cbuf.length);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        int position = off;
+        while (position < end) {
+            writeDelayedNewline();
+            int newlinePosition = indexOfNewline(cbuf, position, end);
+            if (newlinePosition < 0) {
+                appendToLine(cbuf, position, end);
+                return;
+            }
+            appendToLine(cbuf, position, newlinePosition);
+            endLine();
+            position = newlinePosition + 1;
+        }
+    }
+
+    private static int indexOfNewline(char[] cbuf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (cbuf[i] == NEWLINE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        writeDelayedNewline();
+        if (c == NEWLINE) {
+            endLine();
+        } else {
+            ensureLineCapacity(1);
+            lineBuffer[lineLength++] = (char) c;
+        }
+    }
+
+    private void appendToLine(String str, int start, int end) {
+        ensureLineCapacity(end - start);
+        str.getChars(start, end, lineBuffer, lineLength);
+        lineLength += end - start;
+    }
+
+    private void appendToLine(char[] cbuf, int start, int end) {
+        ensureLineCapacity(end - start);
+        System.arraycopy(cbuf, start, lineBuffer, lineLength, end - start);
+        lineLength += end - start;
+    }
+
+    private void ensureLineCapacity(int additionalLength) {
+        int requiredLength = lineLength + additionalLength;
+        if (requiredLength > lineBuffer.length) {
+            char[] newLineBuffer = new char[Math.max(requiredLength, lineBuffer.length * 2)];
+            System.arraycopy(lineBuffer, 0, newLineBuffer, 0, lineLength);
+            lineBuffer = newLineBuffer;
+        }
+    }
+
+    /** Writes the current line to the underlying writer, the delayed trailing newline is dropped */
+    @Override
+    public void close() throws IOException {
+        writeLineBuffer();
+    }
+
+    private void endLine() throws IOException {
+        writeLineBuffer();
+        wasNewLine = true;
+    }
+
+    private void writeDelayedNewline() throws IOException {
+        if (wasNewLine) {
+            out.write(lineSeparator);
+            wasNewLine = false;
+        }
+    }
+
+    private void writeLineBuffer() throws IOException {
+        out.write(lineBuffer, 0, lineLength);
+        lineLength = 0;
+    }
+
+    /** Remove everything that has happened since last line break. Used to clear empty lines in the XML **/
+    public void clearLineBuffer() {
+        lineLength = 0;
+    }
+
+    /**
+     * This method will not perform anything. The current line is passed on when it ends or when the writer is closed
+     */
+    @Override
+    public void flush() {
+        // Nope, no manual flushing
+    }
+}
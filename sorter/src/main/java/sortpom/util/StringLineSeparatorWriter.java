@@ -1,110 +1,80 @@
 package sortpom.util;
 
+import java.io.IOException;
 import java.io.StringWriter;
-import java.io.Writer;
+import java.io.UncheckedIOException;
 
 /**
- * Makes sure that all line endings are written in the same way. Keeps a buffer
- * which is flushed when newline is encountered.
- * Removes the final trailing newline by delaying it.
+ * Makes sure that all line endings are written in the same way. The current line is buffered, so that it can be
+ * removed until a newline is encountered. Removes the final trailing newline by delaying it.
+ * <p>
+ * This is a LineSeparatorWriter that collects the finished lines in a string, writing to a string never fails
+ * so the methods do not throw IOException.
  *
  * @author Bjorn
  */
-public class StringLineSeparatorWriter extends Writer {
-    private static final char NEWLINE = '\n';
-    private final String lineSeparator;
-    private boolean wasNewLine = false;
-    private final StringBuilder lineBuffer = new StringBuilder();
-    private final StringWriter out = new StringWriter();
+public class StringLineSeparatorWriter extends LineSeparatorWriter {
+    private final StringWriter out;
 
     public StringLineSeparatorWriter(final String lineSeparator) {
-        this.lineSeparator = lineSeparator;
+        this(lineSeparator, new StringWriter());
     }
 
-    @Override
-    public void write(String str) {
-        char[] chars = str.toCharArray();
-        for (char ch : chars) {
-            writeOneCharacter(ch);
-        }
+    private StringLineSeparatorWriter(final String lineSeparator, final StringWriter out) {
+        super(lineSeparator, out);
+        this.out = out;
     }
 
     @Override
-    public void write(int c) {
-        writeOneCharacter((char) c);
+    public void write(String str) {
+        write(str, 0, str.length());
     }
 
     @Override
-    public void close() {
-        writeCharacterBuffer();
-    }
-
-    private void writeOneCharacter(char ch) {
-        writeDelayedNewline();
-        if (ch == NEWLINE) {
-            writeCharacterBuffer();
-            wasNewLine = true;
-        } else {
-            lineBuffer.append(ch);
-        }
-    }
-
-    private void writeDelayedNewline() {
-        if (wasNewLine) {
-            writeLineSeparator();
-            wasNewLine = false;
+    public void write(String str, int off, int len) {
+        try {
+            super.write(str, off, len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    private void writeCharacterBuffer() {
-        out.write(lineBuffer.toString());
-        clearLineBuffer();
-    }
-
-    private void writeLineSeparator() {
-        out.write(lineSeparator);
-    }
-
-    /** Remove everything that has happened since last line break. Used to clear empty lines in the XML **/
-    public void clearLineBuffer() {
-        lineBuffer.delete(0, lineBuffer.length());
-    }
-
     @Override
-    public String toString() {
-        writeCharacterBuffer();
-        return out.toString();
+    public void write(char[] cbuf) {
+        write(cbuf, 0, cbuf.length);
     }
 
-    /**
-     * Only write string or write single character is allowed
-     */
     @Override
-    public void write(char[] cbuf) {
-        throw new UnsupportedOperationException();
+    public void write(char[] cbuf, int off, int len) {
+        try {
+            super.write(cbuf, off, len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    /**
-     * Only write string or write single character is allowed
-     */
     @Override
-    public void write(String str, int off, int len) {
-        throw new UnsupportedOperationException();
+    public void write(int c) {
+        try {
+            super.write(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    /**
-     * Only write string or write single character is allowed
-     */
     @Override
-    public void write(char[] cbuf, int off, int len) {
-        throw new UnsupportedOperationException();
+    public void close() {
+        try {
+            super.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    /**
-     * This method will not perform anything. Flushing is only done when toString method is called
-     */
+    /** Passes the current line on, so that it can no longer be cleared, and returns everything written so far */
     @Override
-    public void flush() {
-        // Nope, no manual flushing
+    public String toString() {
+        close();
+        return out.toString();
     }
 }
@@ -0,0 +1,55 @@
+package sortpom.util;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Compares texts character by character while skipping ignorable characters in both texts at the same time.
+ * No copies without the ignorable characters are created, and the comparison stops at the first difference.
+ */
+public final class TextEquality {
+    /** The same characters as \s in a regular expression */
+    private static final IntPredicate WHITESPACE = c -> c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+
+    private TextEquality() {
+    }
+
+    /**
+     * Same as first.replaceAll("\\s", "").equals(second.replaceAll("\\s", ""))
+     *
+     * @param first  one text
+     * @param second the other text
+     * @return true if the texts are equal when whitespace is left out
+     */
+    public static boolean equalsIgnoringWhitespace(CharSequence first, CharSequence second) {
+        return equalsIgnoring(first, second, WHITESPACE);
+    }
+
+    /**
+     * Compares two texts as if the ignorable characters were removed from both of them
+     *
+     * @param first      one text
+     * @param second     the other text
+     * @param ignorable  true for the characters that should be left out
+     * @return true if the texts are equal when the ignorable characters are left out
+     */
+    private static boolean equalsIgnoring(CharSequence first, CharSequence second, IntPredicate ignorable) {
+        int firstLength = first.length();
+        int secondLength = second.length();
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < firstLength && ignorable.test(first.charAt(i))) {
+                i++;
+            }
+            while (j < secondLength && ignorable.test(second.charAt(j))) {
+                j++;
+            }
+            if (i == firstLength || j == secondLength) {
+                return i == firstLength && j == secondLength;
+            }
+            if (first.charAt(i++) != second.charAt(j++)) {
+                return false;
+            }
+        }
+    }
+}
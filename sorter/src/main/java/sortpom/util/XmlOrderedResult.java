@@ -1,5 +1,7 @@
 package sortpom.util;
 
+import sortpom.verify.OrderViolations;
+
 /**
  * This is the result returned from the verify operation. It contains a status and a error message (if applicable)
  *
@@ -9,10 +11,16 @@ package sortpom.util;
 public final class XmlOrderedResult {
     private final boolean ordered;
     private final String errorMessage;
+    private final OrderViolations violations;
 
     private XmlOrderedResult(boolean ordered, String errorMessage) {
+        this(ordered, errorMessage, new OrderViolations());
+    }
+
+    private XmlOrderedResult(boolean ordered, String errorMessage, OrderViolations violations) {
         this.ordered = ordered;
         this.errorMessage = errorMessage;
+        this.violations = violations;
     }
 
     /** pom file was ordered */
@@ -49,4 +57,14 @@ public final class XmlOrderedResult {
         return errorMessage;
     }
 
+    /** Returns the same result together with every element that is out of order */
+    public XmlOrderedResult withViolations(OrderViolations violations) {
+        return new XmlOrderedResult(ordered, errorMessage, violations);
+    }
+
+    /** Every element that is out of order, only collected when all violations should be reported */
+    public OrderViolations getViolations() {
+        return violations;
+    }
+
 }
@@ -1,6 +1,7 @@
 package sortpom.verify;
 
 import org.jdom.Element;
+import sortpom.util.TextEquality;
 import sortpom.util.XmlOrderedResult;
 
 import java.util.List;
@@ -10,17 +11,20 @@ import java.util.List;
  * @since 2012-07-01
  */
 public class ElementComparator {
-    private final Element originalElement;
+    private final ElementSignature originalElement;
     private final Element newElement;
 
     public ElementComparator(Element originalElement, Element newElement) {
-        this.originalElement = originalElement;
-        this.newElement = newElement;
+        this(ElementSignature.view(originalElement), newElement);
     }
 
-    private ElementComparator(Object originalElement, Object newElement) {
-        this.originalElement = (Element) originalElement;
-        this.newElement = (Element) newElement;
+    /**
+     * Compares a recorded signature of the original element with the new element. Used when the original
+     * element has been sorted in place.
+     */
+    public ElementComparator(ElementSignature originalElement, Element newElement) {
+        this.originalElement = originalElement;
+        this.newElement = newElement;
     }
 
     public XmlOrderedResult isElementOrdered() {
@@ -34,13 +38,13 @@ public class ElementComparator {
     }
 
     private boolean isEqualsIgnoringWhitespace() {
-        return !originalElement.getText().replaceAll("\\s", "").equals(newElement.getText().replaceAll("\\s", ""));
+        return !TextEquality.equalsIgnoringWhitespace(originalElement.getText(), newElement.getText());
     }
 
-    private XmlOrderedResult isChildrenOrdered(String name, List originalElementChildren, List newElementChildren) {
+    private XmlOrderedResult isChildrenOrdered(String name, List<ElementSignature> originalElementChildren, List newElementChildren) {
         int size = Math.min(originalElementChildren.size(), newElementChildren.size());
         for (int i = 0; i < size; i++) {
-            ElementComparator elementComparator = new ElementComparator(originalElementChildren.get(i), newElementChildren.get(i));
+            ElementComparator elementComparator = new ElementComparator(originalElementChildren.get(i), (Element) newElementChildren.get(i));
             XmlOrderedResult elementOrdered = elementComparator.isElementOrdered();
             if (!elementOrdered.isOrdered()) {
                 return elementOrdered;
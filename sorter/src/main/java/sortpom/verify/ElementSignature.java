@@ -0,0 +1,115 @@
+package sortpom.verify;
+
+import org.jdom.Element;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of an xml element that are compared when verifying that a pom file is sorted: the element name, the
+ * text and the child elements. A signature can either be a view of an element or a recorded copy, the copy is
+ * much smaller than the element since attributes, namespaces and other content are left out.
+ */
+public interface ElementSignature {
+
+    /** The element name */
+    String getName();
+
+    /** The text content of the element, as in Element.getText */
+    String getText();
+
+    /** The signatures of the child elements, in document order */
+    List<ElementSignature> getChildren();
+
+    /**
+     * Creates a signature that reads from the element, so changes to the element are visible in the signature.
+     *
+     * @param element the element
+     * @return a view of the element
+     */
+    static ElementSignature view(Element element) {
+        return new ElementView(element);
+    }
+
+    /**
+     * Copies the signature of an element and its children, so that the element can be modified afterwards.
+     *
+     * @param element the element
+     * @return a recorded copy of the signature
+     */
+    @SuppressWarnings("unchecked")
+    static ElementSignature record(Element element) {
+        List<Element> children = element.getChildren();
+        if (children.isEmpty()) {
+            return new RecordedSignature(element.getName(), element.getText(), Collections.emptyList());
+        }
+        List<ElementSignature> childSignatures = new ArrayList<>(children.size());
+        children.forEach(child -> childSignatures.add(record(child)));
+        return new RecordedSignature(element.getName(), element.getText(), childSignatures);
+    }
+
+    /** Reads the signature directly from an element */
+    final class ElementView implements ElementSignature {
+        private final Element element;
+
+        private ElementView(Element element) {
+            this.element = element;
+        }
+
+        @Override
+        public String getName() {
+            return element.getName();
+        }
+
+        @Override
+        public String getText() {
+            return element.getText();
+        }
+
+        @Override
+        public List<ElementSignature> getChildren() {
+            List<?> children = element.getChildren();
+            return new AbstractList<ElementSignature>() {
+                @Override
+                public ElementSignature get(int index) {
+                    return new ElementView((Element) children.get(index));
+                }
+
+                @Override
+                public int size() {
+                    return children.size();
+                }
+            };
+        }
+    }
+
+    /** A copy of the signature, does not reference the element */
+    final class RecordedSignature implements ElementSignature {
+        private final String name;
+        private final String text;
+        private final List<ElementSignature> children;
+
+        private RecordedSignature(String name, String text, List<ElementSignature> children) {
+            this.name = name;
+            this.text = text;
+            this.children = children;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public List<ElementSignature> getChildren() {
+            return children;
+        }
+    }
+}
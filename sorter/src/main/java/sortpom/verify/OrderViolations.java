@@ -0,0 +1,67 @@
+package sortpom.verify;
+
+import java.util.Arrays;
+
+/**
+ * Every xml element that is not in sorted order, collected in one traversal of the pom file. Each violation has
+ * the xpath of the element, its current position among the sibling elements and the position that it should
+ * have. The violations are kept in arrays, since a pom file that has never been sorted can have thousands.
+ */
+public final class OrderViolations {
+    private String[] xpaths = new String[0];
+    private int[] positions = new int[0];
+    private int size;
+
+    /**
+     * Adds a violation
+     *
+     * @param xpath            the xpath of the element, such as /project/dependencies/dependency[2]
+     * @param position         the current position of the element among its sibling elements, starting at 1
+     * @param expectedPosition the position that the element has when the pom file is sorted
+     */
+    public void add(String xpath, int position, int expectedPosition) {
+        if (size == xpaths.length) {
+            xpaths = Arrays.copyOf(xpaths, Math.max(8, size * 2));
+            positions = Arrays.copyOf(positions, xpaths.length * 2);
+        }
+        xpaths[size] = xpath;
+        positions[size * 2] = position;
+        positions[size * 2 + 1] = expectedPosition;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String getXPath(int index) {
+        checkIndex(index);
+        return xpaths[index];
+    }
+
+    public int getPosition(int index) {
+        checkIndex(index);
+        return positions[index * 2];
+    }
+
+    public int getExpectedPosition(int index) {
+        checkIndex(index);
+        return positions[index * 2 + 1];
+    }
+
+    /** A description of the violation, for the log */
+    public String getMessage(int index) {
+        return String.format("The xml element %s should be placed at position %d instead of %d",
+                getXPath(index), getExpectedPosition(index), getPosition(index));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -2,41 +2,133 @@ package sortpom.wrapper;
 
 import org.jdom.Element;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-import static sortpom.wrapper.ElementUtil.getDeepName;
-
 /**
  * All elements from the chosen sort order (from predefined sort order or custom sort order) are placed in this map
  * along with an index that describes in which order the elements should be sorted.
+ * <p>
+ * The elements are stored as a tree of element names (a trie), so that the sort order of an element can be found
+ * by a single lookup from the node of its parent element. The map is immutable once it is created, so that it can
+ * be shared between sort operations through the SortOrderCache.
  */
 class ElementSortOrderMap {
-    /** Contains sort order element names and their index. */
-    private final Map<String, Integer> elementNameSortOrderMap = new HashMap<>();
+    /** Used before a sort order is chosen, no element is sorted by the sort order */
+    static final ElementSortOrderMap EMPTY = new ElementSortOrderMap(new Node(0), null);
+
+    /** How much the sort order index should increase for each element type */
+    private static final int SORT_ORDER_INCREMENT = 100;
+
+    /** Start value for sort order index. */
+    private static final int SORT_ORDER_BASE = 1000;
+
+    /** Contains the root element of the sort order as its only child */
+    private final Node documentNode;
+    /** The digest of the sort order content, null if the content is not known */
+    private final String digest;
+
+    private ElementSortOrderMap(Node documentNode, String digest) {
+        this.documentNode = documentNode;
+        this.digest = digest;
+    }
 
     /**
-     * Add an Xml element to the map
+     * Creates a map from the root element of a sort order document
      *
-     * @param element   Xml element
-     * @param sortOrder an index describing the sort order (lower number == element towards the start of the file)
+     * @param sortOrderRootElement the root element of the chosen sort order
      */
-    public void addElement(Element element, int sortOrder) {
-        final String deepName = getDeepName(element);
-        elementNameSortOrderMap.put(deepName, sortOrder);
+    static ElementSortOrderMap create(Element sortOrderRootElement) {
+        return create(sortOrderRootElement, null);
+    }
 
+    /**
+     * Creates a map from the root element of a sort order document
+     *
+     * @param sortOrderRootElement the root element of the chosen sort order
+     * @param digest               the digest of the sort order content, kept together with the compiled map
+     */
+    static ElementSortOrderMap create(Element sortOrderRootElement, String digest) {
+        Node documentNode = new Node(0);
+        addElement(documentNode, sortOrderRootElement, SORT_ORDER_BASE);
+        return new ElementSortOrderMap(documentNode, digest);
     }
 
-    /** Returns true if element is in the map */
-    public boolean containsElement(Element element) {
-        String deepName = getDeepName(element);
-        return elementNameSortOrderMap.containsKey(deepName);
+    /**
+     * Processes the chosen sort order. Adds sort order element and sort index to
+     * the node of its parent element.
+     */
+    @SuppressWarnings("unchecked")
+    private static void addElement(Node parentNode, Element element, int baseSortOrder) {
+        Node node = parentNode.addChild(element.getName(), baseSortOrder);
+        // Increments the sort order index for each element
+        int sortOrder = baseSortOrder;
+        for (Element child : (Iterable<Element>) element.getChildren()) {
+            sortOrder += SORT_ORDER_INCREMENT;
+            addElement(node, child, sortOrder);
+        }
     }
 
-    /** Gets the index describing the sort order (lower number == element towards the start of the file) */
-    public int getSortOrder(Element element) {
-        String deepName = getDeepName(element);
-        return elementNameSortOrderMap.get(deepName);
+    /** Returns the digest of the sort order content, null if the content is not known */
+    String getDigest() {
+        return digest;
     }
 
+    /** Returns the node that contains the root element of the sort order */
+    Node getDocumentNode() {
+        return documentNode;
+    }
+
+    /**
+     * Finds the node of an element by following the parents of the element. Used when the node of the parent
+     * element is not known.
+     *
+     * @return the node of the element or null if the element is not in the sort order
+     */
+    Node getNode(Element element) {
+        Element parent = element.getParentElement();
+        Node parentNode = parent == null ? documentNode : getNode(parent);
+        return parentNode == null ? null : parentNode.getChild(element.getName());
+    }
+
+    /** An element in the sort order */
+    static final class Node {
+        private Map<String, Node> children = Collections.emptyMap();
+        private int sortOrder;
+
+        private Node(int sortOrder) {
+            this.sortOrder = sortOrder;
+        }
+
+        /** If the same element occurs twice in the sort order, the last sort order index is used */
+        private Node addChild(String name, int sortOrder) {
+            if (children.isEmpty()) {
+                children = new HashMap<>();
+            }
+            Node child = children.computeIfAbsent(name, n -> new Node(sortOrder));
+            child.sortOrder = sortOrder;
+            return child;
+        }
+
+        /**
+         * Returns the node of a child element
+         *
+         * @param name the name of the child element
+         * @return the child node or null if the child element is not in the sort order
+         */
+        Node getChild(String name) {
+            return children.get(name);
+        }
+
+        /** Returns false if no element below this element is in the sort order */
+        boolean hasChildren() {
+            return !children.isEmpty();
+        }
+
+        /** Gets the index describing the sort order (lower number == element towards the start of the file) */
+        int getSortOrder() {
+            return sortOrder;
+        }
+    }
 }
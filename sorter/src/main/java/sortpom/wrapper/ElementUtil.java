@@ -13,14 +13,6 @@ final class ElementUtil {
     private ElementUtil() {
     }
 
-    /** Returns fully qualified name for an Xml element. */
-    static String getDeepName(final Element element) {
-        if (element == null) {
-            return "";
-        }
-        return getDeepName(element.getParentElement()) + '/' + element.getName();
-    }
-
     /** Returns true if an elements parents name is same as argument */
     static boolean isElementParentName(Element element, String name) {
         Element parent = element.getParentElement();
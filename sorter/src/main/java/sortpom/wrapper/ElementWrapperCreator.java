@@ -16,13 +16,6 @@ public class ElementWrapperCreator {
     private DependencySortOrder sortPlugins;
     private boolean sortProperties;
     private boolean sortModules;
-    
-    private final ElementSortOrderMap elementNameSortOrderMap;
-
-
-    ElementWrapperCreator(ElementSortOrderMap elementNameSortOrderMap) {
-        this.elementNameSortOrderMap = elementNameSortOrderMap;
-    }
 
     public void setup(PluginParameters pluginParameters) {
         this.sortDependencies = pluginParameters.sortDependencies;
@@ -31,30 +24,51 @@ public class ElementWrapperCreator {
         this.sortModules = pluginParameters.sortModules;
     }
 
-    Wrapper<Element> createWrapper(Element element) {
-        boolean sortedBySortOrderFile = elementNameSortOrderMap.containsElement(element);
-        if (sortedBySortOrderFile) {
+    /**
+     * Creates a wrapper for an element
+     *
+     * @param element       the element
+     * @param sortOrderNode the element in the sort order, or null if the element is not in the sort order
+     * @param parentPath    the properties path of the parent element
+     */
+    Wrapper<Element> createWrapper(Element element, ElementSortOrderMap.Node sortOrderNode, PropertiesPath parentPath) {
+        if (sortOrderNode != null) {
+            int sortOrder = sortOrderNode.getSortOrder();
             if (isDependencyElement(element)) {
-                DependencySortedWrapper dependencySortedWrapper = new DependencySortedWrapper(element, elementNameSortOrderMap.getSortOrder(element));
+                DependencySortedWrapper dependencySortedWrapper = new DependencySortedWrapper(element, sortOrder);
                 dependencySortedWrapper.setSortOrder(sortDependencies);
                 return dependencySortedWrapper;
             }
             if (isPluginElement(element)) {
-                PluginSortedWrapper pluginSortedWrapper = new PluginSortedWrapper(element, elementNameSortOrderMap.getSortOrder(element));
+                PluginSortedWrapper pluginSortedWrapper = new PluginSortedWrapper(element, sortOrder);
                 pluginSortedWrapper.setSortOrder(sortPlugins);
                 return pluginSortedWrapper;
             }
             if(isModuleElement(element)) {
-                return new ModuleSortedWrapper(element, elementNameSortOrderMap.getSortOrder(element));
+                return new ModuleSortedWrapper(element, sortOrder);
             }
-            return new SortedWrapper(element, elementNameSortOrderMap.getSortOrder(element));
+            return new SortedWrapper(element, sortOrder);
         }
-        if (isPropertyElement(element)) {
+        if (isPropertyElement(element, parentPath)) {
             return new AlphabeticalSortedWrapper(element);
         }
         return new UnsortedWrapper<>(element);
     }
 
+    /**
+     * Finds out if any element in the content of an element, on any level, would get a sorted wrapper. Elements
+     * are only sorted if they are in the sort order or if they are properties.
+     *
+     * @param sortOrderNode the element in the sort order, or null if the element is not in the sort order
+     * @param path          the properties path of the element
+     */
+    boolean canContainSortedElements(ElementSortOrderMap.Node sortOrderNode, PropertiesPath path) {
+        if (sortOrderNode != null && sortOrderNode.hasChildren()) {
+            return true;
+        }
+        return sortProperties && path != PropertiesPath.OTHER;
+    }
+
     private boolean isDependencyElement(final Element element) {
         if (sortDependencies.isNoSorting()) {
             return false;
@@ -79,14 +93,11 @@ public class ElementWrapperCreator {
         return isElementName(element, "module") && isElementParentName(element, "modules");
     }
 
-    private boolean isPropertyElement(final Element element) {
+    private boolean isPropertyElement(final Element element, PropertiesPath parentPath) {
         if (!sortProperties) {
             return false;
         }
-        String deepName = getDeepName(element);
-        boolean inTheRightPlace = deepName.startsWith("/project/properties/")
-                || deepName.startsWith("/project/profiles/profile/properties/");
-        return inTheRightPlace && isElementParentName(element, "properties");
+        return parentPath == PropertiesPath.PROPERTIES && isElementParentName(element, "properties");
     }
 
 }
@@ -0,0 +1,41 @@
+package sortpom.wrapper;
+
+import org.jdom.Element;
+
+/**
+ * Follows the path of an element to find out if it is placed where properties are sorted, that is under
+ * /project/properties or /project/profiles/profile/properties. The path is followed one element name at a time,
+ * so that no element names have to be concatenated.
+ */
+enum PropertiesPath {
+    DOCUMENT, PROJECT, PROFILES, PROFILE, PROPERTIES, OTHER;
+
+    /** Returns the path of a child element with the given name */
+    PropertiesPath child(String name) {
+        switch (this) {
+            case DOCUMENT:
+                return "project".equals(name) ? PROJECT : OTHER;
+            case PROJECT:
+                if ("properties".equals(name)) {
+                    return PROPERTIES;
+                }
+                return "profiles".equals(name) ? PROFILES : OTHER;
+            case PROFILES:
+                return "profile".equals(name) ? PROFILE : OTHER;
+            case PROFILE:
+                return "properties".equals(name) ? PROPERTIES : OTHER;
+            case PROPERTIES:
+                return PROPERTIES;
+            default:
+                return OTHER;
+        }
+    }
+
+    /** Returns the path of an element by following its parents, null gives the path of the document */
+    static PropertiesPath of(Element element) {
+        if (element == null) {
+            return DOCUMENT;
+        }
+        return of(element.getParentElement()).child(element.getName());
+    }
+}
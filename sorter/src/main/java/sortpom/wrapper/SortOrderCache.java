@@ -0,0 +1,54 @@
+package sortpom.wrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Process wide cache of compiled sort orders, so that the sort order file is only read and parsed once even if
+ * many pom files are sorted (for example in a large multi module build). The cache is shared by all
+ * WrapperFactoryImpl instances and is thread safe. The least recently used sort order is evicted when the
+ * cache is full.
+ *
+ * @author bjorn
+ */
+final class SortOrderCache {
+    /** Most builds use one sort order, custom sort order files may change during the lifetime of a daemon though */
+    static final int MAX_ENTRIES = 32;
+
+    private static final Map<String, ElementSortOrderMap> CACHE = new LinkedHashMap<String, ElementSortOrderMap>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ElementSortOrderMap> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /** Hidden constructor */
+    private SortOrderCache() {
+    }
+
+    /**
+     * Returns the compiled sort order for the key. The sort order is compiled outside the lock, if two threads
+     * compile the same sort order at the same time then the first result is kept.
+     *
+     * @param key      identifies the sort order source, see FileUtil.getSortOrderCacheKey
+     * @param compiler compiles the sort order if it is not in the cache, exceptions are not cached
+     */
+    static ElementSortOrderMap get(String key, Supplier<ElementSortOrderMap> compiler) {
+        ElementSortOrderMap elementSortOrderMap = getCached(key);
+        if (elementSortOrderMap != null) {
+            return elementSortOrderMap;
+        }
+        return putIfAbsent(key, compiler.get());
+    }
+
+    private static synchronized ElementSortOrderMap getCached(String key) {
+        return CACHE.get(key);
+    }
+
+    private static synchronized ElementSortOrderMap putIfAbsent(String key, ElementSortOrderMap elementSortOrderMap) {
+        return CACHE.computeIfAbsent(key, k -> elementSortOrderMap);
+    }
+}
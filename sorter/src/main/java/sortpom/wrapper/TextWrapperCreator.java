@@ -29,7 +29,27 @@ public class TextWrapperCreator {
     }
 
     private boolean isSingleNewLine(Text content) {
-        return content.getText().matches("[\\t ]*[\\r]?[\\n]?[\\t ]*");
+        return isSingleNewLine(content.getText());
+    }
+
+    /** Same as matching the regular expression [\t ]*[\r]?[\n]?[\t ]* */
+    boolean isSingleNewLine(String text) {
+        int i = skipTabsAndSpaces(text, 0);
+        if (i < text.length() && text.charAt(i) == '\r') {
+            i++;
+        }
+        if (i < text.length() && text.charAt(i) == '\n') {
+            i++;
+        }
+        return skipTabsAndSpaces(text, i) == text.length();
+    }
+
+    private static int skipTabsAndSpaces(String text, int index) {
+        int i = index;
+        while (i < text.length() && (text.charAt(i) == '\t' || text.charAt(i) == ' ')) {
+            i++;
+        }
+        return i;
     }
 
     boolean isBlankLineOrLines(Text content) {
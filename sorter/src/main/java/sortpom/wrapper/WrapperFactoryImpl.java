@@ -2,6 +2,7 @@ package sortpom.wrapper;
 
 import org.jdom.*;
 import org.jdom.input.SAXBuilder;
+import sortpom.cache.SortResultCache;
 import sortpom.exception.FailureException;
 import sortpom.parameter.PluginParameters;
 import sortpom.util.FileUtil;
@@ -11,8 +12,8 @@ import sortpom.wrapper.operation.HierarchyRootWrapper;
 import sortpom.wrapper.operation.WrapperFactory;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 /**
  * Concrete implementation of a wrapper factory that sorts xml according to
@@ -24,17 +25,15 @@ import java.util.List;
  */
 public class WrapperFactoryImpl implements WrapperFactory {
 
-    /** How much the sort order index should increase for each element type */
-    private static final int SORT_ORDER_INCREMENT = 100;
-
-    /** Start value for sort order index. */
-    private static final int SORT_ORDER_BASE = 1000;
-
     private final FileUtil fileUtil;
 
-    private final ElementSortOrderMap elementSortOrderMap = new ElementSortOrderMap();
-    private final ElementWrapperCreator elementWrapperCreator = new ElementWrapperCreator(elementSortOrderMap);
+    private final ElementWrapperCreator elementWrapperCreator = new ElementWrapperCreator();
     private final TextWrapperCreator textWrapperCreator = new TextWrapperCreator();
+    /**
+     * The factory is shared by concurrent sorts. The sort order map only changes if a custom sort order file is
+     * changed, and then a concurrent sort may see either version.
+     */
+    private volatile ElementSortOrderMap elementSortOrderMap = ElementSortOrderMap.EMPTY;
 
     /**
      * Instantiates a new wrapper factory impl.
@@ -57,11 +56,30 @@ public class WrapperFactoryImpl implements WrapperFactory {
         return new HierarchyRootWrapper(create(rootElement));
     }
 
-    /** Creates sort order map from chosen sort order. */
+    /** Gets the chosen sort order from the sort order cache, the sort order is compiled if it is not cached. */
     private void initializeSortOrderMap() {
+        elementSortOrderMap = getSortOrderMap();
+    }
+
+    private ElementSortOrderMap getSortOrderMap() {
+        return SortOrderCache.get(fileUtil.getSortOrderCacheKey(), this::compileSortOrderMap);
+    }
+
+    /**
+     * Returns the digest of the chosen sort order content. The digest is cached together with the compiled sort
+     * order, so the sort order is only read once.
+     */
+    public String getSortOrderDigest() {
+        return getSortOrderMap().getDigest();
+    }
+
+    /** Creates sort order map from chosen sort order. */
+    private ElementSortOrderMap compileSortOrderMap() {
         try {
-            Document document = createDocumentFromDefaultSortOrderFile();
-            addElementsToSortOrderMap(document.getRootElement(), SORT_ORDER_BASE);
+            String sortOrderXml = fileUtil.getDefaultSortOrderXml();
+            String digest = Base64.getEncoder().encodeToString(
+                    SortResultCache.digest(sortOrderXml.getBytes(StandardCharsets.UTF_8)));
+            return ElementSortOrderMap.create(createDocument(sortOrderXml).getRootElement(), digest);
         } catch (IOException | JDOMException e) {
             throw new FailureException(e.getMessage(), e);
         }
@@ -69,34 +87,47 @@ public class WrapperFactoryImpl implements WrapperFactory {
 
     Document createDocumentFromDefaultSortOrderFile()
             throws JDOMException, IOException {
-        try (Reader reader = new StringReader(fileUtil.getDefaultSortOrderXml())) {
+        return createDocument(fileUtil.getDefaultSortOrderXml());
+    }
+
+    private static Document createDocument(String sortOrderXml) throws JDOMException, IOException {
+        try (Reader reader = new StringReader(sortOrderXml)) {
             SAXBuilder parser = new SAXBuilder();
             return parser.build(reader);
         }
     }
 
     /**
-     * Processes the chosen sort order. Adds sort order element and sort index to
-     * a map.
+     * Creates a wrapper for content anywhere in the xml structure. The sort order of an element is found by
+     * following the parents of the element, use createSubFactory to traverse the structure.
+     *
+     * @see WrapperFactory#create(org.jdom.Content)
      */
-    private void addElementsToSortOrderMap(final Element element, int baseSortOrder) {
-        elementSortOrderMap.addElement(element, baseSortOrder);
-        final List<Element> castToChildElementList = castToChildElementList(element);
-        // Increments the sort order index for each element
-        int sortOrder = baseSortOrder;
-        for (Element child : castToChildElementList) {
-            sortOrder += SORT_ORDER_INCREMENT;
-            addElementsToSortOrderMap(child, sortOrder);
-        }
-    }
-
-    /** @see WrapperFactory#create(org.jdom.Content) */
     @SuppressWarnings("unchecked")
     @Override
     public <T extends Content> Wrapper<T> create(final T content) {
         if (content instanceof Element) {
-            return (Wrapper<T>) elementWrapperCreator.createWrapper((Element) content);
+            Element element = (Element) content;
+            return (Wrapper<T>) elementWrapperCreator.createWrapper(element,
+                    elementSortOrderMap.getNode(element), PropertiesPath.of(element.getParentElement()));
         }
+        return createOtherWrapper(content);
+    }
+
+    /** @see WrapperFactory#createSubFactory(Element) */
+    @Override
+    public WrapperFactory createSubFactory(final Element element) {
+        return new ElementContentWrapperFactory(elementSortOrderMap.getNode(element), PropertiesPath.of(element));
+    }
+
+    /** @see WrapperFactory#isDiscardedText(String) */
+    @Override
+    public boolean isDiscardedText(final String text) {
+        return textWrapperCreator.isSingleNewLine(text);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Content> Wrapper<T> createOtherWrapper(final T content) {
         if (content instanceof Comment) {
             return new UnsortedWrapper<>(content);
         }
@@ -107,12 +138,51 @@ public class WrapperFactoryImpl implements WrapperFactory {
     }
 
     /**
-     * Performs getChildren for an element and casts the result to ArrayList of
-     * Elements.
+     * Creates wrappers for the content of one element. The factory keeps track of where the element is placed in
+     * the sort order, so that each child element is found with one lookup.
      */
-    @SuppressWarnings("unchecked")
-    private List<Element> castToChildElementList(final Element element) {
-        return new ArrayList<>(element.getChildren());
-    }
+    private class ElementContentWrapperFactory implements WrapperFactory {
+        /** The node of the element in the sort order, null if the element is not in the sort order */
+        private final ElementSortOrderMap.Node sortOrderNode;
+        private final PropertiesPath propertiesPath;
+
+        private ElementContentWrapperFactory(ElementSortOrderMap.Node sortOrderNode, PropertiesPath propertiesPath) {
+            this.sortOrderNode = sortOrderNode;
+            this.propertiesPath = propertiesPath;
+        }
+
+        @Override
+        public HierarchyRootWrapper createFromRootElement(Element rootElement) {
+            return WrapperFactoryImpl.this.createFromRootElement(rootElement);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends Content> Wrapper<T> create(T content) {
+            if (content instanceof Element) {
+                Element element = (Element) content;
+                return (Wrapper<T>) elementWrapperCreator.createWrapper(element, getChildNode(element), propertiesPath);
+            }
+            return createOtherWrapper(content);
+        }
 
+        @Override
+        public WrapperFactory createSubFactory(Element element) {
+            return new ElementContentWrapperFactory(getChildNode(element), propertiesPath.child(element.getName()));
+        }
+
+        @Override
+        public boolean isDiscardedText(String text) {
+            return textWrapperCreator.isSingleNewLine(text);
+        }
+
+        @Override
+        public boolean canContainSortedElements() {
+            return elementWrapperCreator.canContainSortedElements(sortOrderNode, propertiesPath);
+        }
+
+        private ElementSortOrderMap.Node getChildNode(Element element) {
+            return sortOrderNode == null ? null : sortOrderNode.getChild(element.getName());
+        }
+    }
 }
@@ -3,26 +3,44 @@ package sortpom.wrapper.content;
 import org.jdom.Element;
 import sortpom.parameter.DependencySortOrder;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
 
 /**
+ * Sorts dependencies and plugins by the text of their child elements. The sort key is computed once, when
+ * the sorter is created, so that comparing two sorters neither allocates objects nor formats strings.
+ *
  * @author bjorn
  * @since 2012-09-20
  */
 public class ChildElementSorter {
     static final ChildElementSorter EMPTY_SORTER = new ChildElementSorter();
     private static final String GROUP_ID_NAME = "GROUPID";
+    private static final String SCOPE_NAME = "SCOPE";
+    private static final int NO_SCOPE = -1;
 
-    private final LinkedHashMap<String, String> childElementTextMappedBySortedNames = new LinkedHashMap<>();
-    private final List<String> prioritizedGroups;
+    /** The child element texts in sort order, only used for debugging */
+    private final String[] childElementTexts;
+    /** Case folded child element texts, where groupIds are adjusted by prioritized groups */
+    private final String[] comparableTexts;
+    /** Index of the scope element in the sort order, the scope is compared by scopeOrdinal instead of text */
+    private final int scopeIndex;
+    private final int scopeOrdinal;
 
     public ChildElementSorter(DependencySortOrder dependencySortOrder, List<Element> children) {
+        this(dependencySortOrder, children, "");
+    }
+
+    /**
+     * @param dependencySortOrder the child element names to sort by and the prioritized groups
+     * @param children            the child elements of the sorted element
+     * @param emptyGroupIdValue   the groupId text to use if the groupId element is missing or empty
+     */
+    public ChildElementSorter(DependencySortOrder dependencySortOrder, List<Element> children, String emptyGroupIdValue) {
         Collection<String> childElementNames = dependencySortOrder.getChildElementNames();
+        LinkedHashMap<String, String> childElementTextMappedBySortedNames = new LinkedHashMap<>();
 
         childElementNames.forEach(name ->
                 childElementTextMappedBySortedNames.put(name.toUpperCase(), ""));
@@ -30,39 +48,51 @@ public class ChildElementSorter {
         children.forEach(element ->
                 childElementTextMappedBySortedNames.replace(element.getName().toUpperCase(), element.getText()));
 
-        this.prioritizedGroups = dependencySortOrder.getPrioritizedGroups();
+        childElementTextMappedBySortedNames.computeIfPresent(GROUP_ID_NAME, (k, oldValue) -> oldValue.isEmpty() ? emptyGroupIdValue : oldValue);
+
+        List<String> prioritizedGroups = dependencySortOrder.getPrioritizedGroups();
+        int size = childElementTextMappedBySortedNames.size();
+        this.childElementTexts = childElementTextMappedBySortedNames.values().toArray(new String[size]);
+        this.comparableTexts = new String[size];
+
+        int scopeIndexFound = NO_SCOPE;
+        int index = 0;
+        for (String name : childElementTextMappedBySortedNames.keySet()) {
+            String text = childElementTexts[index];
+            if (SCOPE_NAME.equals(name)) {
+                scopeIndexFound = index;
+            } else if (GROUP_ID_NAME.equals(name)) {
+                comparableTexts[index] = foldCase(adjustGroupPrecedence(prioritizedGroups, text));
+            } else {
+                comparableTexts[index] = foldCase(text);
+            }
+            index++;
+        }
+        this.scopeIndex = scopeIndexFound;
+        this.scopeOrdinal = scopeIndexFound == NO_SCOPE ? 0 : Scope.getScope(childElementTexts[scopeIndexFound]).ordinal();
     }
 
     private ChildElementSorter() {
-        this.prioritizedGroups = Collections.emptyList();
+        this.childElementTexts = new String[0];
+        this.comparableTexts = new String[0];
+        this.scopeIndex = NO_SCOPE;
+        this.scopeOrdinal = 0;
     }
 
     boolean compareTo(ChildElementSorter otherChildElementSorter) {
-        Function<Map.Entry<String, String>, String> getOtherTextFunc = entry ->
-                otherChildElementSorter.childElementTextMappedBySortedNames.get(entry.getKey());
-
-        int compare = childElementTextMappedBySortedNames.entrySet().stream()
-                .map(entry -> compareTexts(entry.getKey(), entry.getValue(), getOtherTextFunc.apply(entry)))
-                .filter(i -> i != 0)
-                .findFirst()
-                .orElse(0);
-
-        return compare < 0;
-    }
-
-    private int compareTexts(String key, String text, String otherText) {
-        if ("scope".equalsIgnoreCase(key)) {
-            return compareScope(text, otherText);
-        }
-        if (GROUP_ID_NAME.equalsIgnoreCase(key)) {
-            text = adjustGroupPrecedence(text);
-            otherText = adjustGroupPrecedence(otherText);
+        int size = Math.min(comparableTexts.length, otherChildElementSorter.comparableTexts.length);
+        for (int i = 0; i < size; i++) {
+            int compare = i == scopeIndex
+                    ? Integer.compare(scopeOrdinal, otherChildElementSorter.scopeOrdinal)
+                    : comparableTexts[i].compareTo(otherChildElementSorter.comparableTexts[i]);
+            if (compare != 0) {
+                return compare < 0;
+            }
         }
-
-        return text.compareToIgnoreCase(otherText);
+        return false;
     }
 
-    private String adjustGroupPrecedence(String text) {
+    private static String adjustGroupPrecedence(List<String> prioritizedGroups, String text) {
         for (int index = 0; index < prioritizedGroups.size(); index++) {
             String s = prioritizedGroups.get(index);
             if (text.equals(s) || text.startsWith(s + ".")) {
@@ -72,18 +102,29 @@ public class ChildElementSorter {
         return text;
     }
 
-    private int compareScope(String childElementText, String otherChildElementText) {
-        return Scope.getScope(childElementText).compareTo(Scope.getScope(otherChildElementText));
-    }
-
-    void setEmptyPluginGroupIdValue(String defaultValue) {
-        childElementTextMappedBySortedNames.computeIfPresent(GROUP_ID_NAME, (k, oldValue) -> oldValue.isEmpty() ? defaultValue : oldValue);
+    /**
+     * Folds each character the same way as String.compareToIgnoreCase does, so that String.compareTo on
+     * folded texts gives the same result as String.compareToIgnoreCase on the original texts.
+     */
+    private static String foldCase(String text) {
+        char[] chars = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c) {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return chars == null ? text : new String(chars);
     }
 
     @Override
     public String toString() {
         return "ChildElementSorter{" +
-                "childElementTexts=" + childElementTextMappedBySortedNames.values() +
+                "childElementTexts=" + Arrays.toString(childElementTexts) +
                 '}';
     }
 
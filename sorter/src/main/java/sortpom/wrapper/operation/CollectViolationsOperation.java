@@ -0,0 +1,110 @@
+package sortpom.wrapper.operation;
+
+import org.jdom.Element;
+import sortpom.verify.OrderViolations;
+import sortpom.wrapper.content.Wrapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Xml hierarchy operation that finds every element that the sort would move, without moving anything. The
+ * children of each element are sorted in a copy of the child list, and each child that gets another position is
+ * added to the violations together with its xpath.
+ * Used in HierarchyWrapper.processOperation(HierarchyWrapperOperation operation)
+ */
+class CollectViolationsOperation implements HierarchyWrapperOperation {
+    /** Shared by all levels of the hierarchy, so that it counts all comparisons */
+    private final SortChildrenOperation sortChildrenOperation;
+    private final OrderViolations violations;
+    /** The xpaths of the elements on this level, null for the root element */
+    private final Map<Wrapper<Element>, String> xpaths;
+    private String xpath;
+    private Map<Wrapper<Element>, String> childXpaths;
+
+    /** Initial element does not have any parent */
+    CollectViolationsOperation(OrderViolations violations) {
+        this(new SortChildrenOperation(), violations, null);
+    }
+
+    private CollectViolationsOperation(SortChildrenOperation sortChildrenOperation, OrderViolations violations,
+                                       Map<Wrapper<Element>, String> xpaths) {
+        this.sortChildrenOperation = sortChildrenOperation;
+        this.violations = violations;
+        this.xpaths = xpaths;
+    }
+
+    /** Remember the xpath of the element, so that the xpaths of its children can be created */
+    @Override
+    public void processElement(Wrapper<Element> element) {
+        xpath = xpaths == null ? "/" + element.getContent().getName() : xpaths.get(element);
+    }
+
+    /** Compare the order of the children with their sorted order */
+    @Override
+    public void manipulateChildElements(List<HierarchyWrapper> children) {
+        childXpaths = createChildXpaths(children);
+        if (children.size() < 2) {
+            return;
+        }
+        List<HierarchyWrapper> sortedChildren = new ArrayList<>(children);
+        sortChildrenOperation.manipulateChildElements(sortedChildren);
+
+        Map<HierarchyWrapper, Integer> sortedPositions = null;
+        for (int i = 0; i < children.size(); i++) {
+            HierarchyWrapper child = children.get(i);
+            if (sortedChildren.get(i) != child && child.getElementContent() != null) {
+                if (sortedPositions == null) {
+                    sortedPositions = createPositions(sortedChildren);
+                }
+                violations.add(childXpaths.get(child.getElementContent()), i + 1, sortedPositions.get(child) + 1);
+            }
+        }
+    }
+
+    /** Element names that occur more than once among the children get an index, just as in xpath */
+    private Map<Wrapper<Element>, String> createChildXpaths(List<HierarchyWrapper> children) {
+        Map<String, int[]> nameCounts = new HashMap<>();
+        children.stream()
+                .filter(child -> child.getElementContent() != null)
+                .forEach(child -> nameCounts.computeIfAbsent(getName(child), name -> new int[2])[0]++);
+
+        Map<Wrapper<Element>, String> childXpathMap = new IdentityHashMap<>();
+        for (HierarchyWrapper child : children) {
+            if (child.getElementContent() != null) {
+                String name = getName(child);
+                int[] nameCount = nameCounts.get(name);
+                nameCount[1]++;
+                childXpathMap.put(child.getElementContent(),
+                        nameCount[0] == 1 ? xpath + "/" + name : xpath + "/" + name + "[" + nameCount[1] + "]");
+            }
+        }
+        return childXpathMap;
+    }
+
+    private static String getName(HierarchyWrapper child) {
+        return child.getElementContent().getContent().getName();
+    }
+
+    private static Map<HierarchyWrapper, Integer> createPositions(List<HierarchyWrapper> children) {
+        Map<HierarchyWrapper, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < children.size(); i++) {
+            positions.put(children.get(i), i);
+        }
+        return positions;
+    }
+
+    /** The sub operation gets the xpaths of the children */
+    @Override
+    public HierarchyWrapperOperation createSubOperation() {
+        return new CollectViolationsOperation(sortChildrenOperation, violations, childXpaths);
+    }
+
+    /** The number of times that Wrapper.isBefore was called during the traversal */
+    long getComparisonCount() {
+        return sortChildrenOperation.getComparisonCount();
+    }
+}
@@ -26,4 +26,11 @@ class DetachOperation implements HierarchyWrapperOperation {
         content.removeContent();
     }
 
+    /** Detach the xml element but keep its content, which is formatted as if it had been detached */
+    @Override
+    public void processElementWithKeptContent(Wrapper<Element> elementWrapper, KeptContent keptContent) {
+        elementWrapper.getContent().detach();
+        keptContent.formatText();
+    }
+
 }
@@ -1,8 +1,12 @@
 package sortpom.wrapper.operation;
 
+import org.jdom.Content;
 import org.jdom.Element;
+import sortpom.verify.OrderViolations;
 import sortpom.wrapper.content.Wrapper;
 
+import java.util.function.Consumer;
+
 /**
  * Exposes the methods that are available to the root of the wrapper hierarchy. This also means that we always have an 
  * element as root element.
@@ -17,6 +21,58 @@ public class HierarchyRootWrapper extends HierarchyWrapper {
         super.createWrappedStructure(factory);
     }
 
+    /**
+     * Detaches, sorts attributes and elements, and creates a fresh xml structure in one traversal. Same as
+     * calling detachStructure, sortStructureAttributes, sortStructureElements and connectXmlStructure.
+     *
+     * @return the number of times that wrappers were compared with Wrapper.isBefore
+     */
+    public long sortStructure() {
+        SortStructureOperation operation = new SortStructureOperation();
+        processOperation(operation);
+        return operation.getComparisonCount();
+    }
+
+    /**
+     * Checks if sortStructure would change the order of any element, without detaching or changing anything.
+     * The check stops at the first element that is out of order.
+     *
+     * @return if the structure is sorted and how many comparisons the check needed
+     */
+    public StructureOrder verifyStructureOrder() {
+        VerifyOrderOperation operation = new VerifyOrderOperation();
+        processOperation(operation);
+        return new StructureOrder(operation.isOrdered(), operation.getComparisonCount(), new OrderViolations());
+    }
+
+    /**
+     * Finds every element that sortStructure would move, without detaching or changing anything. Each element
+     * is compared with its sorted position among its siblings, in one traversal of the whole structure.
+     *
+     * @return if the structure is sorted, all violations and how many comparisons were needed
+     */
+    public StructureOrder collectOrderViolations() {
+        OrderViolations violations = new OrderViolations();
+        CollectViolationsOperation operation = new CollectViolationsOperation(violations);
+        processOperation(operation);
+        return new StructureOrder(violations.isEmpty(), operation.getComparisonCount(), violations);
+    }
+
+    /** Calls the visitor with every wrapper in the structure, elements as well as other content */
+    public void visitWrappers(Consumer<Wrapper<?>> visitor) {
+        processOperation(new HierarchyWrapperOperation() {
+            @Override
+            public void processOtherContent(Wrapper<Content> content) {
+                visitor.accept(content);
+            }
+
+            @Override
+            public void processElement(Wrapper<Element> element) {
+                visitor.accept(element);
+            }
+        });
+    }
+
     /** Sorts the attributes of the xml elements */
     public void sortStructureAttributes() {
         processOperation(new SortAttributesOperation());
@@ -17,13 +17,15 @@ class HierarchyWrapper {
     private Wrapper<Element> elementContent;
     private final List<Wrapper<Content>> otherContentList = new ArrayList<>();
     private final List<HierarchyWrapper> children = new ArrayList<>();
+    /** The content of the element if it is not wrapped, null if the content is wrapped as children */
+    private KeptContent keptContent;
 
     HierarchyWrapper(final Wrapper<? extends Content> wrapper) {
         addContent(wrapper);
     }
 
     @SuppressWarnings("unchecked")
-    private void addContent(final Wrapper<? extends Content> wrapper) {
+    void addContent(final Wrapper<? extends Content> wrapper) {
         if (wrapper.isContentElement()) {
             elementContent = (Wrapper<Element>) wrapper;
         } else {
@@ -32,11 +34,20 @@ class HierarchyWrapper {
 
     }
 
-    /** Traverses the initial xml element wrapper and builds hierarchy */
+    /**
+     * Traverses the initial xml element wrapper and builds hierarchy
+     *
+     * @param factory the factory that created the element wrapper
+     */
     void createWrappedStructure(final WrapperFactory factory) {
+        WrapperFactory childFactory = factory.createSubFactory(elementContent.getContent());
+        if (!childFactory.canContainSortedElements()) {
+            keptContent = new KeptContent(elementContent.getContent(), childFactory);
+            return;
+        }
         HierarchyWrapper currentWrapper = null;
         for (Content child : castToContentList(elementContent)) {
-            Wrapper<?> wrapper = factory.create(child);
+            Wrapper<?> wrapper = childFactory.create(child);
             if (wrapper instanceof SingleNewlineInTextWrapper) {
                 continue;
             }
@@ -47,12 +58,24 @@ class HierarchyWrapper {
                 currentWrapper.addContent(wrapper);
             }
             if (currentWrapper.containsElement()) {
-                currentWrapper.createWrappedStructure(factory);
+                currentWrapper.createWrappedStructure(childFactory);
                 currentWrapper = null;
             }
         }
     }
 
+    /**
+     * Sets the wrapped content of the element when the structure is built while the xml is parsed, see
+     * HierarchyWrapperBuilder
+     *
+     * @param children    the wrapped children of the element
+     * @param keptContent the content of the element if it is not wrapped, otherwise null
+     */
+    void setWrappedStructure(List<HierarchyWrapper> children, KeptContent keptContent) {
+        this.children.addAll(children);
+        this.keptContent = keptContent;
+    }
+
     @SuppressWarnings("unchecked")
     private List<Content> castToContentList(final Wrapper<Element> elementContent) {
         return new ArrayList<>(elementContent.getContent().getContent());
@@ -67,6 +90,11 @@ class HierarchyWrapper {
         return elementContent;
     }
 
+    /** Returns the wrapped children of the element, empty if the content of the element is kept */
+    List<HierarchyWrapper> getChildren() {
+        return children;
+    }
+
     /** Template method to traverse xml hierarchy */
     void processOperation(HierarchyWrapperOperation operation) {
         // Hook for start
@@ -76,8 +104,13 @@ class HierarchyWrapper {
         otherContentList.forEach(operation::processOtherContent);
 
         if (elementContent != null && elementContent.isContentElement()) {
-            // Hook to process element
-            operation.processElement(elementContent);
+            if (keptContent == null) {
+                // Hook to process element
+                operation.processElement(elementContent);
+            } else {
+                // Hook to process element whose content is not wrapped
+                operation.processElementWithKeptContent(elementContent, keptContent);
+            }
         }
 
         // Hook to manipulate the order of the children
@@ -87,6 +120,9 @@ class HierarchyWrapper {
         HierarchyWrapperOperation subOperation = operation.createSubOperation();
 
         for (HierarchyWrapper child : children) {
+            if (subOperation.isFinished()) {
+                break;
+            }
             child.processOperation(subOperation);
         }
 
@@ -0,0 +1,134 @@
+package sortpom.wrapper.operation;
+
+import org.jdom.Content;
+import org.jdom.Element;
+import sortpom.wrapper.content.SingleNewlineInTextWrapper;
+import sortpom.wrapper.content.Wrapper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Builds the wrapper hierarchy while the xml is parsed, which gives the same structure as
+ * HierarchyRootWrapper.createWrappedStructure without traversing the parsed xml once more. The parser reports
+ * the xml in document order: an element is reported when it starts and when it ends, and all other content is
+ * reported when it is added to its element.
+ * <p>
+ * An element is wrapped when it ends, since some wrappers (such as for dependencies) need the content of the
+ * element. Nothing is wrapped in the content of an element that cannot contain sorted elements.
+ */
+public class HierarchyWrapperBuilder {
+    private final WrapperFactory factory;
+    /** The elements that have started but not ended, except for elements in kept content */
+    private final Deque<Level> levels = new ArrayDeque<>();
+    private HierarchyRootWrapper rootWrapper;
+    /** The number of started elements in kept content, which are not wrapped */
+    private int keptDepth;
+
+    /** @param factory creates the wrappers of the parsed xml */
+    public HierarchyWrapperBuilder(WrapperFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns true if text with this value should not be added to the parsed xml, since it would be thrown away
+     * when the xml is sorted
+     */
+    public boolean isDiscardedText(String text) {
+        return factory.isDiscardedText(text);
+    }
+
+    /**
+     * Called when an element starts, after the element has been added to its parent and got its attributes
+     *
+     * @param element the element without content
+     */
+    public void startElement(Element element) {
+        Level parentLevel = levels.peek();
+        if (keptDepth > 0 || (parentLevel != null && parentLevel.keptContent != null)) {
+            keptDepth++;
+            return;
+        }
+        WrapperFactory contentFactory;
+        if (parentLevel == null) {
+            // The root element is wrapped at once, which also chooses the sort order
+            rootWrapper = factory.createFromRootElement(element);
+            contentFactory = factory.createSubFactory(element);
+        } else {
+            contentFactory = parentLevel.contentFactory.createSubFactory(element);
+        }
+        levels.push(new Level(element, contentFactory));
+    }
+
+    /**
+     * Called when content other than an element is added to an element
+     *
+     * @param content such as text, comments and processing instructions
+     * @return false if the content should not be added to the element, since it would be thrown away
+     */
+    public boolean addContent(Content content) {
+        Level level = levels.peek();
+        if (keptDepth > 0 || level.keptContent != null) {
+            return true;
+        }
+        Wrapper<Content> wrapper = level.contentFactory.create(content);
+        if (wrapper instanceof SingleNewlineInTextWrapper) {
+            return false;
+        }
+        level.add(wrapper);
+        return true;
+    }
+
+    /**
+     * Called when an element ends, when all of its content has been added
+     *
+     * @param element the element with content
+     */
+    public void endElement(Element element) {
+        if (keptDepth > 0) {
+            keptDepth--;
+            return;
+        }
+        Level level = levels.pop();
+        Level parentLevel = levels.peek();
+        HierarchyWrapper hierarchyWrapper = parentLevel == null
+                ? rootWrapper
+                : parentLevel.add(parentLevel.contentFactory.create(element));
+        hierarchyWrapper.setWrappedStructure(level.children, level.keptContent);
+    }
+
+    /** Returns the wrapped structure, when the root element has ended */
+    public HierarchyRootWrapper getRootWrapper() {
+        return rootWrapper;
+    }
+
+    /** An element whose content is being parsed */
+    private static final class Level {
+        private final WrapperFactory contentFactory;
+        private final List<HierarchyWrapper> children = new ArrayList<>();
+        /** The content of the element if nothing in it is sorted, otherwise null */
+        private final KeptContent keptContent;
+        /** Collects other content until the next element, the same as in createWrappedStructure */
+        private HierarchyWrapper currentWrapper;
+
+        private Level(Element element, WrapperFactory contentFactory) {
+            this.contentFactory = contentFactory;
+            this.keptContent = contentFactory.canContainSortedElements() ? null : new KeptContent(element, contentFactory);
+        }
+
+        /** Adds the wrapper to the children, and returns the hierarchy wrapper that contains it */
+        private HierarchyWrapper add(Wrapper<? extends Content> wrapper) {
+            HierarchyWrapper hierarchyWrapper = currentWrapper;
+            if (hierarchyWrapper == null) {
+                hierarchyWrapper = new HierarchyWrapper(wrapper);
+                children.add(hierarchyWrapper);
+            } else {
+                hierarchyWrapper.addContent(wrapper);
+            }
+            currentWrapper = wrapper.isContentElement() ? null : hierarchyWrapper;
+            return hierarchyWrapper;
+        }
+    }
+}
@@ -28,6 +28,15 @@ public interface HierarchyWrapperOperation {
     default void processElement(Wrapper<Element> element) {
     }
 
+    /** Override this if the operation wants to do something with an element whose content is not wrapped, since
+     * nothing in the content is sorted. Default is to process it as any other element.
+     * @param element the element being processed
+     * @param keptContent the content of the element, which is kept as it is
+     */
+    default void processElementWithKeptContent(Wrapper<Element> element, KeptContent keptContent) {
+        processElement(element);
+    }
+
     /** Override this if the operation want to manipulate the child elements of element being processed */
     default void manipulateChildElements(List<HierarchyWrapper> children) {
     }
@@ -44,4 +53,9 @@ public interface HierarchyWrapperOperation {
     default void endOfProcess() {
     }
 
+    /** Override this if the operation can stop before the whole xml hierarchy has been traversed */
+    default boolean isFinished() {
+        return false;
+    }
+
 }
@@ -0,0 +1,90 @@
+package sortpom.wrapper.operation;
+
+import org.jdom.Content;
+import org.jdom.Element;
+import org.jdom.Text;
+import sortpom.wrapper.content.SingleNewlineInTextWrapper;
+import sortpom.wrapper.content.Wrapper;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The content of an element that is kept as it is, since nothing in it is sorted. The content is not wrapped,
+ * detached or reconnected, instead the text is formatted in place the same way as the wrappers would have done.
+ */
+class KeptContent {
+    private final Element element;
+    private final WrapperFactory factory;
+
+    /**
+     * @param element the element whose content is kept
+     * @param factory creates the wrappers for the content of the element, the same wrappers are created on every
+     *                level below the element since nothing is sorted there
+     */
+    KeptContent(Element element, WrapperFactory factory) {
+        this.element = element;
+        this.factory = factory;
+    }
+
+    /**
+     * Removes single newlines and replaces blank lines in the text of the content, on all levels. The result is
+     * the same as when the content is wrapped, detached and reconnected.
+     */
+    void formatText() {
+        formatText(element);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void formatText(Element parent) {
+        List<Content> contentList = parent.getContent();
+        for (int i = contentList.size() - 1; i >= 0; i--) {
+            Content content = contentList.get(i);
+            if (content instanceof Element) {
+                formatText((Element) content);
+            } else if (content instanceof Text) {
+                Wrapper<Content> wrapper = factory.create(content);
+                if (wrapper instanceof SingleNewlineInTextWrapper) {
+                    contentList.remove(i);
+                } else if (wrapper.getContent() != content) {
+                    contentList.set(i, wrapper.getContent());
+                }
+            }
+        }
+    }
+
+    /**
+     * Wraps the content as it would have been wrapped if it was not kept, only used to describe the structure
+     *
+     * @param elementWrapper the wrapper of the element whose content is kept
+     * @return the wrapped children of the element
+     */
+    List<HierarchyWrapper> wrapChildren(Wrapper<Element> elementWrapper) {
+        HierarchyWrapper hierarchyWrapper = new HierarchyWrapper(elementWrapper);
+        hierarchyWrapper.createWrappedStructure(new WrapperFactory() {
+            @Override
+            public HierarchyRootWrapper createFromRootElement(Element rootElement) {
+                return factory.createFromRootElement(rootElement);
+            }
+
+            @Override
+            public <T extends Content> Wrapper<T> create(T content) {
+                return factory.create(content);
+            }
+        });
+        return hierarchyWrapper.getChildren();
+    }
+
+    /** Calls the visitor with every element in the content, on all levels */
+    void visitElements(Consumer<Element> visitor) {
+        visitElements(element, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void visitElements(Element parent, Consumer<Element> visitor) {
+        for (Element child : (List<Element>) parent.getChildren()) {
+            visitor.accept(child);
+            visitElements(child, visitor);
+        }
+    }
+}
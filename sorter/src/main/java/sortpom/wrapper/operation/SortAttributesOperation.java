@@ -21,10 +21,24 @@ class SortAttributesOperation implements HierarchyWrapperOperation {
     @Override
     public void processElement(Wrapper<Element> elementWrapper) {
         Element element = elementWrapper.getContent();
-        element.setAttributes(getSortedAttributes(element));
+        sortAttributes(element);
     }
 
-    private List<Attribute> getSortedAttributes(Element element) {
+    /** Sort attributes of the element and of every element in its content */
+    @Override
+    public void processElementWithKeptContent(Wrapper<Element> elementWrapper, KeptContent keptContent) {
+        sortAttributes(elementWrapper.getContent());
+        keptContent.visitElements(SortAttributesOperation::sortAttributes);
+    }
+
+    /** Elements with less than two attributes are already sorted */
+    private static void sortAttributes(Element element) {
+        if (element.getAttributes().size() > 1) {
+            element.setAttributes(getSortedAttributes(element));
+        }
+    }
+
+    private static List<Attribute> getSortedAttributes(Element element) {
         final List<Attribute> attributes = getAttributeList(element);
 
         attributes.forEach(Attribute::detach);
@@ -34,7 +48,7 @@ class SortAttributesOperation implements HierarchyWrapperOperation {
     }
 
     @SuppressWarnings("unchecked")
-    private List<Attribute> getAttributeList(final Element element) {
+    private static List<Attribute> getAttributeList(final Element element) {
         return new ArrayList<>(element.getAttributes());
     }
 
@@ -8,32 +8,91 @@ import java.util.List;
 /**
  * Xml hierarchy operation that all xml elements. Used by
  * Used in HierarchyWrapper.processOperation(HierarchyWrapperOperation operation)
+ * <p>
+ * The children are sorted with a stable merge sort. A sortable child is placed before another child if
+ * Wrapper.isBefore says so, unsortable children are never moved in front of another child. This gives the
+ * same order as inserting each sortable child before the first preceding child that it should be placed before,
+ * i.e. sortable children first and then the unsortable children in their original order.
+ *
  * @author bjorn
  * @since 2013-11-01
  */
 class SortChildrenOperation implements HierarchyWrapperOperation {
+    private long comparisonCount;
 
     /** Sort all children of an element */
     @Override
     public void manipulateChildElements(List<HierarchyWrapper> children) {
-        for (int i = 0; i < children.size(); i++) {
-            HierarchyWrapper wrapperImpl = children.get(i);
-            final Wrapper<Element> wrapper = wrapperImpl.getElementContent();
+        int size = children.size();
+        if (size < 2) {
+            return;
+        }
+        HierarchyWrapper[] sorted = children.toArray(new HierarchyWrapper[size]);
+        mergeSort(sorted, new HierarchyWrapper[size], 0, size);
+        for (int i = 0; i < size; i++) {
+            children.set(i, sorted[i]);
+        }
+    }
 
-            if (wrapper != null && wrapper.isSortable()) {
-                insertChildInSortedOrder(children, i, wrapperImpl, wrapper);
+    /**
+     * Finds the first child that the sort would move, without sorting. The merge sort only changes the order if a
+     * child should be placed before the preceding child, so the children are sorted if no such child exists.
+     *
+     * @return the index of the first child that should be placed before the preceding child, or -1 if none
+     */
+    int findFirstChildOutOfOrder(List<HierarchyWrapper> children) {
+        for (int i = 1; i < children.size(); i++) {
+            if (shouldBePlacedBefore(children.get(i), children.get(i - 1))) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    /** Sorts the range [from, to) of children, buffer is used as temporary storage during merge */
+    private void mergeSort(HierarchyWrapper[] children, HierarchyWrapper[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(children, buffer, from, middle);
+        mergeSort(children, buffer, middle, to);
 
+        if (!shouldBePlacedBefore(children[middle], children[middle - 1])) {
+            // Both halves are already in order
+            return;
+        }
+        merge(children, buffer, from, middle, to);
     }
 
-    private void insertChildInSortedOrder(List<HierarchyWrapper> children, int indexOfChild, HierarchyWrapper wrapperImpl, Wrapper<Element> wrapper) {
-        for (int j = 0; j < indexOfChild; j++) {
-            if (wrapper.isBefore(children.get(j).getElementContent())) {
-                children.remove(indexOfChild);
-                children.add(j, wrapperImpl);
-                return;
+    private void merge(HierarchyWrapper[] children, HierarchyWrapper[] buffer, int from, int middle, int to) {
+        System.arraycopy(children, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        int target = from;
+        while (left < middle && right < to) {
+            if (shouldBePlacedBefore(buffer[right], buffer[left])) {
+                children[target++] = buffer[right++];
+            } else {
+                children[target++] = buffer[left++];
             }
         }
+        System.arraycopy(buffer, left, children, target, middle - left);
+        System.arraycopy(buffer, right, children, target, to - right);
+    }
+
+    /** A child from the right half only passes a child from the left half if it is sortable and should be before */
+    private boolean shouldBePlacedBefore(HierarchyWrapper rightChild, HierarchyWrapper leftChild) {
+        Wrapper<Element> wrapper = rightChild.getElementContent();
+        if (wrapper == null || !wrapper.isSortable()) {
+            return false;
+        }
+        comparisonCount++;
+        return wrapper.isBefore(leftChild.getElementContent());
+    }
+
+    /** The number of times that Wrapper.isBefore has been called by this operation */
+    long getComparisonCount() {
+        return comparisonCount;
     }
 }
@@ -0,0 +1,74 @@
+package sortpom.wrapper.operation;
+
+import org.jdom.Content;
+import org.jdom.Element;
+import sortpom.wrapper.content.Wrapper;
+
+import java.util.List;
+
+/**
+ * Xml hierarchy operation that detaches, sorts and reconnects the xml structure in one traversal. Gives the same
+ * result as running DetachOperation, SortAttributesOperation, SortChildrenOperation and
+ * GetContentStructureOperation one after another, since each element is detached from its parent and emptied
+ * before its children are reconnected to it.
+ * Used in HierarchyWrapper.processOperation(HierarchyWrapperOperation operation)
+ */
+class SortStructureOperation implements HierarchyWrapperOperation {
+    private static final DetachOperation DETACH_OPERATION = new DetachOperation();
+    private static final SortAttributesOperation SORT_ATTRIBUTES_OPERATION = new SortAttributesOperation();
+
+    /** Keeps track of the parent element, which is different for each level of the hierarchy */
+    private final HierarchyWrapperOperation connectOperation;
+    /** Shared by all levels of the hierarchy, so that it counts all comparisons */
+    private final SortChildrenOperation sortChildrenOperation;
+
+    /** Initial element does not have any parent */
+    SortStructureOperation() {
+        this(new GetContentStructureOperation(), new SortChildrenOperation());
+    }
+
+    private SortStructureOperation(HierarchyWrapperOperation connectOperation, SortChildrenOperation sortChildrenOperation) {
+        this.connectOperation = connectOperation;
+        this.sortChildrenOperation = sortChildrenOperation;
+    }
+
+    /** Move each 'other content' to the new parent xml element */
+    @Override
+    public void processOtherContent(Wrapper<Content> content) {
+        DETACH_OPERATION.processOtherContent(content);
+        connectOperation.processOtherContent(content);
+    }
+
+    /** Detach the element, sort its attributes and add it to the new parent xml element */
+    @Override
+    public void processElement(Wrapper<Element> element) {
+        DETACH_OPERATION.processElement(element);
+        SORT_ATTRIBUTES_OPERATION.processElement(element);
+        connectOperation.processElement(element);
+    }
+
+    /** Detach the element, sort the attributes of the element and its content and add it to the new parent */
+    @Override
+    public void processElementWithKeptContent(Wrapper<Element> element, KeptContent keptContent) {
+        DETACH_OPERATION.processElementWithKeptContent(element, keptContent);
+        SORT_ATTRIBUTES_OPERATION.processElementWithKeptContent(element, keptContent);
+        connectOperation.processElement(element);
+    }
+
+    /** Sort all children of the element before they are processed */
+    @Override
+    public void manipulateChildElements(List<HierarchyWrapper> children) {
+        sortChildrenOperation.manipulateChildElements(children);
+    }
+
+    /** The sub operation gets active element as parent element */
+    @Override
+    public HierarchyWrapperOperation createSubOperation() {
+        return new SortStructureOperation(connectOperation.createSubOperation(), sortChildrenOperation);
+    }
+
+    /** The number of times that Wrapper.isBefore was called during the sort */
+    long getComparisonCount() {
+        return sortChildrenOperation.getComparisonCount();
+    }
+}
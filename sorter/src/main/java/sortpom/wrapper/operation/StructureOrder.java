@@ -0,0 +1,34 @@
+package sortpom.wrapper.operation;
+
+import sortpom.verify.OrderViolations;
+
+/**
+ * The result of HierarchyRootWrapper.verifyStructureOrder or collectOrderViolations, tells if sorting would
+ * change the order of the xml elements.
+ */
+public final class StructureOrder {
+    private final boolean ordered;
+    private final long comparisonCount;
+    private final OrderViolations violations;
+
+    StructureOrder(boolean ordered, long comparisonCount, OrderViolations violations) {
+        this.ordered = ordered;
+        this.comparisonCount = comparisonCount;
+        this.violations = violations;
+    }
+
+    /** Returns true if all xml elements are already in sorted order */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /** The number of times that wrappers were compared with Wrapper.isBefore */
+    public long getComparisonCount() {
+        return comparisonCount;
+    }
+
+    /** Every element that is out of order, empty if only the first violation was looked for */
+    public OrderViolations getViolations() {
+        return violations;
+    }
+}
@@ -54,6 +54,15 @@ class ToStringOperation implements HierarchyWrapperOperation {
         builder.append(baseIndent).append("elementContent=").append(elementWrapper).append("\n");
     }
 
+    /** Add the element and its kept content to string, the content is wrapped as if it was not kept */
+    @Override
+    public void processElementWithKeptContent(Wrapper<Element> elementWrapper, KeptContent keptContent) {
+        processElement(elementWrapper);
+        List<HierarchyWrapper> children = keptContent.wrapChildren(elementWrapper);
+        manipulateChildElements(children);
+        children.forEach(child -> child.processOperation(createSubOperation()));
+    }
+
     /** Add text before processing each child */
     @Override
     public void manipulateChildElements(List<HierarchyWrapper> children) {
@@ -0,0 +1,36 @@
+package sortpom.wrapper.operation;
+
+import java.util.List;
+
+/**
+ * Xml hierarchy operation that checks that the children of every element are already sorted, level by level.
+ * Nothing is moved or detached and the traversal stops at the first element that is out of order.
+ * Used in HierarchyWrapper.processOperation(HierarchyWrapperOperation operation)
+ */
+class VerifyOrderOperation implements HierarchyWrapperOperation {
+    /** Only used to compare children, in the same way as the sort does */
+    private final SortChildrenOperation sortChildrenOperation = new SortChildrenOperation();
+    private boolean ordered = true;
+
+    /** Check the order of all children of an element */
+    @Override
+    public void manipulateChildElements(List<HierarchyWrapper> children) {
+        if (ordered && sortChildrenOperation.findFirstChildOutOfOrder(children) >= 0) {
+            ordered = false;
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !ordered;
+    }
+
+    boolean isOrdered() {
+        return ordered;
+    }
+
+    /** The number of times that Wrapper.isBefore was called during the check */
+    long getComparisonCount() {
+        return sortChildrenOperation.getComparisonCount();
+    }
+}
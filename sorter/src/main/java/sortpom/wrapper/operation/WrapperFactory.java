@@ -17,4 +17,28 @@ public interface WrapperFactory {
     /** Creates wrapper around xml content. */
     <T extends Content> Wrapper<T> create(final T content);
 
+    /**
+     * Creates a factory for the content of an element, the element must be content that this factory creates
+     * wrappers for. Default behaviour is that the same factory is used for all content.
+     */
+    default WrapperFactory createSubFactory(final Element element) {
+        return this;
+    }
+
+    /**
+     * Returns true if text with this value would be thrown away instead of wrapped, so that the text never has to
+     * be created. Default behaviour is that all text is wrapped.
+     */
+    default boolean isDiscardedText(final String text) {
+        return false;
+    }
+
+    /**
+     * Returns false if no element in the content on any level would be sorted, the content is then kept as it is
+     * instead of being wrapped. Default behaviour is that any content can be sorted.
+     */
+    default boolean canContainSortedElements() {
+        return true;
+    }
+
 }
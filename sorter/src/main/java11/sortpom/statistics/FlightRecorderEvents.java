@@ -0,0 +1,84 @@
+package sortpom.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports the phases of one pom file as Java Flight Recorder events. The phase events are ended when each phase
+ * ends but committed together with the file event, when the outcome of the pom file is known. Nothing is
+ * recorded unless a recording with the sortpom events is running.
+ */
+final class FlightRecorderEvents {
+    private final SortFileEvent fileEvent = new SortFileEvent();
+    /** Null if the events are not recorded */
+    private final List<SortPhaseEvent> phaseEvents;
+
+    /** Returns true if a recording with the sortpom events is running */
+    static boolean isRecording() {
+        return new SortFileEvent().isEnabled();
+    }
+
+    FlightRecorderEvents() {
+        if (fileEvent.isEnabled()) {
+            fileEvent.begin();
+            phaseEvents = new ArrayList<>();
+        } else {
+            phaseEvents = null;
+        }
+    }
+
+    /**
+     * Called when a phase starts
+     *
+     * @param phase the phase
+     * @return the event of the phase, or null if no event is recorded
+     */
+    Object beginPhase(SortStatistics.Phase phase) {
+        if (phaseEvents == null) {
+            return null;
+        }
+        SortPhaseEvent phaseEvent = new SortPhaseEvent();
+        phaseEvent.phase = phase.name().toLowerCase(Locale.ROOT);
+        phaseEvent.begin();
+        phaseEvents.add(phaseEvent);
+        return phaseEvent;
+    }
+
+    /**
+     * Called when a phase ends
+     *
+     * @param phaseEvent the event from beginPhase
+     */
+    void endPhase(Object phaseEvent) {
+        if (phaseEvent != null) {
+            ((SortPhaseEvent) phaseEvent).end();
+        }
+    }
+
+    /**
+     * Commits the events of the pom file when the pom file is done
+     *
+     * @param pomPath      the path of the pom file
+     * @param elementCount the number of elements in the pom file
+     * @param sorted       true if the pom file was changed, false if it was unchanged
+     */
+    void commit(String pomPath, int elementCount, boolean sorted) {
+        if (phaseEvents == null) {
+            return;
+        }
+        String outcome = sorted ? "sorted" : "unchanged";
+        for (SortPhaseEvent phaseEvent : phaseEvents) {
+            phaseEvent.pomPath = pomPath;
+            phaseEvent.elementCount = elementCount;
+            phaseEvent.outcome = outcome;
+            phaseEvent.commit();
+        }
+        phaseEvents.clear();
+        fileEvent.end();
+        fileEvent.pomPath = pomPath;
+        fileEvent.elementCount = elementCount;
+        fileEvent.outcome = outcome;
+        fileEvent.commit();
+    }
+}
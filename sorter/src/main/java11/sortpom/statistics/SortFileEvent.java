@@ -0,0 +1,23 @@
+package sortpom.statistics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** The whole time that sortpom spent on one pom file */
+@Name("sortpom.SortFile")
+@Label("Sort Pom File")
+@Category("SortPom")
+@Description("Sorting or verifying one pom file")
+class SortFileEvent extends jdk.jfr.Event {
+    @Label("Pom File")
+    String pomPath;
+
+    @Label("Elements")
+    int elementCount;
+
+    @Label("Outcome")
+    @Description("sorted if the pom file was changed, otherwise unchanged")
+    String outcome;
+}
@@ -0,0 +1,26 @@
+package sortpom.statistics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One phase of sorting a pom file, such as parse, wrap, sort, serialize or write */
+@Name("sortpom.SortPhase")
+@Label("Sort Pom Phase")
+@Category("SortPom")
+@Description("One phase of sorting or verifying a pom file")
+class SortPhaseEvent extends jdk.jfr.Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Pom File")
+    String pomPath;
+
+    @Label("Elements")
+    int elementCount;
+
+    @Label("Outcome")
+    @Description("sorted if the pom file was changed, otherwise unchanged")
+    String outcome;
+}
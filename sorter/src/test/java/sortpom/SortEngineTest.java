@@ -0,0 +1,409 @@
+package sortpom;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParameters;
+import sortpom.statistics.SortStatistics;
+import sortpom.statistics.SortStatistics.Phase;
+import sortpom.util.XmlOrderedResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SortEngineTest {
+    private static final int NR_OF_POM_FILES = 16;
+    private final SortPomLogger silentLogger = new SortPomLogger() {
+        @Override
+        public void warn(String content) {
+        }
+
+        @Override
+        public void info(String content) {
+        }
+
+        @Override
+        public void error(String content) {
+        }
+    };
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = new File("target/engine");
+        FileUtils.deleteDirectory(directory);
+        Files.createDirectories(directory.toPath());
+    }
+
+    @Test
+    public void oneEngineShouldSortManyPomFilesConcurrently() throws Exception {
+        List<File> pomFiles = createPomFiles("Simple_input.xml");
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            pomFiles.forEach(pomFile -> results.add(executor.submit(
+                    () -> sortEngine.createSession(silentLogger, pomFile).sortPom())));
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(), is(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        String expected = FileUtils.readFileToString(new File("src/test/resources/Simple_expected.xml"), StandardCharsets.UTF_8);
+        for (File pomFile : pomFiles) {
+            assertThat(FileUtils.readFileToString(pomFile, StandardCharsets.UTF_8), is(expected));
+        }
+    }
+
+    @Test
+    public void sessionsShouldNotShareIgnoredSections() throws IOException {
+        File firstPom = new File(directory, "first.xml");
+        File secondPom = new File(directory, "second.xml");
+        FileUtils.writeStringToFile(firstPom, "<project><?sortpom ignore?><b>first</b><?sortpom resume?></project>", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(secondPom, "<project><?sortpom ignore?><b>second</b><?sortpom resume?></project>", StandardCharsets.UTF_8);
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null));
+
+        sortEngine.createSession(silentLogger, firstPom).sortPom();
+        sortEngine.createSession(silentLogger, secondPom).sortPom();
+
+        assertThat(FileUtils.readFileToString(firstPom, StandardCharsets.UTF_8), containsString("<b>first</b>"));
+        assertThat(FileUtils.readFileToString(secondPom, StandardCharsets.UTF_8), containsString("<b>second</b>"));
+    }
+
+    @Test
+    public void sessionShouldSortItsOwnPomFileInsteadOfTheParameterPomFile() throws IOException {
+        List<File> pomFiles = createPomFiles("Simple_input.xml");
+        SortEngine sortEngine = new SortEngine(createPluginParameters(pomFiles.get(0)));
+
+        SortSession sortSession = sortEngine.createSession(silentLogger, pomFiles.get(1));
+        sortSession.sortPom();
+
+        assertThat(sortSession.getPomFile(), is(pomFiles.get(1)));
+        String input = FileUtils.readFileToString(new File("src/test/resources/Simple_input.xml"), StandardCharsets.UTF_8);
+        assertThat(FileUtils.readFileToString(pomFiles.get(0), StandardCharsets.UTF_8), is(input));
+        assertThat(new File(directory, "pom1.xml.bak").exists(), is(true));
+    }
+
+    @Test
+    public void bytesShouldBeSortedInMemory() throws IOException {
+        byte[] input = Files.readAllBytes(new File("src/test/resources/Simple_input.xml").toPath());
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null));
+
+        ByteArrayOutputStream sortedXml = new ByteArrayOutputStream();
+        sortEngine.sort(input, sortedXml);
+
+        assertThat(new String(sortedXml.toByteArray(), StandardCharsets.UTF_8),
+                is(FileUtils.readFileToString(new File("src/test/resources/Simple_expected.xml"), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void streamsAndReadersShouldGiveSameResultAsBytes() throws IOException {
+        byte[] input = Files.readAllBytes(new File("src/test/resources/Simple_input.xml").toPath());
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null));
+        ByteArrayOutputStream fromBytes = new ByteArrayOutputStream();
+        sortEngine.sort(input, fromBytes);
+
+        ByteArrayOutputStream fromStream = new ByteArrayOutputStream();
+        sortEngine.sort(new ByteArrayInputStream(input), fromStream);
+        StringWriter fromReader = new StringWriter();
+        sortEngine.sort(new StringReader(new String(input, StandardCharsets.UTF_8)), fromReader);
+
+        assertThat(fromStream.toByteArray(), is(fromBytes.toByteArray()));
+        assertThat(fromReader.toString(), is(new String(fromBytes.toByteArray(), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void verifyShouldReportUnsortedContent() throws IOException {
+        byte[] input = Files.readAllBytes(new File("src/test/resources/Simple_input.xml").toPath());
+        byte[] expected = Files.readAllBytes(new File("src/test/resources/Simple_expected.xml").toPath());
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null));
+
+        XmlOrderedResult unsorted = sortEngine.verify(input);
+        XmlOrderedResult sorted = sortEngine.verify(new StringReader(new String(expected, StandardCharsets.UTF_8)));
+
+        assertThat(unsorted.isOrdered(), is(false));
+        assertThat(unsorted.getErrorMessage(), startsWith("The xml element "));
+        assertThat(sorted.isOrdered(), is(true));
+    }
+
+    @Test
+    public void corruptContentShouldThrowException() {
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null));
+        byte[] input = "<project>".getBytes(StandardCharsets.UTF_8);
+
+        FailureException thrown = assertThrows(FailureException.class, () -> sortEngine.sort(input, new ByteArrayOutputStream()));
+
+        assertThat(thrown.getMessage(), is("Could not sort pom content: <project>"));
+    }
+
+    @Test
+    public void unchangedPomFileShouldBeTakenFromResultCache() throws IOException {
+        File cacheDirectory = new File(directory, "cache");
+        File pomFile = new File(directory, "pom.xml");
+        FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), pomFile);
+        assertThat(new SortEngine(createPluginParameters(null, cacheDirectory)).createSession(silentLogger, pomFile).sortPom(), is(true));
+
+        // Replace the cached sort result to see that the next build does not sort the pom file
+        File sortResult = findCacheEntries(cacheDirectory).stream()
+                .filter(entry -> entry.length() > 0)
+                .findFirst().orElseThrow(IllegalStateException::new);
+        FileUtils.writeStringToFile(sortResult, "<cached/>", StandardCharsets.UTF_8);
+        FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), pomFile);
+
+        assertThat(new SortEngine(createPluginParameters(null, cacheDirectory)).createSession(silentLogger, pomFile).sortPom(), is(true));
+        assertThat(FileUtils.readFileToString(pomFile, StandardCharsets.UTF_8), is("<cached/>"));
+    }
+
+    @Test
+    public void sortedPomFileShouldBeCachedAsAlreadySorted() throws IOException {
+        File cacheDirectory = new File(directory, "cache");
+        File pomFile = new File(directory, "pom.xml");
+        FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), pomFile);
+        SortEngine sortEngine = new SortEngine(createPluginParameters(null, cacheDirectory));
+        sortEngine.createSession(silentLogger, pomFile).sortPom();
+        List<File> entries = findCacheEntries(cacheDirectory);
+
+        assertThat(sortEngine.createSession(silentLogger, pomFile).sortPom(), is(false));
+        assertThat(findCacheEntries(cacheDirectory), is(entries));
+        assertThat(sortEngine.createSession(silentLogger, pomFile).isPomElementsSorted().isOrdered(), is(true));
+        assertThat(findCacheEntries(cacheDirectory).size(), is(entries.size() + 1));
+    }
+
+    @Test
+    public void otherParametersShouldNotUseCachedResult() {
+        File cacheDirectory = new File(directory, "cache");
+        PluginParameters otherIndent = PluginParameters.builder()
+                .setEncoding("UTF-8")
+                .setFormatting("\r\n", true, false)
+                .setIndent(4, false)
+                .setSortEntities("", "", false, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setCacheDirectory(cacheDirectory)
+                .build();
+
+        assertThat(new SortEngine(otherIndent).createCacheFingerprint(),
+                not(new SortEngine(createPluginParameters(null, cacheDirectory)).createCacheFingerprint()));
+        assertThat(new SortEngine(createPluginParameters(null, null)).createCacheFingerprint(),
+                is(new SortEngine(createPluginParameters(null, cacheDirectory)).createCacheFingerprint()));
+    }
+
+    @Test
+    public void verifyShouldSaveTheDocumentThatItSorted() throws IOException {
+        File cacheDirectory = new File(directory, "cache");
+        File pomFile = new File(directory, "pom.xml");
+        String input = FileUtils.readFileToString(new File("src/test/resources/Simple_input.xml"), StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(pomFile, input.replace("<name>", "<?sortpom ignore?><x>  ignored </x><?sortpom resume?><name>"), StandardCharsets.UTF_8);
+        PluginParameters pluginParameters = PluginParameters.builder()
+                .setFileOutput(true, ".bak", null, false)
+                .setEncoding("UTF-8")
+                .setFormatting("\r\n", true, false)
+                .setIndent(2, false)
+                .setSortEntities("", "", false, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setVerifyFail("sort")
+                .setCacheDirectory(cacheDirectory)
+                .build();
+        SortEngine sortEngine = new SortEngine(pluginParameters);
+
+        XmlOrderedResult xmlOrderedResult = sortEngine.createSession(silentLogger, pomFile).verifyPom();
+
+        assertThat(xmlOrderedResult.isOrdered(), is(false));
+        String sortedXml = FileUtils.readFileToString(pomFile, StandardCharsets.UTF_8);
+        assertThat(sortedXml, containsString("<?sortpom ignore?><x>  ignored </x><?sortpom resume?>"));
+        assertThat(new File(directory, "pom.xml.bak").exists(), is(true));
+
+        // The sort result is cached, and is the same as when the pom file is sorted
+        FileUtils.copyFile(new File(directory, "pom.xml.bak"), pomFile);
+        List<File> entries = findCacheEntries(cacheDirectory);
+        assertThat(sortEngine.createSession(silentLogger, pomFile).sortPom(), is(true));
+        assertThat(findCacheEntries(cacheDirectory), is(entries));
+        assertThat(FileUtils.readFileToString(pomFile, StandardCharsets.UTF_8), is(sortedXml));
+        FileUtils.deleteDirectory(cacheDirectory);
+        FileUtils.copyFile(new File(directory, "pom.xml.bak"), pomFile);
+        sortEngine.createSession(silentLogger, pomFile).sortPom();
+        assertThat(FileUtils.readFileToString(pomFile, StandardCharsets.UTF_8), is(sortedXml));
+    }
+
+    @Test
+    public void cacheFingerprintShouldContainVersionAndSortOrderDigest() {
+        String fingerprint = new SortEngine(createPluginParameters(null)).createCacheFingerprint();
+
+        assertThat(fingerprint, startsWith("version="));
+        assertThat(fingerprint, not(startsWith("version=null")));
+        assertThat(fingerprint, not(containsString("${")));
+        assertThat(fingerprint, not(containsString("sortOrder=null")));
+    }
+
+    @Test
+    public void allViolationsShouldBeLoggedAndSavedInViolationFile() throws IOException {
+        File pomFile = new File(directory, "pom.xml");
+        File violationFile = new File(directory, "reports/violation.xml");
+        FileUtils.copyFile(new File("src/test/resources/full_unsorted_input.xml"), pomFile);
+        PluginParameters pluginParameters = PluginParameters.builder()
+                .setFileOutput(false, ".bak", violationFile.getPath(), false)
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortEntities("", "", false, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setVerifyFail("warn")
+                .setVerifyAllViolations(true)
+                .build();
+        List<String> warnings = new ArrayList<>();
+        SortPomLogger logger = new SortPomLogger() {
+            @Override
+            public void warn(String content) {
+                warnings.add(content);
+            }
+
+            @Override
+            public void info(String content) {
+            }
+
+            @Override
+            public void error(String content) {
+            }
+        };
+
+        XmlOrderedResult xmlOrderedResult = new SortEngine(pluginParameters).createSession(logger, pomFile).verifyPom();
+
+        int violationCount = xmlOrderedResult.getViolations().size();
+        assertThat(violationCount, greaterThan(1));
+        assertThat(warnings.size(), is(violationCount + 2));
+        assertThat(warnings.get(0), is("The xml element <modelVersion> should be placed before <parent>"));
+        assertThat(warnings.get(1), startsWith("The xml element /project/"));
+        String violationXml = FileUtils.readFileToString(violationFile, StandardCharsets.UTF_8);
+        assertThat(violationXml, startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<sortpom>\n  <file filename=\""));
+        assertThat(violationXml, containsString("    <violation xpath=\"" + xmlOrderedResult.getViolations().getXPath(0) + "\" position=\""));
+        assertThat(violationXml.split("<violation ").length, is(violationCount + 1));
+    }
+
+    @Test
+    public void sortStatisticsShouldBeLoggedAndSaved() throws IOException {
+        File pomFile = new File(directory, "pom.xml");
+        File statisticsFile = new File(directory, "reports/statistics.json");
+        FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), pomFile);
+        PluginParameters pluginParameters = PluginParameters.builder()
+                .setFileOutput(false, ".bak", null, false)
+                .setEncoding("UTF-8")
+                .setFormatting("\r\n", true, false)
+                .setIndent(2, false)
+                .setSortEntities("", "", false, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setStatisticsFilename(statisticsFile.getPath())
+                .build();
+        List<String> debugMessages = new ArrayList<>();
+        SortPomLogger logger = new SortPomLogger() {
+            @Override
+            public void warn(String content) {
+            }
+
+            @Override
+            public void info(String content) {
+            }
+
+            @Override
+            public void error(String content) {
+            }
+
+            @Override
+            public void debug(String content) {
+                debugMessages.add(content);
+            }
+
+            @Override
+            public boolean isDebugEnabled() {
+                return true;
+            }
+        };
+
+        SortSession sortSession = new SortEngine(pluginParameters).createSession(logger, pomFile);
+        sortSession.sortPom();
+
+        SortStatistics statistics = sortSession.getStatistics();
+        for (Phase phase : new Phase[]{Phase.READ, Phase.PI_SCAN, Phase.PARSE, Phase.SORT, Phase.COMPARE, Phase.WRITE}) {
+            assertThat(phase.name(), statistics.getTimeNanos(phase), greaterThan(0L));
+        }
+        // The pom file is wrapped while it is parsed
+        assertThat(statistics.getTimeNanos(Phase.WRAP), is(0L));
+        assertThat(statistics.getTimeNanos(Phase.BACKUP), is(0L));
+        assertThat(statistics.getElementCount(), greaterThan(1));
+        assertThat(statistics.getComparisonCount(), greaterThan(0L));
+        assertThat(debugMessages.size(), is(1));
+        assertThat(debugMessages.get(0), startsWith("Sort statistics: read "));
+        assertThat(FileUtils.readFileToString(statisticsFile, StandardCharsets.UTF_8), is(statistics.toJson()));
+    }
+
+    @Test
+    public void statisticsShouldNotBeCollectedIfTheyAreNotReported() throws IOException {
+        File pomFile = new File(directory, "pom.xml");
+        FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), pomFile);
+
+        SortSession sortSession = new SortEngine(createPluginParameters(null)).createSession(silentLogger, pomFile);
+        sortSession.sortPom();
+
+        SortStatistics statistics = sortSession.getStatistics();
+        assertThat(statistics.isEnabled(), is(false));
+        assertThat(statistics.getTimeNanos(Phase.PARSE), is(0L));
+        assertThat(statistics.getElementCount(), is(0));
+    }
+
+    private List<File> findCacheEntries(File cacheDirectory) {
+        List<File> entries = new ArrayList<>(FileUtils.listFiles(cacheDirectory, null, true));
+        entries.removeIf(entry -> entry.getName().startsWith("."));
+        entries.sort(null);
+        return entries;
+    }
+
+    private List<File> createPomFiles(String inputFile) throws IOException {
+        List<File> pomFiles = new ArrayList<>();
+        for (int i = 0; i < NR_OF_POM_FILES; i++) {
+            File pomFile = new File(directory, "pom" + i + ".xml");
+            FileUtils.copyFile(new File("src/test/resources/" + inputFile), pomFile);
+            pomFiles.add(pomFile);
+        }
+        return pomFiles;
+    }
+
+    private PluginParameters createPluginParameters(File pomFile) {
+        return createPluginParameters(pomFile, null);
+    }
+
+    private PluginParameters createPluginParameters(File pomFile, File cacheDirectory) {
+        return PluginParameters.builder()
+                .setPomFile(pomFile)
+                .setFileOutput(true, ".bak", null, false)
+                .setEncoding("UTF-8")
+                .setFormatting("\r\n", true, false)
+                .setIndent(2, false)
+                .setSortEntities("", "", false, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setTriggers(true)
+                .setCacheDirectory(cacheDirectory)
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package sortpom;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+public class SortPomBatchTest {
+    private static final int NR_OF_POM_FILES = 12;
+    private final List<String> logMessages = new ArrayList<>();
+    private final SortPomLogger logger = new SortPomLogger() {
+        @Override
+        public void warn(String content) {
+            logMessages.add("[WARNING] " + content);
+        }
+
+        @Override
+        public void info(String content) {
+            logMessages.add("[INFO] " + content);
+        }
+
+        @Override
+        public void error(String content) {
+            logMessages.add("[ERROR] " + content);
+        }
+
+        @Override
+        public void debug(String content) {
+            logMessages.add("[DEBUG] " + content);
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return debugEnabled;
+        }
+    };
+    private boolean debugEnabled;
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = new File("target/batch");
+        FileUtils.deleteDirectory(directory);
+        Files.createDirectories(directory.toPath());
+    }
+
+    @Test
+    public void allPomFilesShouldBeSortedInParallel() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("SORT");
+
+        SortPomBatchResult result = new SortPomBatch(logger, 4, false).execute(parameters);
+
+        assertThat(result.getSortedFiles(), hasSize(NR_OF_POM_FILES));
+        assertThat(result.getFailureMessages(), empty());
+        String expected = FileUtils.readFileToString(new File("src/test/resources/Simple_expected.xml"), StandardCharsets.UTF_8);
+        for (PluginParameters pluginParameters : parameters) {
+            assertThat(FileUtils.readFileToString(pluginParameters.pomFile, StandardCharsets.UTF_8), is(expected));
+        }
+        assertThat(result.getSummary(), containsString(" pom files in "));
+        assertThat(result.getSummary(), containsString(": 12 sorted, 0 already sorted, 0 not sorted, 0 failed"));
+
+        SortPomBatchResult secondResult = new SortPomBatch(logger, 4, false).execute(parameters);
+
+        assertThat(secondResult.getAlreadySortedFiles(), hasSize(NR_OF_POM_FILES));
+    }
+
+    @Test
+    public void pomFilesShouldBeSortedWithSharedEngine() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("SORT");
+        List<File> pomFiles = new ArrayList<>();
+        parameters.forEach(pluginParameters -> pomFiles.add(pluginParameters.pomFile));
+
+        SortPomBatchResult result = new SortPomBatch(logger, 4, false).execute(new SortEngine(parameters.get(0)), pomFiles);
+
+        assertThat(result.getSortedFiles(), is(pomFiles));
+        String expected = FileUtils.readFileToString(new File("src/test/resources/Simple_expected.xml"), StandardCharsets.UTF_8);
+        assertThat(FileUtils.readFileToString(pomFiles.get(NR_OF_POM_FILES - 1), StandardCharsets.UTF_8), is(expected));
+    }
+
+    @Test
+    public void pomFilesWithSameParametersShouldShareOneEngine() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("SORT");
+        parameters.add(PluginParameters.builder()
+                .setPomFile(new File(directory, "pom.xml"))
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortEntities("", "", false, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setVerifyFail("SORT")
+                .build());
+        FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), parameters.get(NR_OF_POM_FILES).pomFile);
+        List<PluginParameters> engineParameters = new ArrayList<>();
+
+        SortPomBatchResult result = new SortPomBatch(logger, 4, false).execute(parameters, pluginParameters -> {
+            engineParameters.add(pluginParameters);
+            return new SortEngine(pluginParameters);
+        });
+
+        assertThat(engineParameters, contains(parameters.get(0), parameters.get(NR_OF_POM_FILES)));
+        assertThat(result.getSortedFiles(), hasSize(NR_OF_POM_FILES + 1));
+    }
+
+    @Test
+    public void deprecatedParametersShouldBeWarnedAboutOncePerEngine() throws IOException {
+        List<PluginParameters> parameters = new ArrayList<>();
+        for (PluginParameters pluginParameters : createPomFiles("SORT")) {
+            parameters.add(PluginParameters.builder()
+                    .setPomFile(pluginParameters.pomFile)
+                    .setEncoding("UTF-8")
+                    .setFormatting("\n", true, false)
+                    .setIndent(2, false)
+                    .setSortEntities("true", "", false, false)
+                    .setSortOrder("default_0_4_0.xml", null)
+                    .setVerifyFail("SORT")
+                    .build());
+        }
+
+        new SortPomBatch(logger, 4, false).execute(parameters);
+
+        assertThat(logMessages.stream().filter(message -> message.contains("[DEPRECATED]")).count(), is(1L));
+    }
+
+    @Test
+    public void logMessagesShouldBeGroupedByPomFileInGivenOrder() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("SORT");
+
+        new SortPomBatch(logger, 4, false).execute(parameters);
+
+        assertThat(logMessages, hasSize(NR_OF_POM_FILES * 3));
+        for (int i = 0; i < NR_OF_POM_FILES; i++) {
+            String pomFileName = parameters.get(i).pomFile.getAbsolutePath();
+            assertThat(logMessages.get(i * 3), is("[INFO] Sorting file " + pomFileName));
+            assertThat(logMessages.get(i * 3 + 1), startsWith("[INFO] Saved backup of " + pomFileName));
+            assertThat(logMessages.get(i * 3 + 2), is("[INFO] Saved sorted pom file to " + pomFileName));
+        }
+    }
+
+    @Test
+    public void verifyShouldNotChangeFilesWhenFailTypeIsWarn() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("WARN");
+
+        SortPomBatchResult result = new SortPomBatch(logger, 3, true).execute(parameters);
+
+        assertThat(result.getNotSortedFiles(), hasSize(NR_OF_POM_FILES));
+        String input = FileUtils.readFileToString(new File("src/test/resources/Simple_input.xml"), StandardCharsets.UTF_8);
+        assertThat(FileUtils.readFileToString(parameters.get(5).pomFile, StandardCharsets.UTF_8), is(input));
+    }
+
+    @Test
+    public void failingPomFilesShouldBeReportedWithoutStoppingTheOthers() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("STOP");
+        FileUtils.copyFile(new File("src/test/resources/Corrupt_file.xml"), parameters.get(3).pomFile);
+
+        SortPomBatchResult result = new SortPomBatch(logger, 2, true).execute(parameters);
+
+        assertThat(result.getFailureMessages(), hasSize(NR_OF_POM_FILES));
+        assertThat(result.getFailureMessages().get(0), is("The file " + parameters.get(0).pomFile.getAbsolutePath() + " is not sorted"));
+        assertThat(result.getFailureMessages().get(3), startsWith("Could not verify " + parameters.get(3).pomFile.getAbsolutePath()));
+    }
+
+    @Test
+    public void sortStatisticsShouldBeLoggedAtDebugLevel() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("SORT").subList(0, 2);
+        debugEnabled = true;
+
+        new SortPomBatch(logger, 2, false).execute(parameters);
+
+        List<String> debugMessages = new ArrayList<>();
+        logMessages.stream().filter(message -> message.startsWith("[DEBUG] ")).forEach(debugMessages::add);
+        assertThat(debugMessages, hasSize(2));
+        assertThat(debugMessages.get(0), startsWith("[DEBUG] Sort statistics: "));
+        assertThat(debugMessages.get(1), not(containsString(" elements 0,")));
+    }
+
+    @Test
+    public void noPomFilesShouldGiveEmptyResult() {
+        SortPomBatchResult result = new SortPomBatch(logger, 0, false).execute(new ArrayList<>());
+
+        assertThat(result.getNrOfFiles(), is(0));
+        assertThat(logMessages, empty());
+    }
+
+    @Test
+    public void bufferedMessagesShouldKeepTheirLevel() throws IOException {
+        List<PluginParameters> parameters = createPomFiles("WARN").subList(0, 1);
+
+        new SortPomBatch(logger, 1, true).execute(parameters);
+
+        assertThat(logMessages, contains(
+                is("[INFO] Verifying file " + parameters.get(0).pomFile.getAbsolutePath()),
+                startsWith("[WARNING] The xml element"),
+                startsWith("[WARNING] The file ")));
+    }
+
+    private List<PluginParameters> createPomFiles(String verifyFail) throws IOException {
+        List<PluginParameters> parameters = new ArrayList<>();
+        for (int i = 0; i < NR_OF_POM_FILES; i++) {
+            File pomFile = new File(directory, "pom" + i + ".xml");
+            FileUtils.copyFile(new File("src/test/resources/Simple_input.xml"), pomFile);
+            parameters.add(PluginParameters.builder()
+                    .setPomFile(pomFile)
+                    .setFileOutput(true, ".bak", null, false)
+                    .setEncoding("UTF-8")
+                    .setFormatting("\r\n", true, false)
+                    .setIndent(2, false)
+                    .setSortEntities("", "", false, false)
+                    .setSortOrder("default_0_4_0.xml", null)
+                    .setVerifyFail(verifyFail)
+                    .setTriggers(true)
+                    .build());
+        }
+        return parameters;
+    }
+}
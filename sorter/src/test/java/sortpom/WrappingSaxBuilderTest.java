@@ -0,0 +1,70 @@
+package sortpom;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.Text;
+import org.jdom.input.SAXBuilder;
+import org.junit.jupiter.api.Test;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+import sortpom.wrapper.operation.HierarchyRootWrapper;
+import sortpom.wrapper.operation.HierarchyWrapperBuilder;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WrappingSaxBuilderTest {
+    private final PluginParameters pluginParameters = PluginParameters.builder()
+            .setPomFile(null)
+            .setFileOutput(false, ".bak", null, false)
+            .setEncoding("UTF-8")
+            .setFormatting("\n", true, true)
+            .setIndent(2, false)
+            .setSortOrder("custom_1.xml", null)
+            .setSortEntities("scope,groupId,artifactId", "groupId,artifactId", true, true)
+            .build();
+
+    @Test
+    public void structureBuiltWhileParsingShouldBeSameAsWrappedStructure() throws Exception {
+        String[] fileNames = {"Real1_input.xml", "Complex_input.xml", "Attribute_input.xml", "SortModules_input.xml",
+                "MultilineComment_input.xml", "Extra_tags_dep_and_plugin.xml", "Character_input.xml"};
+        for (String fileName : fileNames) {
+            File file = new File("src/test/resources/" + fileName);
+            WrapperFactoryImpl wrapperFactory = createWrapperFactory();
+            HierarchyWrapperBuilder wrapperBuilder = new HierarchyWrapperBuilder(wrapperFactory);
+            new WrappingSaxBuilder(wrapperBuilder).build(file);
+
+            HierarchyRootWrapper rootWrapper = wrapperFactory.createFromRootElement(new SAXBuilder().build(file).getRootElement());
+            rootWrapper.createWrappedStructure(wrapperFactory);
+
+            assertThat(fileName, wrapperBuilder.getRootWrapper().toString(), is(rootWrapper.toString()));
+        }
+    }
+
+    @Test
+    public void singleNewlinesShouldNotBeAddedToParsedXml() throws Exception {
+        String xml = "<project>\n  <name> a name </name>\n  <build><![CDATA[ ]]>\n    <x>\n</x>\n\n  </build>\n</project>";
+        Document document = new WrappingSaxBuilder(new HierarchyWrapperBuilder(createWrapperFactory())).build(new StringReader(xml));
+
+        Element rootElement = document.getRootElement();
+        assertThat(rootElement.getContentSize(), is(2));
+        assertThat(rootElement.getChild("name").getText(), is(" a name "));
+        List<?> buildContent = rootElement.getChild("build").getContent();
+        assertThat(buildContent.size(), is(2));
+        assertThat(((Text) buildContent.get(1)).getText(), is("\n\n  "));
+        assertThat(rootElement.getChild("build").getChild("x").getContentSize(), is(0));
+    }
+
+    private WrapperFactoryImpl createWrapperFactory() {
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        return wrapperFactory;
+    }
+}
@@ -5,8 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 import sortpom.exception.FailureException;
 import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
 
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -43,4 +48,40 @@ public class XmlOutputGeneratorTest {
         assertThat("Unexpected message", thrown.getMessage(), is(equalTo("Could not format pom files content")));
     }
 
+    @Test
+    public void writeSortedXmlShouldWriteSameXmlAsGetSortedXml() throws Exception {
+        String[] fileNames = {"Real1_input.xml", "Complex_input.xml", "MultilineComment_input.xml", "EmptyRow_input.xml"};
+        for (String fileName : fileNames) {
+            for (boolean indentBlankLines : new boolean[]{false, true}) {
+                PluginParameters pluginParameters = PluginParameters.builder()
+                        .setEncoding("UTF-8")
+                        .setFormatting("\r\n", false, true)
+                        .setIndent(2, indentBlankLines)
+                        .setSortEntities("scope,groupId,artifactId", "groupId,artifactId", true, true)
+                        .build();
+                Document document = sortDocument(pluginParameters, "src/test/resources/" + fileName);
+                XmlOutputGenerator xmlOutputGenerator = new XmlOutputGenerator();
+                xmlOutputGenerator.setup(pluginParameters);
+
+                StringWriter writer = new StringWriter();
+                xmlOutputGenerator.writeSortedXml(document, writer);
+
+                assertThat(fileName, writer.toString(), is(xmlOutputGenerator.getSortedXml(document)));
+            }
+        }
+    }
+
+    private Document sortDocument(PluginParameters pluginParameters, String fileName) throws Exception {
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        XmlProcessor xmlProcessor = new XmlProcessor(wrapperFactory);
+        try (InputStream inputStream = new FileInputStream(fileName)) {
+            xmlProcessor.setOriginalXml(inputStream);
+        }
+        xmlProcessor.sortXmlInPlace();
+        return xmlProcessor.getNewDocument();
+    }
+
 }
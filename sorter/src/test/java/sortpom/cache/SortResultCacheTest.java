@@ -0,0 +1,109 @@
+package sortpom.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SortResultCacheTest {
+    private static final byte[] POM = "<project/>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SORTED_POM = "<project></project>".getBytes(StandardCharsets.UTF_8);
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = new File("target/result-cache");
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void unknownContentShouldNotBeFound() {
+        SortResultCache cache = new SortResultCache(directory, "fingerprint");
+
+        assertThat(cache.getSortResult(SortResultCache.digest(POM)), nullValue());
+        assertThat(cache.isVerified(SortResultCache.digest(POM)), is(false));
+    }
+
+    @Test
+    public void sortedContentShouldBeFound() {
+        SortResultCache cache = new SortResultCache(directory, "fingerprint");
+        cache.putSortResult(SortResultCache.digest(POM), channel -> channel.write(ByteBuffer.wrap(SORTED_POM)));
+
+        assertThat(new SortResultCache(directory, "fingerprint").getSortResult(SortResultCache.digest(POM)), is(SORTED_POM));
+    }
+
+    @Test
+    public void alreadySortedContentShouldBeFoundAsEmptyResult() {
+        SortResultCache cache = new SortResultCache(directory, "fingerprint");
+        cache.putAlreadySorted(SortResultCache.digest(POM));
+
+        assertThat(cache.getSortResult(SortResultCache.digest(POM)), is(new byte[0]));
+        assertThat(cache.isVerified(SortResultCache.digest(POM)), is(false));
+    }
+
+    @Test
+    public void verifiedContentShouldBeFound() {
+        SortResultCache cache = new SortResultCache(directory, "fingerprint");
+        cache.putVerified(SortResultCache.digest(POM));
+
+        assertThat(cache.isVerified(SortResultCache.digest(POM)), is(true));
+        assertThat(cache.getSortResult(SortResultCache.digest(POM)), nullValue());
+    }
+
+    @Test
+    public void otherFingerprintShouldNotFindContent() {
+        new SortResultCache(directory, "fingerprint").putAlreadySorted(SortResultCache.digest(POM));
+
+        assertThat(new SortResultCache(directory, "other").getSortResult(SortResultCache.digest(POM)), nullValue());
+    }
+
+    @Test
+    public void failedWriteShouldNotLeaveAnyEntry() throws IOException {
+        SortResultCache cache = new SortResultCache(directory, "fingerprint");
+        cache.putSortResult(SortResultCache.digest(POM), channel -> {
+            channel.write(ByteBuffer.wrap(SORTED_POM));
+            throw new IOException("Disk full");
+        });
+
+        assertThat(cache.getSortResult(SortResultCache.digest(POM)), nullValue());
+        assertThat(entries().size(), is(0));
+    }
+
+    @Test
+    public void unusedEntriesShouldBeDeleted() throws IOException {
+        SortResultCache cache = new SortResultCache(directory, "fingerprint");
+        cache.putAlreadySorted(SortResultCache.digest(POM));
+        cache.putAlreadySorted(SortResultCache.digest(SORTED_POM));
+        long now = System.currentTimeMillis();
+        Path unusedEntry = entries().get(0);
+        Files.setLastModifiedTime(unusedEntry, FileTime.fromMillis(now - SortResultCache.MAX_UNUSED_MILLIS - 1000));
+
+        cache.deleteUnusedEntries(now - SortResultCache.MAX_UNUSED_MILLIS);
+
+        List<Path> entries = entries();
+        assertThat(entries.size(), is(1));
+        assertThat(entries.contains(unusedEntry), is(false));
+    }
+
+    private List<Path> entries() throws IOException {
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            return files.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -2,12 +2,11 @@ package sortpom.processinstruction;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import refutils.ReflectionHelper;
-
-import java.util.ArrayList;
+import sortpom.logger.SortPomLogger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
 
 /**
  * @author bjorn
@@ -16,13 +15,16 @@ import static org.hamcrest.Matchers.is;
 public class IgnoredSectionsStoreTest {
 
     private IgnoredSectionsStore ignoredSectionsStore;
-    private ArrayList<String> ignoredSections;
 
-    @SuppressWarnings("unchecked")
     @BeforeEach
     public void setUp() {
         ignoredSectionsStore = new IgnoredSectionsStore();
-        ignoredSections = new ReflectionHelper(ignoredSectionsStore).getField(ArrayList.class);
+    }
+
+    private String replaceIgnoredSections(String xml) {
+        SortpomPiScanner sortpomPiScanner = new SortpomPiScanner(mock(SortPomLogger.class));
+        sortpomPiScanner.scan(xml);
+        return ignoredSectionsStore.replaceIgnoredSections(xml, sortpomPiScanner.getIgnoredSectionBounds());
     }
 
     @Test
@@ -42,31 +44,37 @@ public class IgnoredSectionsStoreTest {
                 "  <reporting />\n" +
                 "  <version>1.0.0-SNAPSHOT</version>\n" +
                 "</project>";
-        String replaced = ignoredSectionsStore.replaceIgnoredSections(xml);
+        String replaced = replaceIgnoredSections(xml);
 
         assertThat(replaced, is(xml));
-        assertThat(ignoredSections.size(), is(0));
+        assertThat(ignoredSectionsStore.revertIgnoredSections(replaced), is(xml));
     }
 
     @Test
     public void replaceOneSectionShouldCreateOneToken() {
         String xml = "abc<?sortpom ignore?>def<?sortpom resume?>cba";
-        String replaced = ignoredSectionsStore.replaceIgnoredSections(xml);
+        String replaced = replaceIgnoredSections(xml);
 
         assertThat(replaced, is("abc<?sortpom token='0'?>cba"));
-        assertThat(ignoredSections.size(), is(1));
-        assertThat(ignoredSections.get(0), is("<?sortpom ignore?>def<?sortpom resume?>"));
+        assertThat(ignoredSectionsStore.revertIgnoredSections(replaced), is(xml));
+    }
+
+    @Test
+    public void replaceShouldForgetPreviouslyReplacedSections() {
+        replaceIgnoredSections("abc<?sortpom ignore?>def1<?sortpom resume?>cba");
+        String replaced = replaceIgnoredSections("abc<?sortpom ignore?>def2<?sortpom resume?>cba");
+
+        assertThat(replaced, is("abc<?sortpom token='0'?>cba"));
+        assertThat(ignoredSectionsStore.revertIgnoredSections(replaced), is("abc<?sortpom ignore?>def2<?sortpom resume?>cba"));
     }
 
     @Test
     public void replaceMultipleSectionShouldCreateManyTokens() {
         String xml = "abc<?sortpom ignore?>def1<?sortpom resume?>cbaabc<?SORTPOM Ignore?>def2<?sortPom reSUME?>cba";
-        String replaced = ignoredSectionsStore.replaceIgnoredSections(xml);
+        String replaced = replaceIgnoredSections(xml);
 
         assertThat(replaced, is("abc<?sortpom token='0'?>cbaabc<?sortpom token='1'?>cba"));
-        assertThat(ignoredSections.size(), is(2));
-        assertThat(ignoredSections.get(0), is("<?sortpom ignore?>def1<?sortpom resume?>"));
-        assertThat(ignoredSections.get(1), is("<?SORTPOM Ignore?>def2<?sortPom reSUME?>"));
+        assertThat(ignoredSectionsStore.revertIgnoredSections(replaced), is(xml));
     }
 
     @Test
@@ -116,22 +124,22 @@ public class IgnoredSectionsStoreTest {
                 "  </dependencies>\n" +
                 "\n" +
                 "</project>\n";
-        ignoredSectionsStore.replaceIgnoredSections(xml);
-
-        assertThat(ignoredSections.size(), is(2));
-        assertThat(ignoredSections.get(0), is("<?sortpom ignore?>\n" +
-                "      <version>4.11</version><!--$NO-MVN-MAN-VER$ -->\n" +
-                "        <?sortpom resume?>"));
-        assertThat(ignoredSections.get(1), is("<?sortpom ignore?>\n" +
-                "      <version>2.1</version><!--$NO-MVN-MAN-VER$ -->\n" +
-                "        <?sortpom resume?>"));
+        String replaced = replaceIgnoredSections(xml);
+
+        assertThat(replaced, is(xml
+                .replace("<?sortpom ignore?>\n" +
+                        "      <version>4.11</version><!--$NO-MVN-MAN-VER$ -->\n" +
+                        "        <?sortpom resume?>", "<?sortpom token='0'?>")
+                .replace("<?sortpom ignore?>\n" +
+                        "      <version>2.1</version><!--$NO-MVN-MAN-VER$ -->\n" +
+                        "        <?sortpom resume?>", "<?sortpom token='1'?>")));
+        assertThat(ignoredSectionsStore.revertIgnoredSections(replaced), is(xml));
     }
 
     @Test
     public void revertTokensInOrderShouldWork() {
         String xml = "abc<?sortpom token='0'?>cbaabc<?sortpom token='1'?>cba";
-        ignoredSections.add("<?sortpom ignore?>def1<?sortpom resume?>");
-        ignoredSections.add("<?SORTPOM Ignore?>def2<?sortPom reSUME?>");
+        replaceIgnoredSections("<?sortpom ignore?>def1<?sortpom resume?><?SORTPOM Ignore?>def2<?sortPom reSUME?>");
 
         String replaced = ignoredSectionsStore.revertIgnoredSections(xml);
         assertThat(replaced, is("abc<?sortpom ignore?>def1<?sortpom resume?>cbaabc<?SORTPOM Ignore?>def2<?sortPom reSUME?>cba"));
@@ -140,8 +148,7 @@ public class IgnoredSectionsStoreTest {
     @Test
     public void revertTokensInRearrangedOrderShouldPlaceTextInRightOrder() {
         String xml = "abc<?sortpom token='1'?>cbaabc<?sortpom token='0'?>cba";
-        ignoredSections.add("<?sortpom ignore?>def0<?sortpom resume?>");
-        ignoredSections.add("<?SORTPOM Ignore?>def1<?sortPom reSUME?>");
+        replaceIgnoredSections("<?sortpom ignore?>def0<?sortpom resume?><?SORTPOM Ignore?>def1<?sortPom reSUME?>");
 
         String replaced = ignoredSectionsStore.revertIgnoredSections(xml);
         assertThat(replaced, is("abc<?SORTPOM Ignore?>def1<?sortPom reSUME?>cbaabc<?sortpom ignore?>def0<?sortpom resume?>cba"));
@@ -190,10 +197,10 @@ public class IgnoredSectionsStoreTest {
                 "  <description>The sorting functionality</description>\n" +
                 "\n" +
                 "</project>\n";
-        ignoredSections.add("<?sortpom ignore?>\n" +
+        replaceIgnoredSections("<?sortpom ignore?>\n" +
                 "      <version>4.11</version><!--$NO-MVN-MAN-VER$ -->\n" +
-                "        <?sortpom resume?>");
-        ignoredSections.add("<?sortpom ignore?>\n" +
+                "        <?sortpom resume?>\n" +
+                "<?sortpom ignore?>\n" +
                 "      <version>2.1</version><!--$NO-MVN-MAN-VER$ -->\n" +
                 "        <?sortpom resume?>");
 
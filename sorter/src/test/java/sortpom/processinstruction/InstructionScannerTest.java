@@ -0,0 +1,70 @@
+package sortpom.processinstruction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class InstructionScannerTest {
+
+    @Test
+    public void instructionsShouldBeFoundInOrder() {
+        String xml = "abc<?sortpom ignore?>def<?SortPom  RESUME \n?>cba";
+        InstructionScanner instructionScanner = new InstructionScanner(xml);
+
+        assertThat(instructionScanner.next(), is(true));
+        assertThat(instructionScanner.getInstruction(), is("ignore"));
+        assertThat(xml.substring(instructionScanner.getStart(), instructionScanner.getEnd()), is("<?sortpom ignore?>"));
+        assertThat(instructionScanner.next(), is(true));
+        assertThat(instructionScanner.getInstruction(), is("RESUME "));
+        assertThat(xml.substring(instructionScanner.getStart(), instructionScanner.getEnd()), is("<?SortPom  RESUME \n?>"));
+        assertThat(instructionScanner.next(), is(false));
+        assertThat(instructionScanner.next(), is(false));
+    }
+
+    @Test
+    public void otherProcessingInstructionsShouldNotBeFound() {
+        assertThat(instructions("<?xml version=\"1.0\"?><?sortpomignore?><?sortpom ign<ore?><?sortpom ignore><?sortpom ignore?"), empty());
+    }
+
+    @Test
+    public void instructionAfterPartialInstructionShouldBeFound() {
+        assertThat(instructions("<?sortpom <?<?sortpom resume?>"), contains("resume"));
+    }
+
+    @Test
+    public void unknownInstructionsShouldBeFound() {
+        assertThat(instructions("<?sortpom ignore=\"*\"?><?sortpom ?>"), contains("ignore=\"*\"", ""));
+    }
+
+    @Test
+    public void tokenIndexShouldBeParsed() {
+        assertThat(tokenIndex("<?sortpom token='0'?>"), is(0));
+        assertThat(tokenIndex("<?sortpom TOKEN='12' ?>"), is(12));
+        assertThat(tokenIndex("<?sortpom ignore?>"), is(-1));
+        assertThat(tokenIndex("<?sortpom token=''?>"), is(-1));
+        assertThat(tokenIndex("<?sortpom token='1a'?>"), is(-1));
+        assertThat(tokenIndex("<?sortpom token='1?>"), is(-1));
+        assertThat(tokenIndex("<?sortpom token='99999999999'?>"), is(-1));
+    }
+
+    private List<String> instructions(String xml) {
+        InstructionScanner instructionScanner = new InstructionScanner(xml);
+        List<String> instructions = new ArrayList<>();
+        while (instructionScanner.next()) {
+            instructions.add(instructionScanner.getInstruction());
+        }
+        return instructions;
+    }
+
+    private int tokenIndex(String xml) {
+        InstructionScanner instructionScanner = new InstructionScanner(xml);
+        assertThat(instructionScanner.next(), is(true));
+        return instructionScanner.getTokenIndex();
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import sortpom.logger.SortPomLogger;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
@@ -182,4 +184,22 @@ public class SortpomPiScannerTest {
         verifyNoMoreInteractions(logger);
     }
 
+    @Test
+    public void bytesWithInstructionStartInAnyCaseMayContainInstructions() {
+        assertThat(mayContainInstructions("<project><?sortpom ignore?></project>"), is(true));
+        assertThat(mayContainInstructions("<project><?SortPom resume?></project>"), is(true));
+        assertThat(mayContainInstructions("<?sortpom"), is(true));
+    }
+
+    @Test
+    public void bytesWithoutInstructionStartCannotContainInstructions() {
+        assertThat(mayContainInstructions(""), is(false));
+        assertThat(mayContainInstructions("<project><?sortpo"), is(false));
+        assertThat(mayContainInstructions("<project><?sort pom?><!-- sortpom --></project>"), is(false));
+        assertThat(mayContainInstructions("<?xml version=\"1.0\"?><project>Här</project>"), is(false));
+    }
+
+    private boolean mayContainInstructions(String xml) {
+        return SortpomPiScanner.mayContainInstructions(xml.getBytes(StandardCharsets.UTF_8));
+    }
 }
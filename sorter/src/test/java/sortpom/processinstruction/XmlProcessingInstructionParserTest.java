@@ -6,8 +6,11 @@ import org.junit.jupiter.api.function.Executable;
 import sortpom.exception.FailureException;
 import sortpom.logger.SortPomLogger;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -118,4 +121,31 @@ public class XmlProcessingInstructionParserTest {
         assertThat(outputXml, is(xml));
         verifyNoMoreInteractions(logger);
     }
+
+    @Test
+    public void asciiCompatibleBytesWithoutInstructionsShouldNotBeDecoded() {
+        String xml = "<project><name>Här</name></project>";
+        parser.scanForIgnoredSections(xml.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertThat(parser.existsIgnoredSections(), is(false));
+        assertThat(parser.replaceIgnoredSections(), nullValue());
+    }
+
+    @Test
+    public void bytesWithInstructionsShouldBeDecodedAndScanned() {
+        String xml = "<project><?sortpom ignore?><name>Här</name><?sortpom resume?></project>";
+        parser.scanForIgnoredSections(xml.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertThat(parser.existsIgnoredSections(), is(true));
+        assertThat(parser.replaceIgnoredSections(), is("<project><?sortpom token='0'?></project>"));
+    }
+
+    @Test
+    public void bytesWithOtherEncodingShouldAlwaysBeDecoded() {
+        String xml = "<project><name>Här</name></project>";
+        parser.scanForIgnoredSections(xml.getBytes(StandardCharsets.UTF_16), StandardCharsets.UTF_16);
+
+        assertThat(parser.existsIgnoredSections(), is(false));
+        assertThat(parser.replaceIgnoredSections(), is(xml));
+    }
 }
@@ -0,0 +1,102 @@
+package sortpom.statistics;
+
+import org.jdom.Comment;
+import org.jdom.Element;
+import org.junit.jupiter.api.Test;
+import sortpom.statistics.SortStatistics.Phase;
+import sortpom.wrapper.content.SortedWrapper;
+import sortpom.wrapper.content.UnsortedWrapper;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class SortStatisticsTest {
+
+    @Test
+    public void phasesThatRunSeveralTimesShouldBeAddedUp() throws InterruptedException {
+        SortStatistics statistics = new SortStatistics();
+        SortStatistics.Timer timer = statistics.start(Phase.PARSE);
+        Thread.sleep(2);
+        timer.stop();
+        long firstTime = statistics.getTimeNanos(Phase.PARSE);
+        statistics.start(Phase.PARSE).stop();
+
+        assertThat(firstTime, greaterThan(0L));
+        assertThat(statistics.getTimeNanos(Phase.PARSE), greaterThanOrEqualTo(firstTime));
+        assertThat(statistics.getTimeNanos(Phase.SORT), is(0L));
+    }
+
+    @Test
+    public void wrappersShouldBeCountedByType() {
+        SortStatistics statistics = new SortStatistics();
+        statistics.countWrapper(new SortedWrapper(new Element("a"), 1));
+        statistics.countWrapper(new SortedWrapper(new Element("b"), 2));
+        statistics.countWrapper(new UnsortedWrapper<>(new Comment("c")));
+        statistics.addComparisons(3);
+        statistics.addComparisons(4);
+
+        assertThat(statistics.getElementCount(), is(2));
+        assertThat(statistics.getWrapperCounts().toString(), is("{SortedWrapper=2, UnsortedWrapper=1}"));
+        assertThat(statistics.getComparisonCount(), is(7L));
+    }
+
+    @Test
+    public void jsonShouldContainAllStatistics() {
+        SortStatistics statistics = new SortStatistics();
+        statistics.start(Phase.READ).stop();
+        statistics.start(Phase.IGNORED_SECTIONS).stop();
+        statistics.countWrapper(new SortedWrapper(new Element("a"), 1));
+        statistics.addComparisons(5);
+
+        String json = statistics.toJson();
+
+        assertThat(json, containsString("\"read\": {\"timeNanos\": "));
+        assertThat(json, containsString("\"ignored_sections\": {\"timeNanos\": "));
+        assertThat(json, not(containsString("\"sort\"")));
+        assertThat(json, containsString("\"elements\": 1,"));
+        assertThat(json, containsString("\"wrappers\": {\n    \"SortedWrapper\": 1\n  },"));
+        assertThat(json, containsString("\"comparisons\": 5\n}"));
+    }
+
+    @Test
+    public void finishShouldKeepStatistics() {
+        SortStatistics statistics = new SortStatistics();
+        statistics.start(Phase.WRITE).stop();
+        statistics.finish("pom.xml", true);
+        statistics.finish("pom.xml", true);
+
+        assertThat(statistics.getTimeNanos(Phase.WRITE), greaterThan(0L));
+    }
+
+    @Test
+    public void disabledStatisticsShouldRecordNothing() {
+        SortStatistics statistics = SortStatistics.disabled();
+        statistics.start(Phase.READ).stop();
+        statistics.addComparisons(5);
+        statistics.countWrapper(new SortedWrapper(new Element("project"), 1));
+        statistics.finish("pom.xml", true);
+
+        assertThat(statistics.isEnabled(), is(false));
+        assertThat(statistics.getTimeNanos(Phase.READ), is(0L));
+        assertThat(statistics.getComparisonCount(), is(0L));
+        assertThat(statistics.getElementCount(), is(0));
+        assertThat(SortStatistics.create(true).isEnabled(), is(true));
+    }
+
+    @Test
+    public void summaryShouldBeOneLine() {
+        SortStatistics statistics = new SortStatistics();
+        statistics.start(Phase.READ).stop();
+        statistics.addComparisons(5);
+
+        String summary = statistics.toString();
+
+        assertThat(summary, containsString("Sort statistics: read "));
+        assertThat(summary, containsString("comparisons 5"));
+        assertThat(summary, not(containsString("\n")));
+    }
+}
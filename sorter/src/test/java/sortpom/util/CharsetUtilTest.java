@@ -0,0 +1,28 @@
+package sortpom.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CharsetUtilTest {
+
+    @Test
+    public void singleByteAndUtf8CharsetsShouldBeAsciiCompatible() {
+        assertThat(CharsetUtil.isAsciiCompatible(StandardCharsets.UTF_8), is(true));
+        assertThat(CharsetUtil.isAsciiCompatible(StandardCharsets.US_ASCII), is(true));
+        assertThat(CharsetUtil.isAsciiCompatible(StandardCharsets.ISO_8859_1), is(true));
+        assertThat(CharsetUtil.isAsciiCompatible(Charset.forName("windows-1252")), is(true));
+    }
+
+    @Test
+    public void multiByteCharsetsShouldNotBeAsciiCompatible() {
+        assertThat(CharsetUtil.isAsciiCompatible(StandardCharsets.UTF_16), is(false));
+        assertThat(CharsetUtil.isAsciiCompatible(StandardCharsets.UTF_16LE), is(false));
+        assertThat(CharsetUtil.isAsciiCompatible(Charset.forName("UTF-32BE")), is(false));
+        assertThat(CharsetUtil.isAsciiCompatible(Charset.forName("IBM037")), is(false));
+    }
+}
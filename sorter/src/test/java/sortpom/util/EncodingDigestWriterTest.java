@@ -0,0 +1,88 @@
+package sortpom.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class EncodingDigestWriterTest {
+    private static final String TEXT = "<project>\r\n  <name>Smörgåsbord € 😀 中文</name>\n</project>";
+
+    @Test
+    public void encodedBytesShouldBeSameAsStringGetBytes() throws IOException {
+        Charset[] charsets = {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII,
+                StandardCharsets.UTF_16, Charset.forName("windows-1252")};
+        for (Charset charset : charsets) {
+            for (int bufferSize : new int[]{1, 2, 3, 7, 8192}) {
+                EncodingDigestWriter writer = new EncodingDigestWriter(charset, bufferSize);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                writer.start(Channels.newChannel(out), false);
+                writer.write(TEXT.substring(0, 20));
+                writer.write(TEXT.substring(20).toCharArray());
+                byte[] digest = writer.finish();
+
+                byte[] expected = TEXT.getBytes(charset);
+                assertThat(charset + " " + bufferSize, out.toByteArray(), is(expected));
+                assertThat(charset + " " + bufferSize, digest, is(sha256(expected)));
+            }
+        }
+    }
+
+    @Test
+    public void writerShouldBeReusable() throws IOException {
+        EncodingDigestWriter writer = new EncodingDigestWriter(StandardCharsets.UTF_8, 4);
+
+        writer.start(null, false);
+        writer.write("Something else \ud83d");
+        writer.finish();
+
+        writer.start(null, false);
+        writer.write(TEXT);
+        assertThat(writer.finish(), is(sha256(TEXT.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void skippedLineSeparatorsShouldNotAffectDigest() throws IOException {
+        EncodingDigestWriter writer = new EncodingDigestWriter(StandardCharsets.UTF_16, 5);
+
+        writer.start(null, true);
+        writer.write(TEXT);
+        byte[] digest = writer.finish();
+
+        writer.start(null, true);
+        writer.write(TEXT.replaceAll("\\n|\\r", "").toCharArray());
+        writer.write('\n');
+        assertThat(writer.finish(), is(digest));
+    }
+
+    @Test
+    public void lonelySurrogateShouldBeReplacedAsStringGetBytes() throws IOException {
+        String text = "a\ud83db\ude00";
+        EncodingDigestWriter writer = new EncodingDigestWriter(StandardCharsets.UTF_8, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.start(Channels.newChannel(out), false);
+        writer.write(text);
+        writer.write("\ud83d");
+        writer.finish();
+
+        assertThat(out.toByteArray(), is((text + "\ud83d").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -103,6 +103,19 @@ public class FileUtilExceptionsTest {
         assertTrue(pomFileTemp.setReadable(true));
     }
 
+    @Test
+    public void whenSortedContentCannotBeWrittenAnExceptionShouldBeThrown() {
+        FileUtil fileUtil = createFileUtil();
+
+        final Executable testMethod = () -> fileUtil.savePomFile(channel -> {
+            throw new IOException("Disk full");
+        });
+
+        final FailureException thrown = assertThrows(FailureException.class, testMethod);
+
+        assertThat("Unexpected message", thrown.getMessage(), is(equalTo("Could not save sorted pom file: " + pomFileTemp.getAbsolutePath())));
+    }
+
     @Test
     public void whenPomFileTimestampCannotBeRetrievedAnExceptionShouldBeThrown() {
         FileUtil fileUtil = createFileUtil();
@@ -3,9 +3,12 @@ package sortpom.util;
 import org.junit.jupiter.api.Test;
 import sortpom.parameter.PluginParameters;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -72,6 +75,27 @@ public class FileUtilTest {
         }
     }
 
+    @Test
+    public void sortOrderCacheKeyShouldIdentifySortOrderSource() {
+        assertThat(createFileUtil("zzz_Attribute_expected.xml").getSortOrderCacheKey(), is("classpath:zzz_Attribute_expected.xml"));
+        assertThat(createFileUtil("http://example.com/sortOrder.xml").getSortOrderCacheKey(), is("url:http://example.com/sortOrder.xml"));
+        assertThat(createFileUtil(null).getSortOrderCacheKey(), is("predefined:default_1_0_0"));
+    }
+
+    @Test
+    public void sortOrderCacheKeyShouldChangeWhenCustomSortOrderFileChanges() throws IOException {
+        File sortOrderFile = File.createTempFile("sortOrder", ".xml", new File("target"));
+        sortOrderFile.deleteOnExit();
+        Files.write(sortOrderFile.toPath(), "<project/>".getBytes(StandardCharsets.UTF_8));
+        FileUtil fileUtil = createFileUtil(sortOrderFile.getPath());
+        String keyBeforeChange = fileUtil.getSortOrderCacheKey();
+
+        Files.write(sortOrderFile.toPath(), "<project><modelVersion/></project>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(keyBeforeChange, startsWith("file:" + sortOrderFile.getAbsolutePath()));
+        assertThat(fileUtil.getSortOrderCacheKey(), not(keyBeforeChange));
+    }
+
     private FileUtil createFileUtil(String customSortOrderFile) {
         FileUtil fileUtil = new FileUtil();
         PluginParameters pluginParameters = PluginParameters.builder()
@@ -0,0 +1,80 @@
+package sortpom.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LineSeparatorWriterTest {
+
+    private StringWriter out;
+    private LineSeparatorWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        out = new StringWriter();
+        writer = new LineSeparatorWriter("separator", out);
+    }
+
+    @Test
+    public void writeNewlineShouldBeConvertedToSeparator() throws IOException {
+        writer.write("Hello");
+        writer.write('&');
+        writer.write('\n');
+        writer.write("Goodbye\nYou!".toCharArray());
+        writer.close();
+        assertThat(out.toString(), is("Hello&separatorGoodbyeseparatorYou!"));
+    }
+
+    @Test
+    public void onlyFinishedLinesShouldBePassedOn() throws IOException {
+        writer.write("<xml>\n  <moreXml>");
+        writer.flush();
+        assertThat(out.toString(), is("<xml>separator"));
+    }
+
+    @Test
+    public void clearExtraNewlinesShouldWork() throws IOException {
+        writer.write("<xml>\n");
+
+        //The spaces should be removed
+        writer.write("  ");
+
+        writer.clearLineBuffer();
+        writer.write("<moreXml>");
+        writer.close();
+        assertThat(out.toString(), is("<xml>separator<moreXml>"));
+    }
+
+    @Test
+    public void writePartOfTextShouldOnlyWriteThatPart() throws IOException {
+        writer.write("--Hey\nYou!--", 2, 8);
+        writer.write("--\nBye--".toCharArray(), 2, 4);
+        writer.close();
+        assertThat(out.toString(), is("HeyseparatorYou!separatorBye"));
+    }
+
+    @Test
+    public void longLinesShouldBeWrittenCompletely() throws IOException {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longLine.append(i);
+        }
+        writer.write(longLine.toString());
+        writer.write("\n");
+        writer.write(longLine.toString().toCharArray());
+        writer.close();
+        assertThat(out.toString(), is(longLine + "separator" + longLine));
+    }
+
+    @Test
+    public void finalNewlineShouldBeRemoved() throws IOException {
+        writer.write("Hey\n\n");
+        writer.close();
+        assertThat(out.toString(), is("Heyseparator"));
+    }
+}
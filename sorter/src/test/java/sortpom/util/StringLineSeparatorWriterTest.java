@@ -2,12 +2,9 @@ package sortpom.util;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.function.Executable;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
-import static org.hamcrest.core.IsNull.nullValue;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author bjorn
@@ -50,33 +47,41 @@ public class StringLineSeparatorWriterTest {
     }
 
     @Test
-    public void testWriteDeprecated1() {
-
-        final Executable testMethod = () -> writer.write(new char[0]);
-
-        final UnsupportedOperationException thrown = assertThrows(UnsupportedOperationException.class, testMethod);
-
-        assertThat(thrown.getMessage(), is(nullValue()));
+    public void writeCharArrayShouldConvertNewlines() {
+        writer.write("Hey\nYou!\n\n".toCharArray());
+        writer.write("Bye".toCharArray());
+        assertThat(writer.toString(), is("HeyseparatorYou!separatorseparatorBye"));
     }
 
     @Test
-    public void testWriteDeprecated2() {
-
-        final Executable testMethod = () -> writer.write("", 0, 0);
-
-        final UnsupportedOperationException thrown = assertThrows(UnsupportedOperationException.class, testMethod);
-
-        assertThat(thrown.getMessage(), is(nullValue()));
+    public void writePartOfStringShouldOnlyWriteThatPart() {
+        writer.write("--Hey\nYou!--", 2, 8);
+        writer.write("", 0, 0);
+        assertThat(writer.toString(), is("HeyseparatorYou!"));
     }
 
     @Test
-    public void testWriteDeprecated3() {
-
-        final Executable testMethod = () -> writer.write(new char[0], 0, 0);
+    public void writePartOfCharArrayShouldOnlyWriteThatPart() {
+        writer.write("\n\nHey\nYou!\n".toCharArray(), 2, 8);
+        writer.write(new char[0], 0, 0);
+        assertThat(writer.toString(), is("HeyseparatorYou!"));
+    }
 
-        final UnsupportedOperationException thrown = assertThrows(UnsupportedOperationException.class, testMethod);
+    @Test
+    public void trailingNewlineShouldBeRemoved() {
+        writer.write("Hey\n");
+        writer.write("You!\n");
+        assertThat(writer.toString(), is("HeyseparatorYou!"));
+    }
 
-        assertThat(thrown.getMessage(), is(nullValue()));
+    @Test
+    public void clearLineBufferShouldOnlyClearCurrentLine() {
+        writer.write("<xml>\n    ".toCharArray(), 0, 9);
+        writer.clearLineBuffer();
+        writer.write("\n  <moreXml>\n  ");
+        writer.clearLineBuffer();
+        writer.write("</xml>");
+        assertThat(writer.toString(), is("<xml>separatorseparator  <moreXml>separator</xml>"));
     }
 
 }
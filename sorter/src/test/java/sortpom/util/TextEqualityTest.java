@@ -0,0 +1,49 @@
+package sortpom.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class TextEqualityTest {
+
+    @Test
+    public void textsWithDifferentWhitespaceShouldBeEqual() {
+        assertThat(TextEquality.equalsIgnoringWhitespace("", ""), is(true));
+        assertThat(TextEquality.equalsIgnoringWhitespace(" \t\n", "\r\f\u000B"), is(true));
+        assertThat(TextEquality.equalsIgnoringWhitespace("a b\nc", "abc  "), is(true));
+        assertThat(TextEquality.equalsIgnoringWhitespace("\n  abc", "abc"), is(true));
+    }
+
+    @Test
+    public void differentTextsShouldNotBeEqual() {
+        assertThat(TextEquality.equalsIgnoringWhitespace("abc", "ab"), is(false));
+        assertThat(TextEquality.equalsIgnoringWhitespace("ab", "a b c"), is(false));
+        assertThat(TextEquality.equalsIgnoringWhitespace("a b", "ab"), is(false));
+        assertThat(TextEquality.equalsIgnoringWhitespace("", "a"), is(false));
+    }
+
+    @Test
+    public void resultShouldBeSameAsWithRegularExpression() {
+        Random random = new Random(42);
+        String characters = "ab \t\n\r\f\u000B ";
+        for (int n = 0; n < 10000; n++) {
+            String first = randomText(random, characters);
+            String second = randomText(random, characters);
+
+            assertThat(first + "|" + second, TextEquality.equalsIgnoringWhitespace(first, second),
+                    is(first.replaceAll("\\s", "").equals(second.replaceAll("\\s", ""))));
+        }
+    }
+
+    private String randomText(Random random, String characters) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            text.append(characters.charAt(random.nextInt(characters.length())));
+        }
+        return text.toString();
+    }
+}
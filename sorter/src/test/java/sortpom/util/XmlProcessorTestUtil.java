@@ -63,6 +63,14 @@ public class XmlProcessorTestUtil {
         setup(inputFileName);
         xmlProcessor.sortXml();
         assertTrue(xmlProcessor.isXmlOrdered().isOrdered());
+
+        setup(inputFileName);
+        xmlProcessor.recordOriginalSignature();
+        xmlProcessor.sortXmlInPlace();
+        assertTrue(xmlProcessor.isXmlOrdered().isOrdered());
+
+        setup(inputFileName);
+        assertTrue(xmlProcessor.verifyXml().isOrdered());
     }
 
     public void testVerifyXmlIsNotOrdered(final String inputFileName, String infoMessage) throws Exception {
@@ -71,6 +79,18 @@ public class XmlProcessorTestUtil {
         XmlOrderedResult xmlOrdered = xmlProcessor.isXmlOrdered();
         assertFalse(xmlOrdered.isOrdered());
         assertEquals(infoMessage, xmlOrdered.getErrorMessage());
+
+        setup(inputFileName);
+        xmlProcessor.recordOriginalSignature();
+        xmlProcessor.sortXmlInPlace();
+        XmlOrderedResult xmlOrderedInPlace = xmlProcessor.isXmlOrdered();
+        assertFalse(xmlOrderedInPlace.isOrdered());
+        assertEquals(infoMessage, xmlOrderedInPlace.getErrorMessage());
+
+        setup(inputFileName);
+        XmlOrderedResult xmlOrderedWithoutSorting = xmlProcessor.verifyXml();
+        assertFalse(xmlOrderedWithoutSorting.isOrdered());
+        assertEquals(infoMessage, xmlOrderedWithoutSorting.getErrorMessage());
     }
 
     private void setup(String inputFileName) throws Exception {
@@ -1,7 +1,19 @@
 package sortpom.verify;
 
 import org.junit.jupiter.api.Test;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.util.XmlOrderedResult;
 import sortpom.util.XmlProcessorTestUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class XmlProcessorTest {
 
@@ -30,4 +42,76 @@ public class XmlProcessorTest {
                 "src/test/resources/MultilineComment_input.xml",
                 "The xml element <groupId> should be placed before <artifactId>");
     }
+
+    @Test
+    public final void allViolationsShouldBeCollectedWithXpathAndPositions() throws Exception {
+        XmlProcessor xmlProcessor = createXmlProcessor("groupId,artifactId");
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(("<project>" +
+                "<artifactId>a</artifactId><modelVersion>4.0.0</modelVersion><groupId>g</groupId>" +
+                "<dependencies>" +
+                "<dependency><groupId>b</groupId><artifactId>b</artifactId></dependency>" +
+                "<dependency><groupId>a</groupId><artifactId>a</artifactId></dependency>" +
+                "</dependencies>" +
+                "</project>").getBytes(StandardCharsets.UTF_8)));
+
+        XmlOrderedResult xmlOrderedResult = xmlProcessor.verifyXml(true);
+
+        assertThat(xmlOrderedResult.isOrdered(), is(false));
+        assertThat(xmlOrderedResult.getErrorMessage(), is("The xml element <modelVersion> should be placed before <artifactId>"));
+        OrderViolations violations = xmlOrderedResult.getViolations();
+        assertThat(violations.size(), is(5));
+        assertViolation(violations, 0, "/project/artifactId", 1, 3);
+        assertViolation(violations, 1, "/project/modelVersion", 2, 1);
+        assertViolation(violations, 2, "/project/groupId", 3, 2);
+        assertViolation(violations, 3, "/project/dependencies/dependency[1]", 1, 2);
+        assertViolation(violations, 4, "/project/dependencies/dependency[2]", 2, 1);
+        assertThat(violations.getMessage(4),
+                is("The xml element /project/dependencies/dependency[2] should be placed at position 1 instead of 2"));
+    }
+
+    @Test
+    public final void sortedXmlShouldNotHaveViolations() throws Exception {
+        XmlProcessor xmlProcessor = createXmlProcessor("groupId,artifactId");
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(("<project>" +
+                "<modelVersion>4.0.0</modelVersion><groupId>g</groupId><artifactId>a</artifactId>" +
+                "</project>").getBytes(StandardCharsets.UTF_8)));
+
+        XmlOrderedResult xmlOrderedResult = xmlProcessor.verifyXml(true);
+
+        assertThat(xmlOrderedResult.isOrdered(), is(true));
+        assertThat(xmlOrderedResult.getViolations().isEmpty(), is(true));
+    }
+
+    private void assertViolation(OrderViolations violations, int index, String xpath, int position, int expectedPosition) {
+        assertThat(violations.getXPath(index), is(xpath));
+        assertThat(violations.getPosition(index), is(position));
+        assertThat(violations.getExpectedPosition(index), is(expectedPosition));
+    }
+
+    private XmlProcessor createXmlProcessor(String sortDependencies) {
+        PluginParameters pluginParameters = PluginParameters.builder()
+                .setSortOrder("default_1_0_0.xml", null)
+                .setSortEntities(sortDependencies, "", false, false).build();
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        return new XmlProcessor(wrapperFactory);
+    }
+
+    @Test
+    public final void verifyWithoutSignatureAfterSortInPlaceShouldThrowException() throws Exception {
+        PluginParameters pluginParameters = PluginParameters.builder().setSortEntities("", "", false, false).build();
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        XmlProcessor xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream("<project/>".getBytes(StandardCharsets.UTF_8)));
+        xmlProcessor.sortXmlInPlace();
+
+        final IllegalStateException thrown = assertThrows(IllegalStateException.class, xmlProcessor::isXmlOrdered);
+
+        assertThat(thrown.getMessage(), is("The original xml was sorted in place without recording its signature"));
+    }
 }
@@ -0,0 +1,55 @@
+package sortpom.wrapper;
+
+import org.jdom.Element;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ElementSortOrderMapTest {
+
+    @Test
+    public void childNodesShouldGetIncreasingSortOrder() {
+        Element project = new Element("project")
+                .addContent(new Element("modelVersion"))
+                .addContent(new Element("build").addContent(new Element("plugins")));
+        ElementSortOrderMap map = ElementSortOrderMap.create(project);
+
+        ElementSortOrderMap.Node projectNode = map.getDocumentNode().getChild("project");
+        assertThat(projectNode.getSortOrder(), is(1000));
+        assertThat(projectNode.getChild("modelVersion").getSortOrder(), is(1100));
+        assertThat(projectNode.getChild("build").getSortOrder(), is(1200));
+        assertThat(projectNode.getChild("build").getChild("plugins").getSortOrder(), is(1300));
+        assertThat(projectNode.getChild("gurka"), nullValue());
+    }
+
+    @Test
+    public void duplicateElementsShouldUseLastSortOrderAndMergeChildren() {
+        Element project = new Element("project")
+                .addContent(new Element("build").addContent(new Element("plugins")))
+                .addContent(new Element("modelVersion"))
+                .addContent(new Element("build").addContent(new Element("resources")));
+        ElementSortOrderMap map = ElementSortOrderMap.create(project);
+
+        ElementSortOrderMap.Node buildNode = map.getDocumentNode().getChild("project").getChild("build");
+        assertThat(buildNode.getSortOrder(), is(1300));
+        assertThat(buildNode.getChild("plugins").getSortOrder(), is(1200));
+        assertThat(buildNode.getChild("resources").getSortOrder(), is(1400));
+    }
+
+    @Test
+    public void nodeShouldBeFoundByFollowingParentElements() {
+        ElementSortOrderMap map = ElementSortOrderMap.create(new Element("project")
+                .addContent(new Element("build").addContent(new Element("plugins"))));
+        Element plugins = new Element("plugins");
+        new Element("project").addContent(new Element("build").addContent(plugins));
+        Element misplacedPlugins = new Element("plugins");
+        new Element("project").addContent(misplacedPlugins);
+
+        assertThat(map.getNode(plugins), sameInstance(map.getDocumentNode().getChild("project").getChild("build").getChild("plugins")));
+        assertThat(map.getNode(misplacedPlugins), nullValue());
+        assertThat(ElementSortOrderMap.EMPTY.getNode(plugins), nullValue());
+    }
+}
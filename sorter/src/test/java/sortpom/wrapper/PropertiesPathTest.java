@@ -0,0 +1,32 @@
+package sortpom.wrapper;
+
+import org.jdom.Element;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class PropertiesPathTest {
+
+    @Test
+    public void projectPropertiesShouldBeFound() {
+        assertThat(PropertiesPath.DOCUMENT.child("project").child("properties"), is(PropertiesPath.PROPERTIES));
+        assertThat(PropertiesPath.DOCUMENT.child("project").child("properties").child("a").child("b"), is(PropertiesPath.PROPERTIES));
+    }
+
+    @Test
+    public void profilePropertiesShouldBeFound() {
+        Element properties = new Element("properties");
+        new Element("project").addContent(new Element("profiles").addContent(new Element("profile").addContent(properties)));
+
+        assertThat(PropertiesPath.of(properties), is(PropertiesPath.PROPERTIES));
+    }
+
+    @Test
+    public void otherPropertiesShouldNotBeFound() {
+        assertThat(PropertiesPath.DOCUMENT.child("properties"), is(PropertiesPath.OTHER));
+        assertThat(PropertiesPath.DOCUMENT.child("project").child("build").child("properties"), is(PropertiesPath.OTHER));
+        assertThat(PropertiesPath.DOCUMENT.child("project").child("profiles").child("properties"), is(PropertiesPath.OTHER));
+        assertThat(PropertiesPath.of(null), is(PropertiesPath.DOCUMENT));
+    }
+}
@@ -0,0 +1,59 @@
+package sortpom.wrapper;
+
+import org.jdom.Element;
+import org.junit.jupiter.api.Test;
+import sortpom.exception.FailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SortOrderCacheTest {
+    private final AtomicInteger compileCount = new AtomicInteger();
+    private final Supplier<ElementSortOrderMap> compiler = () -> {
+        compileCount.incrementAndGet();
+        return ElementSortOrderMap.create(new Element("project"));
+    };
+
+    @Test
+    public void sameKeyShouldOnlyBeCompiledOnce() {
+        ElementSortOrderMap first = SortOrderCache.get("test:sameKey", compiler);
+        ElementSortOrderMap second = SortOrderCache.get("test:sameKey", compiler);
+
+        assertThat(second, sameInstance(first));
+        assertThat(compileCount.get(), is(1));
+    }
+
+    @Test
+    public void leastRecentlyUsedSortOrderShouldBeEvicted() {
+        SortOrderCache.get("test:evicted", compiler);
+        SortOrderCache.get("test:kept", compiler);
+        for (int i = 0; i < SortOrderCache.MAX_ENTRIES - 1; i++) {
+            SortOrderCache.get("test:kept", compiler);
+            SortOrderCache.get("test:filler" + i, compiler);
+        }
+        assertThat(compileCount.get(), is(SortOrderCache.MAX_ENTRIES + 1));
+
+        SortOrderCache.get("test:kept", compiler);
+        assertThat(compileCount.get(), is(SortOrderCache.MAX_ENTRIES + 1));
+
+        SortOrderCache.get("test:evicted", compiler);
+        assertThat(compileCount.get(), is(SortOrderCache.MAX_ENTRIES + 2));
+    }
+
+    @Test
+    public void failedCompilationShouldNotBeCached() {
+        Supplier<ElementSortOrderMap> failingCompiler = () -> {
+            throw new FailureException("Gurka");
+        };
+
+        assertThrows(FailureException.class, () -> SortOrderCache.get("test:failing", failingCompiler));
+        SortOrderCache.get("test:failing", compiler);
+
+        assertThat(compileCount.get(), is(1));
+    }
+}
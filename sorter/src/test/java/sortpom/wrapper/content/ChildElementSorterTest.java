@@ -0,0 +1,79 @@
+package sortpom.wrapper.content;
+
+import org.jdom.Element;
+import org.junit.jupiter.api.Test;
+import sortpom.parameter.DependencySortOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ChildElementSorterTest {
+    private final DependencySortOrder scopeGroupIdArtifactId = new DependencySortOrder("scope,groupId,artifactId", "com.prio");
+
+    @Test
+    public void scopeShouldBeSortedByScopeOrderAndNotByText() {
+        ChildElementSorter compile = createSorter(scopeGroupIdArtifactId, "scope", "compile");
+        ChildElementSorter missingScope = createSorter(scopeGroupIdArtifactId);
+        ChildElementSorter provided = createSorter(scopeGroupIdArtifactId, "scope", "PROVIDED");
+        ChildElementSorter test = createSorter(scopeGroupIdArtifactId, "scope", "test");
+        ChildElementSorter other = createSorter(scopeGroupIdArtifactId, "scope", "anything");
+
+        assertThat(provided.compareTo(test), is(true));
+        assertThat(test.compareTo(provided), is(false));
+        assertThat(missingScope.compareTo(provided), is(true));
+        assertThat(compile.compareTo(missingScope), is(false));
+        assertThat(missingScope.compareTo(compile), is(false));
+        assertThat(test.compareTo(other), is(true));
+    }
+
+    @Test
+    public void textsShouldBeComparedIgnoringCase() {
+        ChildElementSorter upper = createSorter(scopeGroupIdArtifactId, "groupId", "ORG.A", "artifactId", "B");
+        ChildElementSorter lower = createSorter(scopeGroupIdArtifactId, "groupId", "org.a", "artifactId", "a");
+        ChildElementSorter underscore = createSorter(scopeGroupIdArtifactId, "groupId", "org.a", "artifactId", "_");
+
+        assertThat(lower.compareTo(upper), is(true));
+        assertThat(upper.compareTo(lower), is(false));
+        assertThat(upper.compareTo(upper), is(false));
+        // Same as String.compareToIgnoreCase, which compares lower case letters, '_' is placed before letters
+        assertThat(underscore.compareTo(upper), is(true));
+        assertThat(lower.compareTo(underscore), is(false));
+    }
+
+    @Test
+    public void prioritizedGroupsShouldBePlacedFirst() {
+        ChildElementSorter prioritized = createSorter(scopeGroupIdArtifactId, "groupId", "com.prio.sub", "artifactId", "z");
+        ChildElementSorter notPrioritized = createSorter(scopeGroupIdArtifactId, "groupId", "com.prioritized", "artifactId", "a");
+        ChildElementSorter first = createSorter(scopeGroupIdArtifactId, "groupId", "a", "artifactId", "a");
+
+        assertThat(prioritized.compareTo(first), is(true));
+        assertThat(first.compareTo(notPrioritized), is(true));
+        assertThat(notPrioritized.compareTo(prioritized), is(false));
+    }
+
+    @Test
+    public void emptyGroupIdValueShouldBeUsedForMissingGroupId() {
+        DependencySortOrder groupIdArtifactId = new DependencySortOrder("groupId,artifactId");
+        ChildElementSorter missingGroupId = new ChildElementSorter(groupIdArtifactId,
+                createChildren("artifactId", "maven-compiler-plugin"), "org.apache.maven.plugins");
+        ChildElementSorter otherGroupId = createSorter(groupIdArtifactId, "groupId", "org.apache.maven", "artifactId", "a");
+
+        assertThat(otherGroupId.compareTo(missingGroupId), is(true));
+        assertThat(missingGroupId.toString(), is("ChildElementSorter{childElementTexts=[org.apache.maven.plugins, maven-compiler-plugin]}"));
+    }
+
+    private ChildElementSorter createSorter(DependencySortOrder sortOrder, String... namesAndTexts) {
+        return new ChildElementSorter(sortOrder, createChildren(namesAndTexts));
+    }
+
+    private List<Element> createChildren(String... namesAndTexts) {
+        List<Element> children = new ArrayList<>();
+        for (int i = 0; i < namesAndTexts.length; i += 2) {
+            children.add(new Element(namesAndTexts[i]).setText(namesAndTexts[i + 1]));
+        }
+        return children;
+    }
+}
@@ -0,0 +1,157 @@
+package sortpom.wrapper.operation;
+
+import org.jdom.Element;
+import org.junit.jupiter.api.Test;
+import sortpom.wrapper.content.AlphabeticalSortedWrapper;
+import sortpom.wrapper.content.ModuleSortedWrapper;
+import sortpom.wrapper.content.SortedWrapper;
+import sortpom.wrapper.content.UnsortedWrapper;
+import sortpom.wrapper.content.Wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class SortChildrenOperationTest {
+    private final Random random = new Random(42);
+
+    @Test
+    public void sortedWrappersWithSameSortOrderShouldKeepTheirOrder() {
+        List<HierarchyWrapper> children = createChildren(
+                new SortedWrapper(new Element("c"), 2),
+                new SortedWrapper(new Element("a"), 1),
+                new SortedWrapper(new Element("d"), 2),
+                new SortedWrapper(new Element("b"), 1));
+
+        new SortChildrenOperation().manipulateChildElements(children);
+
+        assertThat(elementNames(children), contains("a", "b", "c", "d"));
+    }
+
+    @Test
+    public void unsortedWrappersShouldBePlacedLastInOriginalOrder() {
+        List<HierarchyWrapper> children = createChildren(
+                new UnsortedWrapper<>(new Element("x")),
+                new SortedWrapper(new Element("b"), 2),
+                new UnsortedWrapper<>(new Element("y")),
+                new SortedWrapper(new Element("a"), 1));
+
+        new SortChildrenOperation().manipulateChildElements(children);
+
+        assertThat(elementNames(children), contains("a", "b", "x", "y"));
+    }
+
+    @Test
+    public void modulesWithSameTextShouldBeReversed() {
+        Element first = new Element("module").setText("same");
+        Element second = new Element("module").setText("same");
+        List<HierarchyWrapper> children = createChildren(
+                new ModuleSortedWrapper(first, 1),
+                new ModuleSortedWrapper(second, 1));
+
+        new SortChildrenOperation().manipulateChildElements(children);
+
+        assertThat(children.get(0).getElementContent().getContent() == second, is(true));
+        assertThat(children.get(1).getElementContent().getContent() == first, is(true));
+    }
+
+    @Test
+    public void sortedWrappersShouldBeSortedAsWithInsertionSort() {
+        assertSameOrderAsInsertionSort(i -> random.nextInt(5) == 0
+                ? new UnsortedWrapper<>(new Element("u" + i))
+                : new SortedWrapper(new Element("s" + i), random.nextInt(10)));
+    }
+
+    @Test
+    public void moduleWrappersShouldBeSortedAsWithInsertionSort() {
+        assertSameOrderAsInsertionSort(i -> new ModuleSortedWrapper(
+                new Element("module").setText("m" + random.nextInt(20)), 1));
+    }
+
+    @Test
+    public void alphabeticalWrappersShouldBeSortedAsWithInsertionSort() {
+        assertSameOrderAsInsertionSort(i -> new AlphabeticalSortedWrapper(new Element("p" + random.nextInt(20))));
+    }
+
+    @Test
+    public void childOutOfOrderShouldBeFoundIfSortChangesOrder() {
+        for (int size = 0; size < 100; size++) {
+            List<HierarchyWrapper> children = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                children.add(new HierarchyWrapper(random.nextInt(5) == 0
+                        ? new UnsortedWrapper<>(new Element("u" + i))
+                        : new SortedWrapper(new Element("s" + i), random.nextInt(size / 10 + 1) + i / 2)));
+            }
+            List<HierarchyWrapper> sorted = new ArrayList<>(children);
+            new SortChildrenOperation().manipulateChildElements(sorted);
+
+            int childOutOfOrder = new SortChildrenOperation().findFirstChildOutOfOrder(children);
+
+            assertThat(childOutOfOrder >= 0, is(!sorted.equals(children)));
+        }
+    }
+
+    @Test
+    public void firstChildOutOfOrderShouldBeFound() {
+        List<HierarchyWrapper> children = createChildren(
+                new SortedWrapper(new Element("a"), 1),
+                new SortedWrapper(new Element("b"), 2),
+                new UnsortedWrapper<>(new Element("x")),
+                new SortedWrapper(new Element("c"), 3),
+                new SortedWrapper(new Element("d"), 1));
+
+        assertThat(new SortChildrenOperation().findFirstChildOutOfOrder(children), is(3));
+        assertThat(new SortChildrenOperation().findFirstChildOutOfOrder(children.subList(0, 3)), is(-1));
+    }
+
+    private void assertSameOrderAsInsertionSort(IntFunction<Wrapper<Element>> wrapperCreator) {
+        for (int size = 0; size < 100; size++) {
+            List<HierarchyWrapper> children = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                children.add(new HierarchyWrapper(wrapperCreator.apply(i)));
+            }
+            List<HierarchyWrapper> expected = new ArrayList<>(children);
+            insertionSort(expected);
+
+            new SortChildrenOperation().manipulateChildElements(children);
+
+            assertThat(children, is(expected));
+        }
+    }
+
+    /** The sort algorithm that was used before the merge sort */
+    private void insertionSort(List<HierarchyWrapper> children) {
+        for (int i = 0; i < children.size(); i++) {
+            HierarchyWrapper child = children.get(i);
+            Wrapper<Element> wrapper = child.getElementContent();
+            if (wrapper.isSortable()) {
+                for (int j = 0; j < i; j++) {
+                    if (wrapper.isBefore(children.get(j).getElementContent())) {
+                        children.remove(i);
+                        children.add(j, child);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private List<HierarchyWrapper> createChildren(Wrapper<?>... wrappers) {
+        List<HierarchyWrapper> children = new ArrayList<>();
+        for (Wrapper<?> wrapper : wrappers) {
+            children.add(new HierarchyWrapper(wrapper));
+        }
+        return children;
+    }
+
+    private List<String> elementNames(List<HierarchyWrapper> children) {
+        List<String> names = new ArrayList<>();
+        children.forEach(child -> names.add(child.getElementContent().getContent().getName()));
+        return names;
+    }
+}
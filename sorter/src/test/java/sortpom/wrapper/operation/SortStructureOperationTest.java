@@ -0,0 +1,115 @@
+package sortpom.wrapper.operation;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+import org.junit.jupiter.api.Test;
+import sortpom.XmlOutputGenerator;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SortStructureOperationTest {
+    private final PluginParameters pluginParameters = PluginParameters.builder()
+            .setPomFile(null)
+            .setFileOutput(false, ".bak", null, false)
+            .setEncoding("UTF-8")
+            .setFormatting("\n", true, true)
+            .setIndent(2, false)
+            .setSortOrder("custom_1.xml", null)
+            .setSortEntities("scope,groupId,artifactId", "groupId,artifactId", true, true)
+            .build();
+
+    @Test
+    public void singleTraversalShouldGiveSameResultAsSeparateTraversals() throws Exception {
+        String[] fileNames = {"Real1_input.xml", "Complex_input.xml", "Attribute_input.xml", "SortModules_input.xml",
+                "MultilineComment_input.xml", "Extra_tags_dep_and_plugin.xml"};
+        for (String fileName : fileNames) {
+            String separateTraversals = sort(fileName, rootWrapper -> {
+                rootWrapper.detachStructure();
+                rootWrapper.sortStructureAttributes();
+                rootWrapper.sortStructureElements();
+                rootWrapper.connectXmlStructure();
+            });
+            String singleTraversal = sort(fileName, HierarchyRootWrapper::sortStructure);
+
+            assertThat(fileName, singleTraversal, is(separateTraversals));
+        }
+    }
+
+    @Test
+    public void contentWithoutSortedElementsShouldBeKeptInsteadOfWrapped() throws Exception {
+        String xml = "<project><build><plugins><plugin><artifactId>a</artifactId><configuration>\n" +
+                "      <b z=\"1\" a=\"2\">text</b>\n\n" +
+                "      <!-- comment -->\n" +
+                "      <c><d/></c>\n" +
+                "    </configuration></plugin></plugins></build></project>";
+        HierarchyRootWrapper rootWrapper = wrap(new SAXBuilder().build(new StringReader(xml)).detachRootElement());
+        List<String> wrappedElements = new ArrayList<>();
+        rootWrapper.visitWrappers(wrapper -> {
+            if (wrapper.isContentElement()) {
+                wrappedElements.add(((Element) wrapper.getContent()).getName());
+            }
+        });
+        assertThat(wrappedElements, is(Arrays.asList("project", "build", "plugins", "plugin", "artifactId", "configuration")));
+
+        Document document = new Document();
+        rootWrapper.sortStructure();
+        document.setRootElement(rootWrapper.getElementContent().getContent());
+        assertThat(createXmlOutputGenerator().getSortedXml(document), is("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project>\n" +
+                "  <build>\n" +
+                "    <plugins>\n" +
+                "      <plugin>\n" +
+                "        <artifactId>a</artifactId>\n" +
+                "        <configuration>\n" +
+                "          <b a=\"2\" z=\"1\">text</b>\n" +
+                "\n" +
+                "          <!-- comment -->\n" +
+                "          <c>\n" +
+                "            <d></d>\n" +
+                "          </c>\n" +
+                "        </configuration>\n" +
+                "      </plugin>\n" +
+                "    </plugins>\n" +
+                "  </build>\n" +
+                "</project>\n"));
+    }
+
+    private String sort(String fileName, Consumer<HierarchyRootWrapper> sortOperation) throws JDOMException, IOException {
+        Document document = new SAXBuilder().build(new File("src/test/resources/" + fileName));
+        HierarchyRootWrapper rootWrapper = wrap(document.detachRootElement());
+        sortOperation.accept(rootWrapper);
+        document.setRootElement(rootWrapper.getElementContent().getContent());
+
+        return createXmlOutputGenerator().getSortedXml(document);
+    }
+
+    private HierarchyRootWrapper wrap(Element rootElement) {
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        HierarchyRootWrapper rootWrapper = wrapperFactory.createFromRootElement(rootElement);
+        rootWrapper.createWrappedStructure(wrapperFactory);
+        return rootWrapper;
+    }
+
+    private XmlOutputGenerator createXmlOutputGenerator() {
+        XmlOutputGenerator xmlOutputGenerator = new XmlOutputGenerator();
+        xmlOutputGenerator.setup(pluginParameters);
+        return xmlOutputGenerator;
+    }
+}